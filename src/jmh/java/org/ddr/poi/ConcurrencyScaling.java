@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 依次以1、2、4、8、16个线程（可通过系统属性concurrency.threads指定，逗号分隔）运行{@link ConcurrentRenderBenchmark}，
+ * 输出各渲染策略的吞吐量及伸缩效率，即thr(n) / (n * thr(1))
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ConcurrencyScaling {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        String[] threadCounts = System.getProperty("concurrency.threads", "1,2,4,8,16").split(",");
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        Map<String, Map<Integer, Double>> throughputs = new TreeMap<>();
+        for (String threadCount : threadCounts) {
+            int threads = Integer.parseInt(threadCount.trim());
+            Options options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .include(ConcurrentRenderBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            for (RunResult result : new Runner(options).run()) {
+                String policy = result.getParams().getParam("policy");
+                throughputs.computeIfAbsent(policy, k -> new TreeMap<>())
+                        .put(threads, result.getPrimaryResult().getScore());
+            }
+        }
+
+        System.out.printf("%-8s %8s %12s %10s%n", "policy", "threads", "ops/s", "efficiency");
+        for (Map.Entry<String, Map<Integer, Double>> entry : throughputs.entrySet()) {
+            Double single = entry.getValue().get(1);
+            for (Map.Entry<Integer, Double> point : entry.getValue().entrySet()) {
+                String efficiency = single == null ? "-"
+                        : String.format("%.2f", point.getValue() / (point.getKey() * single));
+                System.out.printf("%-8s %8d %12.2f %10s%n", entry.getKey(), point.getKey(), point.getValue(), efficiency);
+            }
+        }
+    }
+}
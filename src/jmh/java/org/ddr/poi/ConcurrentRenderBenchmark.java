@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.ConfigureBuilder;
+import com.deepoove.poi.policy.RenderPolicy;
+import org.ddr.poi.html.HtmlCorpus;
+import org.ddr.poi.html.HtmlRenderPolicy;
+import org.ddr.poi.latex.LaTeXRenderPolicy;
+import org.ddr.poi.math.MathMLRenderPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程渲染基准测试，各线程共享同一个渲染策略但渲染相互独立的文档，线程数由{@link ConcurrencyScaling}设置
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class ConcurrentRenderBenchmark {
+    private static final String[] LATEX = {
+            "$$ x+2=3 $$",
+            "\\[ \\sum_{i=1}^{\\infty} \\frac{1}{n^s} = \\prod_p \\frac{1}{1 - p^{-s}} \\tag{1.1}\\]",
+            "Product $\\prod_{i=a}^{b} f(i)$ inside text. $\\mathbb{N} \\mathbf{R}$",
+            "$\\lim_{x\\to\\infty} f(x)$"
+    };
+
+    /**
+     * 渲染策略：html、mathml或latex
+     */
+    @Param({"html", "mathml", "latex"})
+    public String policy;
+
+    /**
+     * html策略使用的样例，指定1.html等含远程图片的样例可覆盖HTTPS连接的开销
+     */
+    @Param({"article"})
+    public String htmlCorpus;
+
+    private byte[] templateBytes;
+    private Configure configure;
+    private Map<String, Object> data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        data = new HashMap<>(4);
+        ConfigureBuilder builder = Configure.builder();
+        switch (policy) {
+            case "html":
+                templateBytes = HtmlCorpus.bytes("/notes.docx");
+                builder.bind("teachContent", new HtmlRenderPolicy());
+                data.put("teachContent", HtmlCorpus.of(htmlCorpus));
+                data.put("plainContent", "");
+                break;
+            case "mathml":
+                templateBytes = HtmlCorpus.bytes("/math.docx");
+                bindMath(builder, new MathMLRenderPolicy());
+                for (int i = 0; i < 4; i++) {
+                    data.put("math" + (i + 1), HtmlCorpus.resource("/" + i + ".xml"));
+                }
+                break;
+            case "latex":
+                templateBytes = HtmlCorpus.bytes("/math.docx");
+                bindMath(builder, new LaTeXRenderPolicy());
+                for (int i = 0; i < LATEX.length; i++) {
+                    data.put("math" + (i + 1), LATEX[i]);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown policy: " + policy);
+        }
+        configure = builder.build();
+    }
+
+    private static void bindMath(ConfigureBuilder builder, RenderPolicy renderPolicy) {
+        for (int i = 1; i <= 4; i++) {
+            builder.bind("math" + i, renderPolicy);
+        }
+    }
+
+    @Benchmark
+    public Object render() throws IOException {
+        try (XWPFTemplate xwpfTemplate = XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), configure)) {
+            xwpfTemplate.render(data);
+            return xwpfTemplate.getXWPFDocument().getBodyElements().size();
+        }
+    }
+}
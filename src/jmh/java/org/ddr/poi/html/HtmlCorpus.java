@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 基准测试使用的HTML样例，包括测试资源中的样例及合成的长文章、大表格、深层嵌套列表
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public final class HtmlCorpus {
+    private static final String[] STYLES = {
+            "",
+            " style=\"color: #333333; font-size: 14px;\"",
+            " style=\"text-align: center; line-height: 1.5;\"",
+            " style=\"font-family: 宋体, SimSun; text-indent: 2em;\""
+    };
+    private static final int SCALED_TABLE_COLUMNS = 10;
+
+    private HtmlCorpus() {
+    }
+
+    /**
+     * 根据名称获取样例，以.html结尾的名称从类路径读取，其余为合成样例
+     *
+     * @param name 样例名称
+     * @return HTML字符串
+     */
+    public static String of(String name) {
+        switch (name) {
+            case "article":
+                return article(300);
+            case "table":
+                return table(100, 8);
+            case "nested-list":
+                return nestedList(12, 4);
+            default:
+                return resource("/" + name);
+        }
+    }
+
+    /**
+     * 读取类路径下的资源
+     *
+     * @param resource 资源路径
+     * @return 资源内容
+     */
+    public static String resource(String resource) {
+        try (InputStream inputStream = HtmlCorpus.class.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Missing resource: " + resource);
+            }
+            return IOUtils.toString(inputStream, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 读取类路径下的二进制资源
+     *
+     * @param resource 资源路径
+     * @return 资源内容
+     */
+    public static byte[] bytes(String resource) {
+        try (InputStream inputStream = HtmlCorpus.class.getResourceAsStream(resource)) {
+            if (inputStream == null) {
+                throw new IllegalArgumentException("Missing resource: " + resource);
+            }
+            return IOUtils.toByteArray(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 长文章，包含标题及带有行内格式的段落
+     *
+     * @param paragraphs 段落数量
+     * @return HTML字符串
+     */
+    public static String article(int paragraphs) {
+        StringBuilder sb = new StringBuilder(paragraphs * 260);
+        for (int i = 0; i < paragraphs; i++) {
+            if (i % 20 == 0) {
+                sb.append("<h2>第").append(i / 20 + 1).append("节 Section heading</h2>");
+            }
+            sb.append("<p").append(STYLES[i % STYLES.length]).append('>')
+                    .append("Paragraph ").append(i).append(" 正文内容，")
+                    .append("<b>bold</b> <i>italic</i> <u>underline</u> ")
+                    .append("<span style=\"color: red; background-color: #ffff00;\">highlighted text</span>")
+                    .append(" x<sup>2</sup> + H<sub>2</sub>O ")
+                    .append("<a href=\"https://example.com/").append(i).append("\">link</a>")
+                    .append(" trailing words to make the run a little longer.</p>");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 大表格
+     *
+     * @param rows 行数
+     * @param columns 列数
+     * @return HTML字符串
+     */
+    public static String table(int rows, int columns) {
+        StringBuilder sb = new StringBuilder(rows * columns * 64);
+        sb.append("<table border=\"1\" style=\"width: 100%; border-collapse: collapse;\"><thead><tr>");
+        for (int c = 0; c < columns; c++) {
+            sb.append("<th>Header ").append(c).append("</th>");
+        }
+        sb.append("</tr></thead><tbody>");
+        for (int r = 0; r < rows; r++) {
+            sb.append("<tr>");
+            for (int c = 0; c < columns; c++) {
+                sb.append("<td").append(STYLES[(r + c) % STYLES.length]).append('>')
+                        .append("R").append(r).append("C").append(c);
+                if (c == 0) {
+                    sb.append(" <b>key</b>");
+                }
+                sb.append("</td>");
+            }
+            sb.append("</tr>");
+        }
+        sb.append("</tbody></table>");
+        return sb.toString();
+    }
+
+    /**
+     * 深层嵌套列表
+     *
+     * @param depth 嵌套深度
+     * @param itemsPerLevel 每层列表项数量
+     * @return HTML字符串
+     */
+    public static String nestedList(int depth, int itemsPerLevel) {
+        StringBuilder sb = new StringBuilder(depth * itemsPerLevel * 80);
+        appendList(sb, 0, depth, itemsPerLevel);
+        return sb.toString();
+    }
+
+    /**
+     * 按形状生成指定规模的样例，用于规模伸缩测试
+     *
+     * @param shape paragraph、table-cell或list-item
+     * @param size 段落、单元格或列表项数量
+     * @return HTML字符串
+     */
+    public static String scaled(String shape, int size) {
+        switch (shape) {
+            case "paragraph":
+                return article(size);
+            case "table-cell":
+                return table((size + SCALED_TABLE_COLUMNS - 1) / SCALED_TABLE_COLUMNS, SCALED_TABLE_COLUMNS);
+            case "list-item":
+                return flatList(size);
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /**
+     * 单层长列表
+     *
+     * @param items 列表项数量
+     * @return HTML字符串
+     */
+    public static String flatList(int items) {
+        StringBuilder sb = new StringBuilder(items * 48 + 16);
+        sb.append("<ul>");
+        for (int i = 0; i < items; i++) {
+            sb.append("<li>Item ").append(i).append(" <b>bold</b> text</li>");
+        }
+        sb.append("</ul>");
+        return sb.toString();
+    }
+
+    private static void appendList(StringBuilder sb, int level, int depth, int itemsPerLevel) {
+        String tag = level % 2 == 0 ? "ol" : "ul";
+        sb.append('<').append(tag).append('>');
+        for (int i = 0; i < itemsPerLevel; i++) {
+            sb.append("<li>Level ").append(level).append(" item ").append(i)
+                    .append(" <span style=\"font-weight: bold;\">emphasis</span>");
+            if (i == itemsPerLevel - 1 && level + 1 < depth) {
+                appendList(sb, level + 1, depth, itemsPerLevel);
+            }
+            sb.append("</li>");
+        }
+        sb.append("</").append(tag).append('>');
+    }
+}
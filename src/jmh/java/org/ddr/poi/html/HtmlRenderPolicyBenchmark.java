@@ -0,0 +1,128 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import com.deepoove.poi.config.ConfigureBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HtmlRenderPolicy端到端渲染基准测试，运行方式：
+ * <pre>gradle jmh -Pjmh.include=HtmlRenderPolicyBenchmark</pre>
+ * 吞吐量以ops/s输出，延迟分位数由SampleTime模式给出，每次渲染分配的字节数见gc.alloc.rate.norm
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class HtmlRenderPolicyBenchmark {
+    private static final String[] PLACEHOLDERS = {"teachContent", "plainContent"};
+
+    /**
+     * docx模板
+     */
+    @Param({"notes.docx", "poi.docx"})
+    public String template;
+
+    /**
+     * HTML样例，见{@link HtmlCorpus#of(String)}
+     */
+    @Param({"1.html", "2.html", "article", "table", "nested-list"})
+    public String corpus;
+
+    private byte[] templateBytes;
+    private Configure configure;
+    private Map<String, Object> data;
+    private Map<String, Object> emptyData;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        templateBytes = HtmlCorpus.bytes("/" + template);
+        HtmlRenderPolicy htmlRenderPolicy = new HtmlRenderPolicy();
+        ConfigureBuilder builder = Configure.builder();
+        for (String placeholder : PLACEHOLDERS) {
+            builder.bind(placeholder, htmlRenderPolicy);
+        }
+        configure = builder.build();
+
+        String html = HtmlCorpus.of(corpus);
+        data = new HashMap<>(PLACEHOLDERS.length);
+        emptyData = new HashMap<>(PLACEHOLDERS.length);
+        for (String placeholder : PLACEHOLDERS) {
+            data.put(placeholder, html);
+            emptyData.put(placeholder, "");
+        }
+    }
+
+    /**
+     * 吞吐量
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object render() throws IOException {
+        return render(data);
+    }
+
+    /**
+     * 延迟分布
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Object renderLatency() throws IOException {
+        return render(data);
+    }
+
+    /**
+     * 仅编译模板并跳过HTML渲染，用于扣除模板自身的开销
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Object baseline() throws IOException {
+        return render(emptyData);
+    }
+
+    private Object render(Map<String, Object> model) throws IOException {
+        try (XWPFTemplate xwpfTemplate = XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), configure)) {
+            xwpfTemplate.render(model);
+            return xwpfTemplate.getXWPFDocument().getBodyElements().size();
+        }
+    }
+}
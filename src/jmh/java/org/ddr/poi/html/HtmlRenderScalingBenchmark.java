@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文档规模伸缩基准测试，分别以段落、表格单元格、列表项为单位生成不同规模的HTML，
+ * 单次渲染耗时应随规模线性增长，由{@link ScalingGate}拟合曲线并判定
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class HtmlRenderScalingBenchmark {
+    static final String PLACEHOLDER = "teachContent";
+
+    /**
+     * 生成样例的形状，见{@link HtmlCorpus#scaled(String, int)}
+     */
+    @Param({"paragraph", "table-cell", "list-item"})
+    public String shape;
+
+    /**
+     * 段落、单元格或列表项数量
+     */
+    @Param({"1000", "10000", "50000", "100000"})
+    public int size;
+
+    private byte[] templateBytes;
+    private Configure configure;
+    private Map<String, Object> data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        templateBytes = HtmlCorpus.bytes("/notes.docx");
+        configure = Configure.builder().bind(PLACEHOLDER, new HtmlRenderPolicy()).build();
+        data = new HashMap<>(2);
+        data.put(PLACEHOLDER, HtmlCorpus.scaled(shape, size));
+        data.put("plainContent", "");
+    }
+
+    @Benchmark
+    public Object render() throws IOException {
+        try (XWPFTemplate xwpfTemplate = XWPFTemplate.compile(new ByteArrayInputStream(templateBytes), configure)) {
+            xwpfTemplate.render(data);
+            return xwpfTemplate.getXWPFDocument().getBodyElements().size();
+        }
+    }
+}
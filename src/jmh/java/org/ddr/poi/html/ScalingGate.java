@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 规模伸缩门禁，运行{@link HtmlRenderScalingBenchmark}后对每种形状在双对数坐标下做最小二乘拟合，
+ * 斜率即耗时关于规模的增长阶数，超过阈值（默认1.3，可通过系统属性scaling.maxExponent指定）时以非零状态退出
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ScalingGate {
+    private static final double DEFAULT_MAX_EXPONENT = 1.3;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        double maxExponent = Double.parseDouble(System.getProperty("scaling.maxExponent",
+                String.valueOf(DEFAULT_MAX_EXPONENT)));
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(HtmlRenderScalingBenchmark.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, TreeMap<Integer, Double>> curves = new TreeMap<>();
+        for (RunResult result : results) {
+            String shape = result.getParams().getParam("shape");
+            int size = Integer.parseInt(result.getParams().getParam("size"));
+            curves.computeIfAbsent(shape, k -> new TreeMap<>()).put(size, result.getPrimaryResult().getScore());
+        }
+
+        boolean failed = false;
+        for (Map.Entry<String, TreeMap<Integer, Double>> entry : curves.entrySet()) {
+            TreeMap<Integer, Double> curve = entry.getValue();
+            if (curve.size() < 2) {
+                continue;
+            }
+            double exponent = exponent(curve);
+            boolean superlinear = exponent > maxExponent;
+            failed |= superlinear;
+            System.out.printf("%-12s exponent=%.3f %s %s%n", entry.getKey(), exponent,
+                    superlinear ? "FAIL" : "OK", curve);
+        }
+        if (failed) {
+            System.err.println("Render time grows faster than n^" + maxExponent);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * 对ln(t) = k * ln(n) + b做最小二乘拟合
+     *
+     * @param curve 规模到耗时的映射
+     * @return 斜率k
+     */
+    static double exponent(Map<Integer, Double> curve) {
+        int n = curve.size();
+        double sumX = 0, sumY = 0, sumXY = 0, sumXX = 0;
+        for (Map.Entry<Integer, Double> point : curve.entrySet()) {
+            double x = Math.log(point.getKey());
+            double y = Math.log(point.getValue());
+            sumX += x;
+            sumY += y;
+            sumXY += x * y;
+            sumXX += x * x;
+        }
+        return (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+    }
+}
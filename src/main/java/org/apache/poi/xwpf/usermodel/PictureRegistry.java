@@ -0,0 +1,175 @@
+package org.apache.poi.xwpf.usermodel;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.drawingml.x2006.main.CTNonVisualDrawingProps;
+import org.openxmlformats.schemas.drawingml.x2006.picture.CTPicture;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.CTInline;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 文档部件内按图片内容登记的关系ID，相同的图片只嵌入一次，再次添加时直接复用关系及绘图模板，
+ * 避免POI逐个比较已有图片的数据及遍历关系列表
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class PictureRegistry {
+    private static final Map<POIXMLDocumentPart, PictureRegistry> REGISTRIES = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final String PICTURE_PATH = "declare namespace pic='"
+            + CTPicture.type.getName().getNamespaceURI() + "' .//pic:pic";
+
+    /**
+     * 不能持有部件本身，否则弱引用的键永远不会被回收
+     */
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long embeddedBytes;
+
+    /**
+     * 获取图片关系所属部件的登记表，与{@link XWPFRun#addPicture}一致，页眉页脚中的图片属于页眉页脚，其余属于文档
+     *
+     * @param run 图片所在的run
+     * @return 登记表
+     */
+    public static PictureRegistry of(XWPFRun run) {
+        return REGISTRIES.computeIfAbsent(owner(run), part -> new PictureRegistry());
+    }
+
+    private static POIXMLDocumentPart owner(XWPFRun run) {
+        POIXMLDocumentPart part = run.getParent().getPart();
+        return part instanceof XWPFHeaderFooter ? part : run.getDocument();
+    }
+
+    /**
+     * 在run中添加图片
+     *
+     * @param run 图片所在的run
+     * @param pictureData 图片数据
+     * @param pictureType 图片类型
+     * @param filename 文件名
+     * @param width 宽度
+     * @param height 高度
+     * @return 图片
+     */
+    public XWPFPicture addPicture(XWPFRun run, byte[] pictureData, int pictureType, String filename, int width, int height)
+            throws InvalidFormatException, IOException {
+        String key = key(pictureData, pictureType);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.template != null && owner(run).getRelationById(entry.relationId) != null) {
+            return copyPicture(run, entry.template, filename, width, height);
+        }
+        int pictures = packagePictureCount(run);
+        XWPFPicture picture = run.addPicture(new ByteArrayInputStream(pictureData), pictureType, filename, width, height);
+        countEmbedded(run, pictures, pictureData);
+        CTR ctr = run.getCTR();
+        CTInline inline = ctr.getDrawingArray(ctr.sizeOfDrawingArray() - 1).getInlineArray(0);
+        entries.put(key, new Entry(picture.getCTPicture().getBlipFill().getBlip().getEmbed(), (CTInline) inline.copy()));
+        return picture;
+    }
+
+    /**
+     * 添加图片数据
+     *
+     * @param run 引用图片数据的run
+     * @param pictureData 图片数据
+     * @param pictureType 图片类型
+     * @return 关系ID
+     */
+    public String addPictureData(XWPFRun run, byte[] pictureData, int pictureType) throws InvalidFormatException {
+        POIXMLDocumentPart part = owner(run);
+        String key = key(pictureData, pictureType);
+        Entry entry = entries.get(key);
+        if (entry != null && part.getRelationById(entry.relationId) != null) {
+            return entry.relationId;
+        }
+        int pictures = packagePictureCount(run);
+        String relationId;
+        if (part instanceof XWPFHeaderFooter) {
+            relationId = ((XWPFHeaderFooter) part).addPictureData(pictureData, pictureType);
+        } else {
+            relationId = ((XWPFDocument) part).addPictureData(pictureData, pictureType);
+        }
+        countEmbedded(run, pictures, pictureData);
+        entries.put(key, new Entry(relationId, null));
+        return relationId;
+    }
+
+    /**
+     * @return 通过本登记表新建的图片部件的总字节数，复用已有部件的图片不计入
+     */
+    public long getEmbeddedBytes() {
+        return embeddedBytes;
+    }
+
+    /**
+     * POI在整个文档包中查找相同的图片数据，找到时只添加关系而不新建部件
+     */
+    private static int packagePictureCount(XWPFRun run) {
+        return run.getDocument().getAllPackagePictures().size();
+    }
+
+    private void countEmbedded(XWPFRun run, int previousCount, byte[] pictureData) {
+        if (packagePictureCount(run) > previousCount) {
+            embeddedBytes += pictureData.length;
+        }
+    }
+
+    private static XWPFPicture copyPicture(XWPFRun run, CTInline template, String filename, int width, int height) {
+        CTInline inline = run.getCTR().addNewDrawing().addNewInline();
+        inline.set(template);
+
+        long id = run.getDocument().getDrawingIdManager().reserveNew();
+        CTNonVisualDrawingProps docPr = inline.getDocPr();
+        docPr.setId(id);
+        docPr.setName("Drawing " + id);
+        docPr.setDescr(filename);
+        inline.getExtent().setCx(width);
+        inline.getExtent().setCy(height);
+
+        CTPicture ctPicture = null;
+        for (XmlObject object : inline.getGraphic().getGraphicData().selectPath(PICTURE_PATH)) {
+            if (object instanceof CTPicture) {
+                ctPicture = (CTPicture) object;
+                break;
+            }
+        }
+        if (ctPicture == null) {
+            throw new IllegalStateException("Picture not found in drawing template");
+        }
+        CTNonVisualDrawingProps cNvPr = ctPicture.getNvPicPr().getCNvPr();
+        cNvPr.setName("Picture " + id);
+        cNvPr.setDescr(filename);
+        ctPicture.getSpPr().getXfrm().getExt().setCx(width);
+        ctPicture.getSpPr().getXfrm().getExt().setCy(height);
+
+        XWPFPicture picture = new XWPFPicture(ctPicture, run);
+        run.getEmbeddedPictures().add(picture);
+        return picture;
+    }
+
+    private static String key(byte[] data, int pictureType) {
+        return pictureType + ":" + DigestUtils.sha256Hex(data);
+    }
+
+    private static class Entry {
+        private final String relationId;
+        /**
+         * 首次添加时生成的绘图，只登记了图片数据时为null
+         */
+        private final CTInline template;
+
+        Entry(String relationId, CTInline template) {
+            this.relationId = relationId;
+            this.template = template;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.ddr.image;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 读取字节数组中的整数，调用方需保证下标有效
+ */
+public class Bytes {
+    public static int uint8(byte[] data, int offset) {
+        return data[offset] & 0xFF;
+    }
+
+    public static int uint16BE(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 8 | data[offset + 1] & 0xFF;
+    }
+
+    public static int uint16LE(byte[] data, int offset) {
+        return data[offset] & 0xFF | (data[offset + 1] & 0xFF) << 8;
+    }
+
+    public static int uint24LE(byte[] data, int offset) {
+        return uint16LE(data, offset) | (data[offset + 2] & 0xFF) << 16;
+    }
+
+    public static int int32BE(byte[] data, int offset) {
+        return uint16BE(data, offset) << 16 | uint16BE(data, offset + 2);
+    }
+
+    public static int int32LE(byte[] data, int offset) {
+        return uint16LE(data, offset) | uint16LE(data, offset + 2) << 16;
+    }
+
+    /**
+     * @return 指定位置是否为给定的ASCII字符串
+     */
+    public static boolean matches(byte[] data, int offset, String ascii) {
+        byte[] expected = ascii.getBytes(StandardCharsets.US_ASCII);
+        if (offset < 0 || offset + expected.length > data.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[offset + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
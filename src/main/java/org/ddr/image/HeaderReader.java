@@ -0,0 +1,16 @@
+package org.ddr.image;
+
+import com.drew.imaging.FileType;
+
+/**
+ * 仅解析文件头获取图片类型及尺寸，无法解析时由{@link MetadataReader}处理
+ */
+public interface HeaderReader {
+    boolean canRead(FileType type);
+
+    /**
+     * @param data 图片数据
+     * @return 不包含数据流的图片信息，无法解析时为null
+     */
+    ImageInfo read(byte[] data);
+}
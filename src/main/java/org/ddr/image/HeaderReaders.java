@@ -0,0 +1,19 @@
+package org.ddr.image;
+
+import org.ddr.image.bmp.BmpHeaderReader;
+import org.ddr.image.gif.GifHeaderReader;
+import org.ddr.image.jpeg.JpegHeaderReader;
+import org.ddr.image.png.PngHeaderReader;
+import org.ddr.image.tiff.TiffHeaderReader;
+import org.ddr.image.webp.WebpHeaderReader;
+
+public class HeaderReaders {
+    public static final HeaderReader[] INSTANCES = {
+            new JpegHeaderReader(),
+            new PngHeaderReader(),
+            new GifHeaderReader(),
+            new WebpHeaderReader(),
+            new BmpHeaderReader(),
+            new TiffHeaderReader()
+    };
+}
@@ -0,0 +1,42 @@
+package org.ddr.image.bmp;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+
+public class BmpHeaderReader implements HeaderReader {
+    private static final int BITMAP_CORE_HEADER_SIZE = 12;
+
+    @Override
+    public boolean canRead(FileType type) {
+        return type == FileType.Bmp;
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        if (data.length < 26 || !Bytes.matches(data, 0, "BM")) {
+            return null;
+        }
+        int headerSize = Bytes.int32LE(data, 14);
+        int width;
+        int height;
+        if (headerSize == BITMAP_CORE_HEADER_SIZE) {
+            width = Bytes.uint16LE(data, 18);
+            height = Bytes.uint16LE(data, 20);
+        } else if (headerSize > BITMAP_CORE_HEADER_SIZE && data.length >= 26) {
+            width = Bytes.int32LE(data, 18);
+            // 高度为负数时表示自上而下存储
+            height = Math.abs(Bytes.int32LE(data, 22));
+        } else {
+            return null;
+        }
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(null, ImageType.BMP, new Dimension(width, height));
+    }
+}
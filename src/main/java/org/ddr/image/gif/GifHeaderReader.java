@@ -0,0 +1,30 @@
+package org.ddr.image.gif;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+
+public class GifHeaderReader implements HeaderReader {
+    @Override
+    public boolean canRead(FileType type) {
+        return type == FileType.Gif;
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        if (data.length < 10 || !Bytes.matches(data, 0, "GIF")) {
+            return null;
+        }
+        // 逻辑屏幕尺寸
+        int width = Bytes.uint16LE(data, 6);
+        int height = Bytes.uint16LE(data, 8);
+        if (width == 0 || height == 0) {
+            return null;
+        }
+        return new ImageInfo(null, ImageType.GIF, new Dimension(width, height));
+    }
+}
@@ -0,0 +1,92 @@
+package org.ddr.image.heif;
+
+import org.ddr.poi.util.ImageIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 调用本地命令解码，默认为libheif的heif-convert，命令的最后两个参数为输入及输出文件
+ */
+public class CommandHeifDecoder implements HeifDecoder {
+    private static final Logger log = LoggerFactory.getLogger(CommandHeifDecoder.class);
+    public static final String COMMAND_PROPERTY = "org.ddr.image.heif.command";
+    public static final String TIMEOUT_PROPERTY = "org.ddr.image.heif.timeout";
+    public static final String DEFAULT_COMMAND = "heif-convert";
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30000;
+
+    private final List<String> command;
+    private final long timeoutMillis;
+
+    /**
+     * 通过系统属性配置命令及超时时间
+     */
+    public CommandHeifDecoder() {
+        this(System.getProperty(COMMAND_PROPERTY, DEFAULT_COMMAND),
+                Long.getLong(TIMEOUT_PROPERTY, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    /**
+     * @param command 命令，可包含以空白分隔的参数
+     * @param timeoutMillis 超时时间（毫秒）
+     */
+    public CommandHeifDecoder(String command, long timeoutMillis) {
+        this.command = Arrays.asList(command.trim().split("\\s+"));
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public BufferedImage decode(byte[] data, String format) throws IOException {
+        // heif-convert只支持文件，输出PNG以保留透明通道
+        Path input = Files.createTempFile("heif", "." + format);
+        Path output = Files.createTempFile("heif", ".png");
+        try {
+            Files.write(input, data);
+            List<String> arguments = new ArrayList<>(command);
+            arguments.add(input.toString());
+            arguments.add(output.toString());
+            Process process = new ProcessBuilder(arguments)
+                    .redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.to(nullFile()))
+                    .start();
+            try {
+                if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                    log.warn("Timed out decoding {} image after {}ms", format, timeoutMillis);
+                    return null;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                process.destroyForcibly();
+            }
+            if (process.exitValue() != 0) {
+                log.warn("Failed to decode {} image, {} exited with {}", format, command.get(0), process.exitValue());
+                return null;
+            }
+            return ImageIOUtils.read(Files.readAllBytes(output), "png");
+        } finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static File nullFile() {
+        boolean windows = System.getProperty("os.name", "").toLowerCase().startsWith("windows");
+        return new File(windows ? "NUL" : "/dev/null");
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", command);
+    }
+}
@@ -0,0 +1,16 @@
+package org.ddr.image.heif;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * HEIF/AVIF解码器，可通过{@link java.util.ServiceLoader}或{@link HeifDecoders#setDecoder}提供实现
+ */
+public interface HeifDecoder {
+    /**
+     * @param data 图片数据
+     * @param format 图片格式，heic或avif
+     * @return 解码后的图片，无法解码时为null
+     */
+    BufferedImage decode(byte[] data, String format) throws IOException;
+}
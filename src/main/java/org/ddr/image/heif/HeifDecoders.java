@@ -0,0 +1,103 @@
+package org.ddr.image.heif;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 当前使用的HEIF/AVIF解码器及按图片内容缓存的解码结果，缓存的图片不应被修改
+ */
+public class HeifDecoders {
+    public static final long DEFAULT_MAX_CACHE_BYTES = 64L << 20;
+
+    private static volatile HeifDecoder decoder;
+    private static final Map<String, BufferedImage> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+    private static long maxCacheBytes = DEFAULT_MAX_CACHE_BYTES;
+    private static long cacheBytes;
+
+    /**
+     * @return 通过{@link #setDecoder}设置的解码器，未设置时为{@link ServiceLoader}找到的第一个实现，否则为{@link CommandHeifDecoder}
+     */
+    public static HeifDecoder getDecoder() {
+        HeifDecoder current = decoder;
+        if (current == null) {
+            synchronized (HeifDecoders.class) {
+                current = decoder;
+                if (current == null) {
+                    Iterator<HeifDecoder> iterator = ServiceLoader.load(HeifDecoder.class).iterator();
+                    current = iterator.hasNext() ? iterator.next() : new CommandHeifDecoder();
+                    decoder = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static void setDecoder(HeifDecoder decoder) {
+        HeifDecoders.decoder = decoder;
+        clearCache();
+    }
+
+    /**
+     * @param maxCacheBytes 解码结果缓存的最大字节数，按像素数据估算，0表示不缓存
+     */
+    public static void setMaxCacheBytes(long maxCacheBytes) {
+        synchronized (CACHE) {
+            HeifDecoders.maxCacheBytes = maxCacheBytes;
+            trim();
+        }
+    }
+
+    public static void clearCache() {
+        synchronized (CACHE) {
+            CACHE.clear();
+            cacheBytes = 0;
+        }
+    }
+
+    /**
+     * 解码图片，相同内容只解码一次
+     *
+     * @param data 图片数据
+     * @param format 图片格式，heic或avif
+     * @return 解码后的图片，无法解码时为null
+     */
+    public static BufferedImage decode(byte[] data, String format) throws IOException {
+        String key = format + ':' + DigestUtils.sha256Hex(data);
+        synchronized (CACHE) {
+            BufferedImage image = CACHE.get(key);
+            if (image != null) {
+                return image;
+            }
+        }
+        BufferedImage image = getDecoder().decode(data, format);
+        if (image != null) {
+            synchronized (CACHE) {
+                BufferedImage previous = CACHE.put(key, image);
+                if (previous != null) {
+                    cacheBytes -= weight(previous);
+                }
+                cacheBytes += weight(image);
+                trim();
+            }
+        }
+        return image;
+    }
+
+    private static void trim() {
+        Iterator<BufferedImage> iterator = CACHE.values().iterator();
+        while (cacheBytes > maxCacheBytes && iterator.hasNext()) {
+            cacheBytes -= weight(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private static long weight(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * image.getColorModel().getPixelSize() / 8;
+    }
+}
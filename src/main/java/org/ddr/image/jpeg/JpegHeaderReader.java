@@ -0,0 +1,69 @@
+package org.ddr.image.jpeg;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+
+public class JpegHeaderReader implements HeaderReader {
+    @Override
+    public boolean canRead(FileType type) {
+        return type == FileType.Jpeg;
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        if (data.length < 4 || Bytes.uint8(data, 0) != 0xFF || Bytes.uint8(data, 1) != 0xD8) {
+            return null;
+        }
+        int offset = 2;
+        // 按段长度跳过EXIF等数据，直至帧头
+        while (offset + 4 <= data.length) {
+            if (Bytes.uint8(data, offset) != 0xFF) {
+                return null;
+            }
+            int marker = Bytes.uint8(data, offset + 1);
+            if (marker == 0xFF) {
+                // 填充字节
+                offset++;
+                continue;
+            }
+            if (marker == 0xD8 || marker == 0x01 || marker >= 0xD0 && marker <= 0xD7) {
+                offset += 2;
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                // 图像数据之前没有帧头
+                return null;
+            }
+            int length = Bytes.uint16BE(data, offset + 2);
+            if (isStartOfFrame(marker)) {
+                if (offset + 9 > data.length) {
+                    return null;
+                }
+                int height = Bytes.uint16BE(data, offset + 5);
+                int width = Bytes.uint16BE(data, offset + 7);
+                if (width == 0 || height == 0) {
+                    // 高度由DNL段给出
+                    return null;
+                }
+                return new ImageInfo(null, ImageType.JPG, new Dimension(width, height));
+            }
+            if (length < 2) {
+                return null;
+            }
+            offset += 2 + length;
+        }
+        return null;
+    }
+
+    /**
+     * SOF0~SOF15，不包括DHT、JPG及DAC
+     */
+    private static boolean isStartOfFrame(int marker) {
+        return marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+    }
+}
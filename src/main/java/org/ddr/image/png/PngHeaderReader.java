@@ -0,0 +1,30 @@
+package org.ddr.image.png;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+
+public class PngHeaderReader implements HeaderReader {
+    @Override
+    public boolean canRead(FileType type) {
+        return type == FileType.Png;
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        // 8字节签名之后的第一个块为IHDR
+        if (data.length < 24 || !Bytes.matches(data, 12, "IHDR")) {
+            return null;
+        }
+        int width = Bytes.int32BE(data, 16);
+        int height = Bytes.int32BE(data, 20);
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(null, ImageType.PNG, new Dimension(width, height));
+    }
+}
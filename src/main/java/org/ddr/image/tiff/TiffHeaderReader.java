@@ -0,0 +1,85 @@
+package org.ddr.image.tiff;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+import java.util.EnumSet;
+
+public class TiffHeaderReader implements HeaderReader {
+    // 与TiffMetadataReader一致，均取IFD0中的宽高；II*\0且IFD0位于偏移8处的普通TIFF会被识别为ARW
+    private static final EnumSet<FileType> TIFF_TYPES = EnumSet.of(FileType.Tiff, FileType.Arw, FileType.Cr2, FileType.Nef, FileType.Orf, FileType.Rw2);
+    private static final int TAG_IMAGE_WIDTH = 256;
+    private static final int TAG_IMAGE_HEIGHT = 257;
+    private static final int TYPE_SHORT = 3;
+    private static final int TYPE_LONG = 4;
+
+    @Override
+    public boolean canRead(FileType type) {
+        return TIFF_TYPES.contains(type);
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        if (data.length < 8) {
+            return null;
+        }
+        boolean littleEndian;
+        if (Bytes.matches(data, 0, "II")) {
+            littleEndian = true;
+        } else if (Bytes.matches(data, 0, "MM")) {
+            littleEndian = false;
+        } else {
+            return null;
+        }
+        if (uint16(data, 2, littleEndian) != 42) {
+            return null;
+        }
+        int ifd = int32(data, 4, littleEndian);
+        if (ifd < 8 || ifd + 2 > data.length) {
+            return null;
+        }
+        int count = uint16(data, ifd, littleEndian);
+        int width = -1;
+        int height = -1;
+        for (int i = 0; i < count; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > data.length) {
+                return null;
+            }
+            int tag = uint16(data, entry, littleEndian);
+            if (tag != TAG_IMAGE_WIDTH && tag != TAG_IMAGE_HEIGHT) {
+                continue;
+            }
+            int type = uint16(data, entry + 2, littleEndian);
+            int value;
+            if (type == TYPE_SHORT) {
+                value = uint16(data, entry + 8, littleEndian);
+            } else if (type == TYPE_LONG) {
+                value = int32(data, entry + 8, littleEndian);
+            } else {
+                return null;
+            }
+            if (tag == TAG_IMAGE_WIDTH) {
+                width = value;
+            } else {
+                height = value;
+            }
+        }
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(null, ImageType.TIFF, new Dimension(width, height));
+    }
+
+    private static int uint16(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian ? Bytes.uint16LE(data, offset) : Bytes.uint16BE(data, offset);
+    }
+
+    private static int int32(byte[] data, int offset, boolean littleEndian) {
+        return littleEndian ? Bytes.int32LE(data, offset) : Bytes.int32BE(data, offset);
+    }
+}
@@ -0,0 +1,59 @@
+package org.ddr.image.webp;
+
+import com.drew.imaging.FileType;
+import org.ddr.image.Bytes;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+
+public class WebpHeaderReader implements HeaderReader {
+    private static final int VP8X_ALPHA = 0x10;
+
+    @Override
+    public boolean canRead(FileType type) {
+        return type == FileType.WebP;
+    }
+
+    @Override
+    public ImageInfo read(byte[] data) {
+        if (data.length < 30 || !Bytes.matches(data, 0, "RIFF") || !Bytes.matches(data, 8, "WEBP")) {
+            return null;
+        }
+        // 第一个块决定了文件格式
+        int chunk = 12;
+        int payload = chunk + 8;
+        int width;
+        int height;
+        ImageType type = ImageType.JPG;
+        if (Bytes.matches(data, chunk, "VP8X")) {
+            if ((Bytes.uint8(data, payload) & VP8X_ALPHA) != 0) {
+                type = ImageType.PNG;
+            }
+            width = Bytes.uint24LE(data, payload + 4) + 1;
+            height = Bytes.uint24LE(data, payload + 7) + 1;
+        } else if (Bytes.matches(data, chunk, "VP8L")) {
+            if (Bytes.uint8(data, payload) != 0x2F) {
+                return null;
+            }
+            int bits = Bytes.int32LE(data, payload + 1);
+            width = (bits & 0x3FFF) + 1;
+            height = (bits >>> 14 & 0x3FFF) + 1;
+        } else if (Bytes.matches(data, chunk, "VP8 ")) {
+            // 3字节帧标记之后为起始码9D 01 2A
+            if (Bytes.uint8(data, payload + 3) != 0x9D || Bytes.uint8(data, payload + 4) != 0x01
+                    || Bytes.uint8(data, payload + 5) != 0x2A) {
+                return null;
+            }
+            width = Bytes.uint16LE(data, payload + 6) & 0x3FFF;
+            height = Bytes.uint16LE(data, payload + 8) & 0x3FFF;
+        } else {
+            return null;
+        }
+        if (width <= 0 || height <= 0) {
+            return null;
+        }
+        return new ImageInfo(null, type, new Dimension(width, height));
+    }
+}
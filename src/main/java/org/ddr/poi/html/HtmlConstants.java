@@ -94,6 +94,8 @@ public interface HtmlConstants {
 
     String ATTR_STYLE = "style";
     String ATTR_SRC = "src";
+    String ATTR_SRCSET = "srcset";
+    String ATTR_ALT = "alt";
     String ATTR_WIDTH = "width";
     String ATTR_HEIGHT = "height";
     String ATTR_SPAN = "span";
@@ -241,6 +243,7 @@ public interface HtmlConstants {
 
     String LINE_THROUGH = "line-through";
     String UNDERLINE = "underline";
+    String OVERLINE = "overline";
     String SOLID = "solid";
     String DOUBLE = "double";
     String DOTTED = "dotted";
@@ -260,6 +263,14 @@ public interface HtmlConstants {
 
     String SUPER = "super";
     String SUB = "sub";
+    String BASELINE = "baseline";
+    String TEXT_TOP = "text-top";
+    String TEXT_BOTTOM = "text-bottom";
+
+    String INLINE = "inline";
+    String BLOCK = "block";
+    String INLINE_BLOCK = "inline-block";
+    String LIST_ITEM = "list-item";
 
     String NO_WRAP = "nowrap";
     String PRE = "pre";
@@ -16,10 +16,17 @@
 
 package org.ddr.poi.html;
 
+import org.ddr.poi.html.image.HttpImageResolver;
+import org.ddr.poi.html.image.ImageFallback;
+import org.ddr.poi.html.image.ImageLoader;
+import org.ddr.poi.html.image.ImageResampler;
+import org.ddr.poi.html.image.ImageResolver;
 import org.ddr.poi.html.util.CSSLength;
 import org.ddr.poi.math.MathRenderConfig;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.STLevelSuffix;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -41,6 +48,16 @@ public class HtmlRenderConfig {
 
     private final MathRenderConfig mathRenderConfig = new MathRenderConfig();
 
+    private RenderListener renderListener;
+
+    private ImageLoader imageLoader;
+    private boolean imagePrefetchEnabled = true;
+    private long imageTimeout;
+    private long imageTimeBudget;
+    private ImageFallback imageFallback = ImageFallback.ALT_TEXT;
+    private List<ImageResolver> imageResolvers = new ArrayList<>(Collections.singletonList(HttpImageResolver.getDefault()));
+    private ImageResampler imageResampler;
+
     /**
      * @return global font family
      */
@@ -126,4 +143,96 @@ public class HtmlRenderConfig {
     public MathRenderConfig getMathRenderConfig() {
         return mathRenderConfig;
     }
+
+    /**
+     * @return render listener which receives phase timings and metrics of each render
+     */
+    public RenderListener getRenderListener() {
+        return renderListener;
+    }
+
+    public void setRenderListener(RenderListener renderListener) {
+        this.renderListener = renderListener;
+    }
+
+    /**
+     * @return loader that prefetches images concurrently, the shared default loader is used if not set
+     */
+    public ImageLoader getImageLoader() {
+        return imageLoader == null ? ImageLoader.getDefault() : imageLoader;
+    }
+
+    public void setImageLoader(ImageLoader imageLoader) {
+        this.imageLoader = imageLoader;
+    }
+
+    /**
+     * @return whether to fetch all images concurrently before rendering
+     */
+    public boolean isImagePrefetchEnabled() {
+        return imagePrefetchEnabled;
+    }
+
+    public void setImagePrefetchEnabled(boolean imagePrefetchEnabled) {
+        this.imagePrefetchEnabled = imagePrefetchEnabled;
+    }
+
+    /**
+     * @return resolvers of image sources, the first one in order of priority that supports a source is used
+     */
+    public List<ImageResolver> getImageResolvers() {
+        return imageResolvers;
+    }
+
+    public void setImageResolvers(List<ImageResolver> imageResolvers) {
+        this.imageResolvers = imageResolvers;
+    }
+
+    public void addImageResolver(ImageResolver imageResolver) {
+        imageResolvers.add(imageResolver);
+    }
+
+    /**
+     * @return max milliseconds to wait for a single image, 0 means no limit
+     */
+    public long getImageTimeout() {
+        return imageTimeout;
+    }
+
+    public void setImageTimeout(long imageTimeout) {
+        this.imageTimeout = imageTimeout;
+    }
+
+    /**
+     * @return max milliseconds a single render may spend waiting for images, 0 means no limit
+     */
+    public long getImageTimeBudget() {
+        return imageTimeBudget;
+    }
+
+    public void setImageTimeBudget(long imageTimeBudget) {
+        this.imageTimeBudget = imageTimeBudget;
+    }
+
+    /**
+     * @return what to render instead of an image that timed out or exceeded the time budget
+     */
+    public ImageFallback getImageFallback() {
+        return imageFallback;
+    }
+
+    public void setImageFallback(ImageFallback imageFallback) {
+        this.imageFallback = imageFallback;
+    }
+
+    /**
+     * @return resampler that shrinks images much larger than their rendered size, images are embedded as is if not set
+     */
+    public ImageResampler getImageResampler() {
+        return imageResampler;
+    }
+
+    public void setImageResampler(ImageResampler imageResampler) {
+        this.imageResampler = imageResampler;
+    }
 }
@@ -18,6 +18,7 @@ package org.ddr.poi.html;
 
 import com.deepoove.poi.render.RenderContext;
 import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -25,6 +26,7 @@ import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.BodyType;
 import org.apache.poi.xwpf.usermodel.IBody;
 import org.apache.poi.xwpf.usermodel.IRunBody;
+import org.apache.poi.xwpf.usermodel.PictureRegistry;
 import org.apache.poi.xwpf.usermodel.SVGPictureData;
 import org.apache.poi.xwpf.usermodel.SVGRelation;
 import org.apache.poi.xwpf.usermodel.XWPFDocument;
@@ -43,14 +45,25 @@ import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.impl.xb.xmlschema.SpaceAttribute;
+import org.ddr.poi.html.image.FetchedImage;
+import org.ddr.poi.html.image.HttpImageResolver;
+import org.ddr.poi.html.image.ImageFallback;
+import org.ddr.poi.html.image.ImageResampler;
+import org.ddr.poi.html.image.ImageLoader;
+import org.ddr.poi.html.image.ImageResolver;
+import org.ddr.poi.html.util.CSSFloat;
 import org.ddr.poi.html.util.CSSLength;
 import org.ddr.poi.html.util.CSSLengthUnit;
+import org.ddr.poi.html.util.CSSProperty;
 import org.ddr.poi.html.util.CSSStyleUtils;
 import org.ddr.poi.html.util.Colors;
-import org.ddr.poi.html.util.InlineStyle;
+import org.ddr.poi.html.util.ComputedStyle;
+import org.ddr.poi.html.util.Display;
 import org.ddr.poi.html.util.NamedFontSize;
 import org.ddr.poi.html.util.NumberingContext;
 import org.ddr.poi.html.util.RenderUtils;
+import org.ddr.poi.html.util.TextDecorationLine;
+import org.ddr.poi.html.util.VerticalAlign;
 import org.ddr.poi.html.util.WhiteSpaceRule;
 import org.ddr.poi.html.util.XWPFParagraphRuns;
 import org.ddr.poi.math.MathMLUtils;
@@ -109,10 +122,13 @@ import java.io.InputStream;
 import java.math.BigInteger;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * HTML字符串渲染上下文
@@ -144,14 +160,19 @@ public class HtmlRenderContext extends RenderContext<String> {
     private final LinkedList<IBody> ancestors = new LinkedList<>();
 
     /**
-     * 行内样式栈，最近声明的样式最先生效
+     * 继承时需要合并的text-decoration-line
      */
-    private final LinkedList<InlineStyle> inlineStyles = new LinkedList<>();
+    private static final int MERGEABLE_TEXT_DECORATION_LINES =
+            TextDecorationLine.UNDERLINE.getMask() | TextDecorationLine.LINE_THROUGH.getMask();
 
     /**
-     * 字号栈，一些相对大小的字号值将被进行换算
+     * 样式栈，最近声明的样式最先生效，出栈的样式帧将被复用
      */
-    private final LinkedList<Integer> fontSizesInHalfPoints = new LinkedList<>();
+    private ComputedStyle[] styleFrames = new ComputedStyle[16];
+    /**
+     * 样式栈深度
+     */
+    private int styleDepth;
 
     /**
      * 列表上下文，用于处理嵌套列表
@@ -245,6 +266,40 @@ public class HtmlRenderContext extends RenderContext<String> {
      */
     private CTR previousDrawingRun;
 
+    /**
+     * 渲染指标，未配置监听器时为null
+     */
+    private RenderMetrics renderMetrics;
+
+    /**
+     * 图片解析器
+     */
+    private ImageResolver imageResolver;
+    /**
+     * 图片加载器
+     */
+    private ImageLoader imageLoader;
+    /**
+     * 单个图片的最长等待时间（纳秒），0表示不限制
+     */
+    private long imageTimeoutNanos;
+    /**
+     * 剩余的图片等待时间预算（纳秒），负数表示不限制
+     */
+    private long imageBudgetNanos = -1;
+    /**
+     * 图片超时后的降级方式
+     */
+    private ImageFallback imageFallback = ImageFallback.ALT_TEXT;
+    /**
+     * 图片重采样器，为null时不处理
+     */
+    private ImageResampler imageResampler;
+    /**
+     * 预取的图片
+     */
+    private Map<String, CompletableFuture<FetchedImage>> prefetchedImages = Collections.emptyMap();
+
     /**
      * 构造方法
      *
@@ -445,6 +500,9 @@ public class HtmlRenderContext extends RenderContext<String> {
             container = getContainer();
         }
         XWPFParagraph xwpfParagraph = container.insertNewParagraph(cursor);
+        if (renderMetrics != null) {
+            renderMetrics.incrementParagraphs();
+        }
         if (placeholderStyleId != null) {
             xwpfParagraph.setStyle(placeholderStyleId);
         }
@@ -507,6 +565,9 @@ public class HtmlRenderContext extends RenderContext<String> {
             CTR ctr;
             if (xmlCursor.toFirstChild()) {
                 ctr = ((XWPFHyperlinkRun) currentRun).getCTHyperlink().addNewR();
+                if (renderMetrics != null) {
+                    renderMetrics.incrementRuns();
+                }
             } else {
                 // run没有内容则直接复用
                 ctr = currentRun.getCTR();
@@ -518,6 +579,9 @@ public class HtmlRenderContext extends RenderContext<String> {
             return ctr;
         }
         // 考虑到样式可能不一致，总是创建新的run
+        if (renderMetrics != null) {
+            renderMetrics.incrementRuns();
+        }
         if (isBlocked()) {
             XWPFParagraph paragraph = getClosestParagraph();
             currentRun = paragraph.createRun();
@@ -576,7 +640,7 @@ public class HtmlRenderContext extends RenderContext<String> {
     /**
      * 行内样式入栈
      *
-     * @param inlineStyle 样式声明
+     * @param inlineStyle 样式声明，不会被修改，因此可使用{@link org.ddr.poi.html.util.StyleFrames}中共享的样式
      * @param block 是否为块状元素
      */
     public void pushInlineStyle(CSSStyleDeclarationImpl inlineStyle, boolean block) {
@@ -609,46 +673,47 @@ public class HtmlRenderContext extends RenderContext<String> {
                 }
             }
         }
-        fontSizesInHalfPoints.push(fontSize);
-
-        // text-decoration-line 在继承时需要合并
+        // text-decoration-line 在继承时需要合并，合并结果保存在栈中而非样式声明中
+        String mergedTextDecorationLine = null;
         String textDecorationLine = inlineStyle.getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE);
         if (StringUtils.isNotBlank(textDecorationLine) && !HtmlConstants.NONE.equals(textDecorationLine)) {
-            Set<String> remainValues = new HashSet<>(HtmlConstants.TEXT_DECORATION_LINES);
-            String[] values = StringUtils.split(textDecorationLine, ' ');
-            for (String value : values) {
-                remainValues.remove(value);
-            }
-
-            if (!remainValues.isEmpty()) {
-                StringBuilder lines = new StringBuilder(textDecorationLine);
-                for (InlineStyle inheritedStyle : inlineStyles) {
-                    String s = inheritedStyle.getDeclaration().getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE);
-                    if (HtmlConstants.NONE.equals(s)) {
-                        break;
-                    } else if (remainValues.contains(s)) {
-                        lines.append(' ').append(s);
-                        remainValues.remove(s);
-                        if (remainValues.isEmpty()) {
-                            break;
-                        }
+            int remainLines = MERGEABLE_TEXT_DECORATION_LINES & ~TextDecorationLine.parse(textDecorationLine);
+            StringBuilder lines = null;
+            for (int i = styleDepth - 1; i >= 0 && remainLines != 0; i--) {
+                String s = styleFrames[i].getDeclaredValue(HtmlConstants.CSS_TEXT_DECORATION_LINE);
+                TextDecorationLine line = TextDecorationLine.of(s);
+                if (line == TextDecorationLine.NONE) {
+                    break;
+                } else if (line != null && line.in(remainLines)) {
+                    if (lines == null) {
+                        lines = new StringBuilder(textDecorationLine);
                     }
+                    lines.append(' ').append(s);
+                    remainLines &= ~line.getMask();
                 }
-                if (lines.length() > textDecorationLine.length()) {
-                    inlineStyle.setProperty(HtmlConstants.CSS_TEXT_DECORATION_LINE, lines.toString(), null);
-                }
+            }
+            if (lines != null) {
+                mergedTextDecorationLine = lines.toString();
             }
         }
-
-        inlineStyles.push(new InlineStyle(inlineStyle, block));
+        if (styleDepth == styleFrames.length) {
+            styleFrames = Arrays.copyOf(styleFrames, styleDepth << 1);
+        }
+        ComputedStyle frame = styleFrames[styleDepth];
+        if (frame == null) {
+            frame = new ComputedStyle();
+            styleFrames[styleDepth] = frame;
+        }
+        frame.reset(styleDepth == 0 ? null : styleFrames[styleDepth - 1], inlineStyle, block, fontSize,
+                mergedTextDecorationLine);
+        styleDepth++;
     }
 
     /**
      * 行内样式出栈
      */
     public void popInlineStyle() {
-        fontSizesInHalfPoints.pop();
-        inlineStyles.pop();
+        styleFrames[--styleDepth].clear();
     }
 
     /**
@@ -657,8 +722,7 @@ public class HtmlRenderContext extends RenderContext<String> {
      * @return 当前元素的样式声明
      */
     public CSSStyleDeclarationImpl currentElementStyle() {
-        InlineStyle inlineStyle = inlineStyles.peek();
-        return inlineStyle == null ? CSSStyleUtils.EMPTY_STYLE : inlineStyle.getDeclaration();
+        return styleDepth == 0 ? CSSStyleUtils.EMPTY_STYLE : styleFrames[styleDepth - 1].getDeclaration();
     }
 
     /**
@@ -691,11 +755,20 @@ public class HtmlRenderContext extends RenderContext<String> {
      * @return 样式值，未声明时返回空字符串
      */
     public String getPropertyValue(String property, boolean caseSensitive, boolean inlineOnly) {
-        for (InlineStyle inlineStyle : inlineStyles) {
-            if (inlineOnly && inlineStyle.isBlock()) {
+        if (styleDepth == 0) {
+            return "";
+        }
+        int id = CSSProperty.idOf(property);
+        if (id >= 0) {
+            String propertyValue = styleFrames[styleDepth - 1].getValue(id, inlineOnly);
+            return caseSensitive ? propertyValue : propertyValue.toLowerCase();
+        }
+        for (int i = styleDepth - 1; i >= 0; i--) {
+            ComputedStyle frame = styleFrames[i];
+            if (inlineOnly && frame.isBlock()) {
                 break;
             }
-            String propertyValue = inlineStyle.getDeclaration().getPropertyValue(property);
+            String propertyValue = frame.getDeclaredValue(property);
             if (StringUtils.isNotBlank(propertyValue)) {
                 return caseSensitive ? propertyValue : propertyValue.toLowerCase();
             }
@@ -714,12 +787,8 @@ public class HtmlRenderContext extends RenderContext<String> {
      * @return 获取当前元素继承的字号，以“半点”为单位
      */
     public int getInheritedFontSizeInHalfPoints() {
-        for (Integer fontSize : fontSizesInHalfPoints) {
-            if (fontSize > 0) {
-                return fontSize;
-            }
-        }
-        return defaultFontSize.toHalfPoints();
+        int fontSize = styleDepth == 0 ? 0 : styleFrames[styleDepth - 1].getInheritedFontSize();
+        return fontSize > 0 ? fontSize : defaultFontSize.toHalfPoints();
     }
 
     /**
@@ -792,7 +861,7 @@ public class HtmlRenderContext extends RenderContext<String> {
      * @param text 文本
      */
     public void renderText(String text) {
-        String whiteSpace = getPropertyValue(HtmlConstants.CSS_WHITE_SPACE);
+        String whiteSpace = getPropertyValue(HtmlConstants.CSS_WHITE_SPACE, true, false);
         WhiteSpaceRule rule = WhiteSpaceRule.of(whiteSpace, WhiteSpaceRule.NORMAL);
 
         StringBuilder sb = StringUtil.borrowBuilder();
@@ -992,16 +1061,16 @@ public class HtmlRenderContext extends RenderContext<String> {
         }
 
         // 加粗
-        String fontWeight = getPropertyValue(HtmlConstants.CSS_FONT_WEIGHT);
-        if (fontWeight.contains(HtmlConstants.BOLD)) {
+        String fontWeight = getPropertyValue(HtmlConstants.CSS_FONT_WEIGHT, true, false);
+        if (StringUtils.containsIgnoreCase(fontWeight, HtmlConstants.BOLD)) {
             rPr.addNewB();
         } else if (NumberUtils.isParsable(fontWeight) && Float.parseFloat(fontWeight) > 500) {
             rPr.addNewB();
         }
 
         // 斜体
-        String fontStyle = getPropertyValue(HtmlConstants.CSS_FONT_STYLE);
-        if (HtmlConstants.ITALIC.equals(fontStyle) || HtmlConstants.OBLIQUE.equals(fontStyle)) {
+        String fontStyle = getPropertyValue(HtmlConstants.CSS_FONT_STYLE, true, false);
+        if (HtmlConstants.ITALIC.equalsIgnoreCase(fontStyle) || HtmlConstants.OBLIQUE.equalsIgnoreCase(fontStyle)) {
             rPr.addNewI();
         }
 
@@ -1012,20 +1081,20 @@ public class HtmlRenderContext extends RenderContext<String> {
             RenderUtils.getColor(rPr).setVal(hex);
         }
 
-        String caps = getPropertyValue(HtmlConstants.CSS_FONT_VARIANT_CAPS);
-        if (HtmlConstants.SMALL_CAPS.equals(caps)) {
+        String caps = getPropertyValue(HtmlConstants.CSS_FONT_VARIANT_CAPS, true, false);
+        if (HtmlConstants.SMALL_CAPS.equalsIgnoreCase(caps)) {
             rPr.addNewSmallCaps();
         }
 
         // 中划线/下划线
-        String textDecoration = getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE);
-        if (HtmlConstants.NONE.equals(textDecoration)) {
+        int textDecoration = TextDecorationLine.parse(getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE, true, false));
+        if (textDecoration == TextDecorationLine.NONE.getMask()) {
             RenderUtils.getUnderline(rPr).setVal(STUnderline.NONE);
         } else {
-            if (StringUtils.contains(textDecoration, HtmlConstants.LINE_THROUGH)) {
+            if (TextDecorationLine.LINE_THROUGH.in(textDecoration)) {
                 rPr.addNewStrike();
             }
-            if (StringUtils.contains(textDecoration, HtmlConstants.UNDERLINE)) {
+            if (TextDecorationLine.UNDERLINE.in(textDecoration)) {
                 CTUnderline ctUnderline = RenderUtils.getUnderline(rPr);
                 String textDecorationStyle = getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_STYLE);
                 ctUnderline.setVal(RenderUtils.underline(textDecorationStyle));
@@ -1038,10 +1107,10 @@ public class HtmlRenderContext extends RenderContext<String> {
         }
 
         // 上下标
-        String verticalAlign = getPropertyValue(HtmlConstants.CSS_VERTICAL_ALIGN);
-        if (HtmlConstants.SUPER.equals(verticalAlign)) {
+        VerticalAlign verticalAlign = VerticalAlign.of(getPropertyValue(HtmlConstants.CSS_VERTICAL_ALIGN, true, false));
+        if (verticalAlign == VerticalAlign.SUPER) {
             rPr.addNewVertAlign().setVal(STVerticalAlignRun.SUPERSCRIPT);
-        } else if (HtmlConstants.SUB.equals(verticalAlign)) {
+        } else if (verticalAlign == VerticalAlign.SUB) {
             rPr.addNewVertAlign().setVal(STVerticalAlignRun.SUBSCRIPT);
         }
 
@@ -1059,8 +1128,8 @@ public class HtmlRenderContext extends RenderContext<String> {
         }
 
         // 可见性
-        String visibility = getPropertyValue(HtmlConstants.CSS_VISIBILITY);
-        if (HtmlConstants.HIDDEN.equals(visibility) || HtmlConstants.COLLAPSE.equals(visibility)) {
+        String visibility = getPropertyValue(HtmlConstants.CSS_VISIBILITY, true, false);
+        if (HtmlConstants.HIDDEN.equalsIgnoreCase(visibility) || HtmlConstants.COLLAPSE.equalsIgnoreCase(visibility)) {
             rPr.addNewVanish();
         }
     }
@@ -1079,18 +1148,25 @@ public class HtmlRenderContext extends RenderContext<String> {
             throws IOException, InvalidFormatException {
         CTR ctr = newRun();
 
-        XWPFPicture xwpfPicture = currentRun.addPicture(pictureData, pictureType, filename, width, height);
+        PictureRegistry pictureRegistry = PictureRegistry.of(currentRun);
+        long embeddedBytes = pictureRegistry.getEmbeddedBytes();
+        XWPFPicture xwpfPicture = pictureRegistry.addPicture(currentRun, IOUtils.toByteArray(pictureData), pictureType,
+                filename, width, height);
         CTR r = currentRun.getCTR();
 
         boolean isSvg = svgData != null;
         if (isSvg) {
-            attachSvgData(xwpfPicture, svgData);
+            attachSvgData(pictureRegistry, currentRun, xwpfPicture, svgData);
+        }
+        if (renderMetrics != null) {
+            // 复用的图片不重复计入
+            renderMetrics.addEmbeddedBytes(pictureRegistry.getEmbeddedBytes() - embeddedBytes);
         }
 
         CSSStyleDeclarationImpl styleDeclaration = currentElementStyle();
-        String cssFloat = styleDeclaration.getPropertyValue(HtmlConstants.CSS_FLOAT);
-        boolean floatLeft = HtmlConstants.LEFT.equals(cssFloat);
-        boolean floatRight = !floatLeft && HtmlConstants.RIGHT.equals(cssFloat);
+        CSSFloat cssFloat = CSSFloat.of(styleDeclaration.getPropertyValue(HtmlConstants.CSS_FLOAT));
+        boolean floatLeft = cssFloat == CSSFloat.LEFT;
+        boolean floatRight = cssFloat == CSSFloat.RIGHT;
         boolean floatCenter = !floatLeft && !floatRight
                 && HtmlConstants.AUTO.equals(styleDeclaration.getPropertyValue(HtmlConstants.CSS_MARGIN_LEFT))
                 && HtmlConstants.AUTO.equals(styleDeclaration.getPropertyValue(HtmlConstants.CSS_MARGIN_RIGHT));
@@ -1148,13 +1224,16 @@ public class HtmlRenderContext extends RenderContext<String> {
     /**
      * 附加SVG数据
      *
+     * @param pictureRegistry 图片所属部件的登记表
+     * @param run 图片所在的run
      * @param xwpfPicture 图片
      * @param svgData SVG数据
      * @throws InvalidFormatException 非法格式
      */
-    private void attachSvgData(XWPFPicture xwpfPicture, byte[] svgData) throws InvalidFormatException {
+    private void attachSvgData(PictureRegistry pictureRegistry, XWPFRun run, XWPFPicture xwpfPicture, byte[] svgData)
+            throws InvalidFormatException {
         CTPicture ctPicture = xwpfPicture.getCTPicture();
-        String svgRelId = getXWPFDocument().addPictureData(svgData, SVGPictureData.PICTURE_TYPE_SVG);
+        String svgRelId = pictureRegistry.addPictureData(run, svgData, SVGPictureData.PICTURE_TYPE_SVG);
         CTBlip blip = ctPicture.getBlipFill().getBlip();
         if (blip != null) {
             CTOfficeArtExtensionList extList = blip.isSetExtLst() ? blip.getExtLst() : blip.addNewExtLst();
@@ -1253,6 +1332,113 @@ public class HtmlRenderContext extends RenderContext<String> {
         this.mathRenderConfig = mathRenderConfig;
     }
 
+    /**
+     * @return 渲染指标，未配置监听器时为null
+     */
+    public RenderMetrics getRenderMetrics() {
+        return renderMetrics;
+    }
+
+    public void setRenderMetrics(RenderMetrics renderMetrics) {
+        this.renderMetrics = renderMetrics;
+    }
+
+    /**
+     * @return 图片解析器，未设置时仅支持http(s)图片
+     */
+    public ImageResolver getImageResolver() {
+        return imageResolver == null ? HttpImageResolver.getDefault() : imageResolver;
+    }
+
+    public void setImageResolver(ImageResolver imageResolver) {
+        this.imageResolver = imageResolver;
+    }
+
+    /**
+     * @return 图片加载器，未设置时为默认加载器
+     */
+    public ImageLoader getImageLoader() {
+        return imageLoader == null ? ImageLoader.getDefault() : imageLoader;
+    }
+
+    public void setImageLoader(ImageLoader imageLoader) {
+        this.imageLoader = imageLoader;
+    }
+
+    /**
+     * 设置图片的等待时间限制
+     *
+     * @param timeoutMillis 单个图片的最长等待时间（毫秒），0表示不限制
+     * @param budgetMillis 本次渲染等待图片的总时间（毫秒），0表示不限制
+     */
+    public void setImageTimeLimits(long timeoutMillis, long budgetMillis) {
+        this.imageTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(timeoutMillis, 0));
+        this.imageBudgetNanos = budgetMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(budgetMillis) : -1;
+    }
+
+    /**
+     * @return 是否限制了图片的等待时间
+     */
+    public boolean isImageTimeLimited() {
+        return imageTimeoutNanos > 0 || imageBudgetNanos >= 0;
+    }
+
+    /**
+     * @return 下一个图片的最长等待时间（纳秒），不限制时为{@link Long#MAX_VALUE}
+     */
+    public long getImageWaitNanos() {
+        long wait = imageTimeoutNanos > 0 ? imageTimeoutNanos : Long.MAX_VALUE;
+        return imageBudgetNanos >= 0 ? Math.min(wait, imageBudgetNanos) : wait;
+    }
+
+    /**
+     * 扣除等待图片花费的时间
+     *
+     * @param nanos 等待时间（纳秒）
+     */
+    public void consumeImageBudget(long nanos) {
+        if (imageBudgetNanos >= 0) {
+            imageBudgetNanos = Math.max(imageBudgetNanos - nanos, 0);
+        }
+    }
+
+    /**
+     * @return 图片等待时间预算是否已用完
+     */
+    public boolean isImageBudgetExhausted() {
+        return imageBudgetNanos == 0;
+    }
+
+    public ImageFallback getImageFallback() {
+        return imageFallback;
+    }
+
+    public void setImageFallback(ImageFallback imageFallback) {
+        this.imageFallback = imageFallback;
+    }
+
+    public ImageResampler getImageResampler() {
+        return imageResampler;
+    }
+
+    public void setImageResampler(ImageResampler imageResampler) {
+        this.imageResampler = imageResampler;
+    }
+
+    /**
+     * 获取预取的图片
+     *
+     * @param src 图片地址
+     * @return 加载任务，未预取时为null
+     */
+    public CompletableFuture<FetchedImage> getPrefetchedImage(String src) {
+        return prefetchedImages.get(src);
+    }
+
+    public void setPrefetchedImages(Map<String, CompletableFuture<FetchedImage>> prefetchedImages) {
+        this.prefetchedImages = prefetchedImages == null ? Collections.emptyMap() : prefetchedImages;
+    }
+
     public XWPFRun getCurrentRun() {
         return currentRun;
     }
@@ -1319,17 +1505,34 @@ public class HtmlRenderContext extends RenderContext<String> {
         }
     }
 
+    /**
+     * 不渲染的元素，如表单控件
+     *
+     * @param element HTML元素
+     * @return 是否忽略该元素及其子元素
+     */
+    public static boolean isIgnored(Element element) {
+        return element.tag().isFormListed() || element.tag().isFormSubmittable();
+    }
+
+    /**
+     * @param style 元素的样式声明
+     * @return 是否隐藏该元素及其子元素
+     */
+    public static boolean isHidden(CSSStyleDeclarationImpl style) {
+        return Display.of(style.getPropertyValue(HtmlConstants.CSS_DISPLAY)) == Display.NONE;
+    }
+
     public void renderElement(Element element) {
         if (log.isDebugEnabled()) {
             log.info("Start rendering html tag: <{}{}>", element.normalName(), element.attributes());
         }
-        if (element.tag().isFormListed() || element.tag().isFormSubmittable()) {
+        if (isIgnored(element)) {
             return;
         }
 
         CSSStyleDeclarationImpl cssStyleDeclaration = getCssStyleDeclaration(element);
-        String display = cssStyleDeclaration.getPropertyValue(HtmlConstants.CSS_DISPLAY);
-        if (HtmlConstants.NONE.equalsIgnoreCase(display)) {
+        if (isHidden(cssStyleDeclaration)) {
             return;
         }
         pushInlineStyle(cssStyleDeclaration, element.isBlock());
@@ -1358,6 +1561,9 @@ public class HtmlRenderContext extends RenderContext<String> {
                 globalCursor.push();
                 XWPFTable xwpfTable = container.insertNewTbl(globalCursor);
                 globalCursor.pop();
+                if (renderMetrics != null) {
+                    renderMetrics.incrementTables();
+                }
                 if (dedupeParagraph != null && !numberingContext.contains(dedupeParagraph)) {
                     if (!dedupeParagraph.equals(getRun().getParent()) && isEmptyParagraph(dedupeParagraph)) {
                         removeParagraph(container, dedupeParagraph);
@@ -1394,7 +1600,12 @@ public class HtmlRenderContext extends RenderContext<String> {
         }
 
         if (elementRenderer != null) {
-            if (!elementRenderer.renderStart(element, this)) {
+            long start = renderMetrics == null ? 0 : System.nanoTime();
+            boolean renderChildren = elementRenderer.renderStart(element, this);
+            if (renderMetrics != null) {
+                renderMetrics.record(RenderPhase.ELEMENT_START, element.normalName(), start);
+            }
+            if (!renderChildren) {
                 renderElementEnd(element, this, elementRenderer, blocked);
                 return;
             }
@@ -1412,7 +1623,7 @@ public class HtmlRenderContext extends RenderContext<String> {
             if (StringUtils.isNotBlank(run.text())) {
                 return false;
             }
-            if (!run.getEmbeddedPictures().isEmpty()) {
+            if (!run.getEmbeddedPictures().isEmpty() || run.getCTR().sizeOfDrawingArray() > 0) {
                 return false;
             }
         }
@@ -1532,7 +1743,11 @@ public class HtmlRenderContext extends RenderContext<String> {
 
     private void renderElementEnd(Element element, HtmlRenderContext context, ElementRenderer elementRenderer, boolean blocked) {
         if (elementRenderer != null) {
+            long start = renderMetrics == null ? 0 : System.nanoTime();
             elementRenderer.renderEnd(element, context);
+            if (renderMetrics != null) {
+                renderMetrics.record(RenderPhase.ELEMENT_END, element.normalName(), start);
+            }
         }
         context.popInlineStyle();
         if (blocked) {
@@ -1562,6 +1777,9 @@ public class HtmlRenderContext extends RenderContext<String> {
         CTP ctp = ((CTP) rCursor.getObject());
         XWPFParagraph paragraph = getContainer().getParagraph(ctp);
         XWPFParagraph newParagraph = getContainer().insertNewParagraph(rCursor);
+        if (renderMetrics != null) {
+            renderMetrics.incrementParagraphs();
+        }
         XmlCursor pCursor = newParagraph.getCTP().newCursor();
         pCursor.toEndToken();
         rCursor.pop();
@@ -1606,9 +1824,12 @@ public class HtmlRenderContext extends RenderContext<String> {
     }
 
     public CSSStyleDeclarationImpl getCssStyleDeclaration(Element element) {
+        long start = renderMetrics == null ? 0 : System.nanoTime();
         String style = element.attr(HtmlConstants.ATTR_STYLE);
-        CSSStyleDeclarationImpl cssStyleDeclaration = CSSStyleUtils.parse(style);
-        CSSStyleUtils.split(cssStyleDeclaration);
+        CSSStyleDeclarationImpl cssStyleDeclaration = CSSStyleUtils.parseAndSplit(style);
+        if (renderMetrics != null) {
+            renderMetrics.record(RenderPhase.STYLE_PARSE, null, start);
+        }
         return cssStyleDeclaration;
     }
 
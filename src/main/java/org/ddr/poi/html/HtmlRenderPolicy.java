@@ -26,6 +26,10 @@ import org.apache.poi.xwpf.usermodel.IBodyElement;
 import org.apache.poi.xwpf.usermodel.XWPFRun;
 import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.xmlbeans.XmlCursor;
+import org.ddr.poi.html.image.FetchedImage;
+import org.ddr.poi.html.image.ImageLoader;
+import org.ddr.poi.html.image.ImageResolver;
+import org.ddr.poi.html.image.ImageResolverChain;
 import org.ddr.poi.html.tag.ARenderer;
 import org.ddr.poi.html.tag.BigRenderer;
 import org.ddr.poi.html.tag.BoldRenderer;
@@ -63,6 +67,7 @@ import java.math.BigInteger;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * HTML字符串渲染策略
@@ -143,10 +148,40 @@ public class HtmlRenderPolicy extends AbstractRenderPolicy<String> {
 
     @Override
     public void doRender(RenderContext<String> context) throws Exception {
+        RenderMetrics metrics = config.getRenderListener() == null ? null : new RenderMetrics(config.getRenderListener());
+        if (metrics == null) {
+            doRender(context, null);
+        } else {
+            metrics.start();
+            try {
+                doRender(context, metrics);
+            } finally {
+                metrics.end();
+            }
+        }
+    }
+
+    private void doRender(RenderContext<String> context, RenderMetrics metrics) {
+        long start = metrics == null ? 0 : System.nanoTime();
         Document document = JsoupUtils.parse(context.getData());
         document.outputSettings().prettyPrint(false).indentAmount(0);
+        if (metrics != null) {
+            metrics.record(RenderPhase.HTML_PARSE, null, start);
+        }
+        // 在遍历文档之前并发加载所有图片
+        ImageResolver imageResolver = new ImageResolverChain(config.getImageResolvers());
+        ImageLoader imageLoader = config.getImageLoader();
+        Map<String, CompletableFuture<FetchedImage>> prefetchedImages = config.isImagePrefetchEnabled()
+                ? imageLoader.prefetch(document, imageResolver) : null;
 
         HtmlRenderContext htmlRenderContext = new HtmlRenderContext(context, elRenderers::get);
+        htmlRenderContext.setRenderMetrics(metrics);
+        htmlRenderContext.setImageResolver(imageResolver);
+        htmlRenderContext.setImageLoader(imageLoader);
+        htmlRenderContext.setImageTimeLimits(config.getImageTimeout(), config.getImageTimeBudget());
+        htmlRenderContext.setImageFallback(config.getImageFallback());
+        htmlRenderContext.setImageResampler(config.getImageResampler());
+        htmlRenderContext.setPrefetchedImages(prefetchedImages);
         htmlRenderContext.setGlobalFont(config.getGlobalFont());
         if (config.getGlobalFontSizeInHalfPoints() > 0) {
             htmlRenderContext.setGlobalFontSize(BigInteger.valueOf(config.getGlobalFontSizeInHalfPoints()));
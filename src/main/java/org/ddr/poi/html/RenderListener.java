@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+/**
+ * 渲染监听器，未设置时不会采集任何指标
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public interface RenderListener {
+    /**
+     * 开始渲染
+     *
+     * @param metrics 本次渲染的指标
+     */
+    default void onRenderStart(RenderMetrics metrics) {
+    }
+
+    /**
+     * 某个阶段执行完毕
+     *
+     * @param phase 阶段
+     * @param name 名称，如标签名、图片地址，可能为null
+     * @param nanos 耗时（纳秒）
+     */
+    default void onPhase(RenderPhase phase, String name, long nanos) {
+    }
+
+    /**
+     * 渲染结束，渲染失败时同样会被调用
+     *
+     * @param metrics 本次渲染的指标
+     */
+    void onRenderEnd(RenderMetrics metrics);
+}
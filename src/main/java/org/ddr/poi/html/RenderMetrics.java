@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 单次HTML渲染的指标，仅在配置了{@link RenderListener}时创建
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class RenderMetrics {
+    private static final com.sun.management.ThreadMXBean THREAD_MX_BEAN;
+
+    static {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean bean = null;
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            bean = (com.sun.management.ThreadMXBean) threadMXBean;
+            if (!bean.isThreadAllocatedMemorySupported() || !bean.isThreadAllocatedMemoryEnabled()) {
+                bean = null;
+            }
+        }
+        THREAD_MX_BEAN = bean;
+    }
+
+    private final RenderListener listener;
+    private final Map<RenderPhase, Timing> phases = new EnumMap<>(RenderPhase.class);
+    private final Map<String, Timing> elementStarts = new HashMap<>();
+    private final Map<String, Timing> elementEnds = new HashMap<>();
+
+    private long startNanos;
+    private long totalNanos;
+    private long startAllocatedBytes;
+    private long allocatedBytes = -1;
+
+    private int runs;
+    private int paragraphs;
+    private int tables;
+    private long embeddedBytes;
+    private int imageTimeouts;
+    private int imageBudgetExceeded;
+
+    public RenderMetrics(RenderListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * 开始计时
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        if (THREAD_MX_BEAN != null) {
+            startAllocatedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        listener.onRenderStart(this);
+    }
+
+    /**
+     * 结束计时并通知监听器
+     */
+    public void end() {
+        totalNanos = System.nanoTime() - startNanos;
+        if (THREAD_MX_BEAN != null) {
+            allocatedBytes = THREAD_MX_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId()) - startAllocatedBytes;
+        }
+        listener.onRenderEnd(this);
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param phase 阶段
+     * @param name 名称
+     * @param startNanos 阶段开始时的{@link System#nanoTime()}
+     */
+    public void record(RenderPhase phase, String name, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        phases.computeIfAbsent(phase, k -> new Timing()).add(nanos);
+        if (phase == RenderPhase.ELEMENT_START) {
+            elementStarts.computeIfAbsent(name, k -> new Timing()).add(nanos);
+        } else if (phase == RenderPhase.ELEMENT_END) {
+            elementEnds.computeIfAbsent(name, k -> new Timing()).add(nanos);
+        }
+        listener.onPhase(phase, name, nanos);
+    }
+
+    public void incrementRuns() {
+        runs++;
+    }
+
+    public void incrementParagraphs() {
+        paragraphs++;
+    }
+
+    public void incrementTables() {
+        tables++;
+    }
+
+    public void addEmbeddedBytes(long bytes) {
+        embeddedBytes += bytes;
+    }
+
+    public void incrementImageTimeouts() {
+        imageTimeouts++;
+    }
+
+    public void incrementImageBudgetExceeded() {
+        imageBudgetExceeded++;
+    }
+
+    /**
+     * @param phase 阶段
+     * @return 阶段耗时，未执行过时为null
+     */
+    public Timing getPhase(RenderPhase phase) {
+        return phases.get(phase);
+    }
+
+    /**
+     * @return 各阶段耗时
+     */
+    public Map<RenderPhase, Timing> getPhases() {
+        return Collections.unmodifiableMap(phases);
+    }
+
+    /**
+     * @return 按标签统计的renderStart耗时
+     */
+    public Map<String, Timing> getElementStarts() {
+        return Collections.unmodifiableMap(elementStarts);
+    }
+
+    /**
+     * @return 按标签统计的renderEnd耗时
+     */
+    public Map<String, Timing> getElementEnds() {
+        return Collections.unmodifiableMap(elementEnds);
+    }
+
+    /**
+     * @return 总耗时（纳秒）
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return 渲染线程分配的字节数，JVM不支持时为-1
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return 新建的run数量
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    /**
+     * @return 新建的段落数量
+     */
+    public int getParagraphs() {
+        return paragraphs;
+    }
+
+    /**
+     * @return 新建的表格数量
+     */
+    public int getTables() {
+        return tables;
+    }
+
+    /**
+     * @return 嵌入的图片字节数
+     */
+    public long getEmbeddedBytes() {
+        return embeddedBytes;
+    }
+
+    /**
+     * @return 等待超时而降级的图片数量
+     */
+    public int getImageTimeouts() {
+        return imageTimeouts;
+    }
+
+    /**
+     * @return 超出时间预算而降级的图片数量
+     */
+    public int getImageBudgetExceeded() {
+        return imageBudgetExceeded;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderMetrics{" +
+                "totalNanos=" + totalNanos +
+                ", allocatedBytes=" + allocatedBytes +
+                ", runs=" + runs +
+                ", paragraphs=" + paragraphs +
+                ", tables=" + tables +
+                ", embeddedBytes=" + embeddedBytes +
+                ", imageTimeouts=" + imageTimeouts +
+                ", imageBudgetExceeded=" + imageBudgetExceeded +
+                ", phases=" + phases +
+                ", elementStarts=" + elementStarts +
+                ", elementEnds=" + elementEnds +
+                '}';
+    }
+
+    /**
+     * 累计耗时
+     */
+    public static class Timing {
+        private int count;
+        private long nanos;
+
+        private void add(long nanos) {
+            count++;
+            this.nanos += nanos;
+        }
+
+        /**
+         * @return 次数
+         */
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * @return 累计耗时（纳秒）
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return count + "/" + nanos + "ns";
+        }
+    }
+}
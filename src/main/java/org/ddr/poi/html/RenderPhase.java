@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html;
+
+/**
+ * 渲染阶段，阶段之间可能嵌套，如MATH_CONVERT包含在math标签的ELEMENT_START中
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public enum RenderPhase {
+    /**
+     * 解析HTML
+     */
+    HTML_PARSE,
+    /**
+     * 解析元素的style属性
+     */
+    STYLE_PARSE,
+    /**
+     * {@link ElementRenderer#renderStart}，按标签统计
+     */
+    ELEMENT_START,
+    /**
+     * {@link ElementRenderer#renderEnd}，按标签统计
+     */
+    ELEMENT_END,
+    /**
+     * 下载图片
+     */
+    IMAGE_FETCH,
+    /**
+     * 图片超时或超出时间预算后降级，耗时为等待时间
+     */
+    IMAGE_FALLBACK,
+    /**
+     * 识别图片类型及尺寸
+     */
+    IMAGE_DECODE,
+    /**
+     * 按显示尺寸重采样图片
+     */
+    IMAGE_RESAMPLE,
+    /**
+     * MathML转换为OMML
+     */
+    MATH_CONVERT,
+    /**
+     * LaTeX转换为OMML
+     */
+    LATEX_CONVERT
+}
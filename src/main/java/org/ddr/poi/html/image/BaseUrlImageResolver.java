@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 相对地址图片解析器，将相对地址基于基础地址转换为绝对地址后交由委托的解析器处理
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class BaseUrlImageResolver implements ImageResolver {
+    public static final int PRIORITY = 300;
+
+    private final URI baseUrl;
+    private final ImageResolver delegate;
+
+    /**
+     * 使用默认的http(s)解析器获取图片
+     *
+     * @param baseUrl 基础地址，如 https://example.com/assets/
+     */
+    public BaseUrlImageResolver(String baseUrl) {
+        this(baseUrl, HttpImageResolver.getDefault());
+    }
+
+    /**
+     * @param baseUrl 基础地址
+     * @param delegate 处理绝对地址的解析器
+     */
+    public BaseUrlImageResolver(String baseUrl, ImageResolver delegate) {
+        this.baseUrl = URI.create(baseUrl);
+        if (!this.baseUrl.isAbsolute()) {
+            throw new IllegalArgumentException("Base url must be absolute: " + baseUrl);
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public boolean supports(String src) {
+        if (src.isEmpty() || src.startsWith("//") || ImageSources.scheme(src) != null) {
+            return false;
+        }
+        String url = absolute(src);
+        return url != null && delegate.supports(url);
+    }
+
+    @Override
+    public String key(String src) {
+        String url = absolute(src);
+        return url == null ? src : delegate.key(url);
+    }
+
+    @Override
+    public FetchedImage resolve(String src) throws IOException {
+        String url = absolute(src);
+        if (url == null) {
+            throw new IOException("Illegal relative url: " + src);
+        }
+        return delegate.resolve(url);
+    }
+
+    @Override
+    public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+        String url = absolute(src);
+        if (url == null) {
+            CompletableFuture<FetchedImage> future = new CompletableFuture<>();
+            future.completeExceptionally(new IOException("Illegal relative url: " + src));
+            return future;
+        }
+        return delegate.resolveAsync(url, executor);
+    }
+
+    private String absolute(String src) {
+        try {
+            // 常见的未转义空格
+            return baseUrl.resolve(src.replace(" ", "%20")).toString();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+/**
+ * 熔断器，线程安全。连续失败达到阈值后熔断，一段时间后放行一个试探请求，成功则恢复
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class CircuitBreaker {
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 正常放行
+         */
+        CLOSED,
+        /**
+         * 熔断，拒绝所有请求
+         */
+        OPEN,
+        /**
+         * 已放行一个试探请求，等待其结果，试探请求超过熔断持续时间仍未结束时放行新的试探请求
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private long trialStartedAt;
+
+    /**
+     * @param failureThreshold 触发熔断的连续失败次数
+     * @param openMillis 熔断持续时间（毫秒），之后放行试探请求
+     */
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold <= 0) {
+            throw new IllegalArgumentException("Failure threshold must be positive: " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 请求前调用
+     *
+     * @param now 当前时间，毫秒
+     * @return 是否允许请求
+     */
+    public synchronized boolean tryAcquire(long now) {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (now - openedAt >= openMillis) {
+                    state = State.HALF_OPEN;
+                    trialStartedAt = now;
+                    return true;
+                }
+                return false;
+            default:
+                // 试探请求未记录结果时不能永久熔断
+                if (now - trialStartedAt >= openMillis) {
+                    trialStartedAt = now;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    /**
+     * 请求成功后调用
+     */
+    public synchronized void recordSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * 请求失败后调用
+     *
+     * @param now 当前时间，毫秒
+     */
+    public synchronized void recordFailure(long now) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = now;
+        }
+    }
+
+    /**
+     * 请求未完成时调用，如等待时被中断，释放试探请求的名额
+     */
+    public synchronized void recordIgnored() {
+        if (state == State.HALF_OPEN) {
+            state = State.OPEN;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
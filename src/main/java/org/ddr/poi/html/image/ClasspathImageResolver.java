@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 类路径图片解析器，支持classpath:前缀的地址
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ClasspathImageResolver implements ImageResolver {
+    public static final int PRIORITY = 200;
+    private static final String PREFIX = "classpath:";
+
+    private final ClassLoader classLoader;
+
+    public ClasspathImageResolver() {
+        this(ClasspathImageResolver.class.getClassLoader());
+    }
+
+    public ClasspathImageResolver(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public boolean supports(String src) {
+        return StringUtils.startsWithIgnoreCase(src, PREFIX);
+    }
+
+    @Override
+    public String key(String src) {
+        return PREFIX + resourceName(src);
+    }
+
+    @Override
+    public FetchedImage resolve(String src) throws IOException {
+        String name = resourceName(src);
+        try (InputStream inputStream = classLoader.getResourceAsStream(name)) {
+            if (inputStream == null) {
+                throw new FileNotFoundException("Resource not found in classpath: " + name);
+            }
+            return new FetchedImage(PREFIX + name, IOUtils.toByteArray(inputStream), ImageSources.contentType(name));
+        }
+    }
+
+    private static String resourceName(String src) {
+        String name = ImageSources.path(src.substring(PREFIX.length()));
+        int start = 0;
+        while (start < name.length() && name.charAt(start) == '/') {
+            start++;
+        }
+        return name.substring(start);
+    }
+}
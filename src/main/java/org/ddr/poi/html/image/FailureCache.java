@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 失败地址的缓存，线程安全，在有效期内不再重复请求
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+class FailureCache {
+    private final int maxSize;
+    private final Map<String, Failure> failures;
+
+    FailureCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.failures = new LinkedHashMap<String, Failure>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Failure> eldest) {
+                return size() > FailureCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @param url 地址
+     * @param now 当前时间，毫秒
+     * @return 有效期内的失败原因，没有时为null
+     */
+    String get(String url, long now) {
+        synchronized (failures) {
+            Failure failure = failures.get(url);
+            if (failure == null) {
+                return null;
+            }
+            if (now >= failure.expiresAt) {
+                failures.remove(url);
+                return null;
+            }
+            return failure.message;
+        }
+    }
+
+    /**
+     * @param url 地址
+     * @param message 失败原因
+     * @param expiresAt 过期时间，毫秒
+     */
+    void put(String url, String message, long expiresAt) {
+        synchronized (failures) {
+            // 重新插入以更新淘汰顺序
+            failures.remove(url);
+            failures.put(url, new Failure(message, expiresAt));
+        }
+    }
+
+    void remove(String url) {
+        synchronized (failures) {
+            failures.remove(url);
+        }
+    }
+
+    void clear() {
+        synchronized (failures) {
+            failures.clear();
+        }
+    }
+
+    private static class Failure {
+        final String message;
+        final long expiresAt;
+
+        Failure(String message, long expiresAt) {
+            this.message = message;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
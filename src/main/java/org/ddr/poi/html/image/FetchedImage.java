@@ -0,0 +1,153 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ddr.poi.html.HtmlConstants;
+
+/**
+ * 已获取的图片数据
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class FetchedImage {
+    private final String url;
+    private final byte[] data;
+    private final String contentType;
+    private final String etag;
+    private final long lastModified;
+    private final long expiresAt;
+    private volatile ImageAnalysis analysis;
+    private volatile ImageCache cache;
+    private volatile String cacheKey;
+
+    public FetchedImage(String url, byte[] data, String contentType) {
+        this(url, data, contentType, null, 0, 0);
+    }
+
+    /**
+     * @param url 图片地址
+     * @param data 图片数据
+     * @param contentType Content-Type
+     * @param etag ETag响应头
+     * @param lastModified Last-Modified响应头，毫秒，未知时为0
+     * @param expiresAt 缓存过期时间，毫秒，此后使用前需重新验证
+     */
+    public FetchedImage(String url, byte[] data, String contentType, String etag, long lastModified, long expiresAt) {
+        this.url = url;
+        this.data = data;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return 图片地址
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @return 图片数据，调用方不应修改
+     */
+    public byte[] getData() {
+        return data;
+    }
+
+    /**
+     * @return 响应的Content-Type，可能为null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isSvg() {
+        return StringUtils.contains(contentType, HtmlConstants.TAG_SVG);
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * @param now 当前时间，毫秒
+     * @return 缓存是否仍可直接使用
+     */
+    public boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    /**
+     * @return 是否可以发送条件请求重新验证
+     */
+    public boolean hasValidator() {
+        return etag != null || lastModified > 0;
+    }
+
+    /**
+     * 重新验证后更新过期时间，保留数据及分析结果
+     *
+     * @param expiresAt 新的过期时间
+     * @return 新的图片数据
+     */
+    public FetchedImage revalidated(long expiresAt) {
+        FetchedImage image = new FetchedImage(url, data, contentType, etag, lastModified, expiresAt);
+        image.analysis = analysis;
+        return image;
+    }
+
+    /**
+     * @return 图片分析结果，尚未分析时为null
+     */
+    public ImageAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * 设置分析结果，已缓存的图片会同步更新缓存
+     *
+     * @param analysis 分析结果
+     */
+    public void setAnalysis(ImageAnalysis analysis) {
+        this.analysis = analysis;
+        ImageCache cache = this.cache;
+        if (cache != null) {
+            cache.updateAnalysis(cacheKey, this);
+        }
+    }
+
+    /**
+     * 记录缓存位置，之后设置的分析结果会写回缓存
+     *
+     * @param cache 图片缓存，为null时表示已被替换
+     * @param key 缓存键
+     */
+    void cachedIn(ImageCache cache, String key) {
+        this.cacheKey = key;
+        this.cache = cache;
+    }
+}
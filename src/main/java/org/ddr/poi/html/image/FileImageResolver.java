@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 本地文件图片解析器，支持file协议及相对于根目录的路径，出于安全考虑仅能读取根目录下的文件
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class FileImageResolver implements ImageResolver {
+    public static final int PRIORITY = 100;
+    private static final String FILE = "file";
+
+    private final Path baseDirectory;
+
+    /**
+     * @param baseDirectory 根目录，相对路径基于此目录解析
+     */
+    public FileImageResolver(Path baseDirectory) {
+        try {
+            this.baseDirectory = baseDirectory.toRealPath();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Illegal base directory: " + baseDirectory, e);
+        }
+    }
+
+    public Path getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public boolean supports(String src) {
+        return toPath(src) != null;
+    }
+
+    @Override
+    public String key(String src) {
+        Path path = toPath(src);
+        return path == null ? src : path.toUri().toString();
+    }
+
+    @Override
+    public FetchedImage resolve(String src) throws IOException {
+        Path path = toPath(src);
+        if (path == null) {
+            throw new IOException("File not found in " + baseDirectory + ": " + src);
+        }
+        return new FetchedImage(path.toUri().toString(), Files.readAllBytes(path),
+                ImageSources.contentType(path.getFileName().toString()));
+    }
+
+    /**
+     * 解析为根目录下的文件
+     *
+     * @param src 图片地址
+     * @return 文件的真实路径，文件不存在或位于根目录之外时为null
+     */
+    private Path toPath(String src) {
+        String scheme = ImageSources.scheme(src);
+        if (src.isEmpty() || src.startsWith("//")) {
+            return null;
+        }
+        Path path;
+        try {
+            if (scheme == null) {
+                path = baseDirectory.resolve(ImageSources.path(src)).normalize();
+            } else if (FILE.equals(scheme)) {
+                path = Paths.get(URI.create(ImageSources.path(src)));
+            } else {
+                return null;
+            }
+            if (!Files.isRegularFile(path)) {
+                return null;
+            }
+            // 解析符号链接及..，防止访问根目录以外的文件；非法路径抛出的InvalidPathException也是IllegalArgumentException
+            path = path.toRealPath();
+        } catch (IllegalArgumentException | IOException e) {
+            return null;
+        }
+        return path.startsWith(baseDirectory) ? path : null;
+    }
+}
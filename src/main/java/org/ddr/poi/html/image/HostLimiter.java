@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * 单个主机的并发请求限制，线程安全。
+ * 超出限制的异步任务进入队列，在其他请求结束时再提交到线程池，不占用线程池中的线程
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+class HostLimiter {
+    private final int maxConcurrency;
+    private final ArrayDeque<Pending> pending = new ArrayDeque<>();
+    private int active;
+
+    HostLimiter(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * 阻塞直到获得许可，仅用于同步请求，结束后需调用{@link #release()}
+     */
+    synchronized void acquire() throws InterruptedException {
+        while (active >= maxConcurrency) {
+            wait();
+        }
+        active++;
+    }
+
+    /**
+     * 释放许可，优先交给排队的异步任务
+     */
+    void release() {
+        Pending next;
+        synchronized (this) {
+            next = pending.poll();
+            if (next == null) {
+                active--;
+                notify();
+                return;
+            }
+        }
+        dispatch(next);
+    }
+
+    /**
+     * 获得许可后在线程池中执行任务，任务结束后自动释放许可
+     *
+     * @param task 任务
+     * @param executor 线程池
+     * @param rejected 线程池拒绝执行时的回调，任务不会再执行
+     */
+    void submit(Runnable task, Executor executor, Consumer<RejectedExecutionException> rejected) {
+        Pending submitted = new Pending(task, executor, rejected);
+        synchronized (this) {
+            if (active >= maxConcurrency) {
+                pending.add(submitted);
+                return;
+            }
+            active++;
+        }
+        dispatch(submitted);
+    }
+
+    private void dispatch(Pending pending) {
+        try {
+            pending.executor.execute(() -> {
+                try {
+                    pending.task.run();
+                } finally {
+                    release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            try {
+                pending.rejected.accept(e);
+            } finally {
+                release();
+            }
+        }
+    }
+
+    /**
+     * @return 正在执行的请求数
+     */
+    synchronized int getActive() {
+        return active;
+    }
+
+    /**
+     * @return 排队等待的异步任务数
+     */
+    synchronized int getPending() {
+        return pending.size();
+    }
+
+    private static class Pending {
+        final Runnable task;
+        final Executor executor;
+        final Consumer<RejectedExecutionException> rejected;
+
+        Pending(Runnable task, Executor executor, Consumer<RejectedExecutionException> rejected) {
+            this.task = task;
+            this.executor = executor;
+            this.rejected = rejected;
+        }
+    }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * http(s)图片解析器，同一主机的并发请求数受限，异步请求超出限制时排队而不占用线程。
+ * 响应按Cache-Control/Expires缓存，过期后使用ETag/Last-Modified发送条件请求重新验证。
+ * 失败的地址在一段时间内不再请求，连续失败的主机会被熔断，此时有缓存则继续使用过期的缓存
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class HttpImageResolver implements ImageResolver {
+    public static final int PRIORITY = 400;
+    /**
+     * 默认的单个主机最大并发请求数
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY_PER_HOST = 4;
+    /**
+     * 默认的失败地址记录时间（毫秒）
+     */
+    public static final long DEFAULT_FAILURE_TTL = 10 * 60 * 1000L;
+    /**
+     * 默认的触发熔断的连续失败次数
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    /**
+     * 默认的熔断持续时间（毫秒）
+     */
+    public static final long DEFAULT_CIRCUIT_OPEN_MILLIS = 30 * 1000L;
+    private static final int MAX_FAILURES = 10_000;
+
+    /**
+     * 没有明确过期时间时，按Last-Modified推算的新鲜期上限
+     */
+    private static final long MAX_HEURISTIC_FRESHNESS = 24 * 60 * 60 * 1000L;
+
+    private static final HttpImageResolver DEFAULT = new HttpImageResolver(DEFAULT_MAX_CONCURRENCY_PER_HOST, ImageCache.getDefault());
+
+    private static final DateTimeFormatter HTTP_DATE_FORMATTER = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final ImageHttpClient client;
+    private final int maxConcurrencyPerHost;
+    private final ImageCache cache;
+    private final ConcurrentHashMap<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final FailureCache failures = new FailureCache(MAX_FAILURES);
+    private volatile long failureTtl = DEFAULT_FAILURE_TTL;
+    private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private volatile long circuitOpenMillis = DEFAULT_CIRCUIT_OPEN_MILLIS;
+
+    /**
+     * 不使用缓存
+     *
+     * @param maxConcurrencyPerHost 单个主机最大并发请求数
+     */
+    public HttpImageResolver(int maxConcurrencyPerHost) {
+        this(maxConcurrencyPerHost, null);
+    }
+
+    /**
+     * @param maxConcurrencyPerHost 单个主机最大并发请求数
+     * @param cache 图片缓存，为null时不使用缓存
+     */
+    public HttpImageResolver(int maxConcurrencyPerHost, ImageCache cache) {
+        this(ImageHttpClient.getDefault(), maxConcurrencyPerHost, cache);
+    }
+
+    /**
+     * @param client http客户端
+     * @param maxConcurrencyPerHost 单个主机最大并发请求数
+     * @param cache 图片缓存，为null时不使用缓存
+     */
+    public HttpImageResolver(ImageHttpClient client, int maxConcurrencyPerHost, ImageCache cache) {
+        if (maxConcurrencyPerHost <= 0) {
+            throw new IllegalArgumentException("Concurrency per host must be positive: " + maxConcurrencyPerHost);
+        }
+        this.client = client;
+        this.maxConcurrencyPerHost = maxConcurrencyPerHost;
+        this.cache = cache;
+    }
+
+    /**
+     * @return 默认解析器，所有渲染共享并发限制及内存缓存
+     */
+    public static HttpImageResolver getDefault() {
+        return DEFAULT;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY;
+    }
+
+    @Override
+    public boolean supports(String src) {
+        return ImageSources.remoteUrl(src) != null;
+    }
+
+    @Override
+    public String key(String src) {
+        return ImageSources.remoteUrl(src);
+    }
+
+    @Override
+    public FetchedImage resolve(String src) throws IOException {
+        Request request = prepare(src);
+        if (request.limiter == null) {
+            return request.cached;
+        }
+        try {
+            request.limiter.acquire();
+        } catch (InterruptedException e) {
+            request.breaker.recordIgnored();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to fetch " + request.url);
+        }
+        try {
+            return fetch(request);
+        } finally {
+            request.limiter.release();
+        }
+    }
+
+    /**
+     * 主机的并发请求数已满时下载任务排队等待，不阻塞线程池中的线程
+     */
+    @Override
+    public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+        CompletableFuture<FetchedImage> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                Request request = prepare(src);
+                if (request.limiter == null) {
+                    future.complete(request.cached);
+                    return;
+                }
+                request.limiter.submit(() -> {
+                    try {
+                        future.complete(fetch(request));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }, executor, e -> {
+                    // 任务不会执行，释放试探请求的名额
+                    request.breaker.recordIgnored();
+                    future.completeExceptionally(e);
+                });
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * 检查缓存、失败记录及熔断状态
+     *
+     * @param src 图片地址
+     * @return 无需下载或需要下载的请求
+     * @throws IOException 不应请求且没有可用的缓存
+     */
+    private Request prepare(String src) throws IOException {
+        String url = ImageSources.remoteUrl(src);
+        if (url == null) {
+            throw new IOException("Not a http url: " + src);
+        }
+        FetchedImage cached = cache == null ? null : cache.get(url);
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.isFresh(now)) {
+            return new Request(url, cached, null, null);
+        }
+        String host = host(url);
+        String failure = failures.get(url, now);
+        CircuitBreaker breaker = circuitBreakers.computeIfAbsent(host, h -> new CircuitBreaker(failureThreshold, circuitOpenMillis));
+        if (failure != null || !breaker.tryAcquire(now)) {
+            if (cached != null) {
+                // 暂时无法重新验证，继续使用过期的缓存
+                return new Request(url, cached, null, null);
+            }
+            throw new IOException(failure != null ? "Skip recently failed image: " + failure
+                    : "Circuit breaker is open for host: " + host);
+        }
+        HostLimiter limiter = hostLimiters.computeIfAbsent(host, h -> new HostLimiter(maxConcurrencyPerHost));
+        return new Request(url, cached, breaker, limiter);
+    }
+
+    /**
+     * 已获得主机的请求许可后下载图片并记录结果
+     *
+     * @param request 请求
+     * @return 图片数据，失败时为过期的缓存
+     */
+    private FetchedImage fetch(Request request) throws IOException {
+        String url = request.url;
+        FetchedImage cached = request.cached;
+        CircuitBreaker breaker = request.breaker;
+        try {
+            FetchedImage image = download(url, cached != null && cached.hasValidator() ? cached : null);
+            breaker.recordSuccess();
+            // 既无法直接使用也无法重新验证的响应不缓存
+            if (cache != null && (image.hasValidator() || image.isFresh(System.currentTimeMillis()))) {
+                cache.put(url, image);
+            }
+            return image;
+        } catch (InterruptedIOException | RuntimeException | Error e) {
+            // 被中断或非IO异常（如端口超出范围）与主机状态无关，仅释放试探请求的名额
+            breaker.recordIgnored();
+            throw e;
+        } catch (IOException e) {
+            long failedAt = System.currentTimeMillis();
+            if (e instanceof HttpStatusException && ((HttpStatusException) e).isClientError()) {
+                // 主机正常响应，仅记录该地址
+                breaker.recordSuccess();
+            } else {
+                breaker.recordFailure(failedAt);
+            }
+            if (failureTtl > 0) {
+                failures.put(url, e.toString(), failedAt + failureTtl);
+            }
+            if (cached != null) {
+                return cached;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param host 主机名
+     * @return 主机的熔断器状态
+     */
+    public CircuitBreaker.State getCircuitState(String host) {
+        CircuitBreaker breaker = circuitBreakers.get(host.toLowerCase());
+        return breaker == null ? CircuitBreaker.State.CLOSED : breaker.getState();
+    }
+
+    /**
+     * 清除失败记录并重置所有熔断器
+     */
+    public void resetFailures() {
+        failures.clear();
+        circuitBreakers.clear();
+    }
+
+    public long getFailureTtl() {
+        return failureTtl;
+    }
+
+    /**
+     * @param failureTtl 失败地址的记录时间（毫秒），期间不再请求该地址，0表示不记录
+     */
+    public void setFailureTtl(long failureTtl) {
+        this.failureTtl = failureTtl;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * @param failureThreshold 主机连续失败多少次后熔断，仅对之后新建的熔断器生效
+     */
+    public void setFailureThreshold(int failureThreshold) {
+        this.failureThreshold = failureThreshold;
+    }
+
+    public long getCircuitOpenMillis() {
+        return circuitOpenMillis;
+    }
+
+    /**
+     * @param circuitOpenMillis 熔断持续时间（毫秒），之后放行一个试探请求，仅对之后新建的熔断器生效
+     */
+    public void setCircuitOpenMillis(long circuitOpenMillis) {
+        this.circuitOpenMillis = circuitOpenMillis;
+    }
+
+    /**
+     * 下载图片
+     *
+     * @param url 图片地址
+     * @param cached 需要重新验证的缓存
+     * @return 图片数据，未修改时为更新了过期时间的缓存
+     */
+    private FetchedImage download(String url, FetchedImage cached) throws IOException {
+        Map<String, String> headers = new HashMap<>(4);
+        int firstSlashPosition = url.indexOf('/', url.indexOf("://") + 3);
+        headers.put("Referrer", firstSlashPosition < 0 ? url : url.substring(0, firstSlashPosition));
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                headers.put("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() > 0) {
+                headers.put("If-Modified-Since", HTTP_DATE_FORMATTER.format(Instant.ofEpochMilli(cached.getLastModified())));
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        ImageHttpClient.Response response = client.get(url, headers);
+        int status = response.getStatus();
+        if (cached != null && status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            long expiresAt = expiresAt(response.getHeader("Cache-Control"), response.getDateHeader("Expires"),
+                    response.getDateHeader("Date"), cached.getLastModified(), now);
+            return cached.revalidated(Math.max(expiresAt, 0));
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            throw new HttpStatusException(status, url);
+        }
+
+        long lastModified = response.getDateHeader("Last-Modified");
+        long expiresAt = expiresAt(response.getHeader("Cache-Control"), response.getDateHeader("Expires"),
+                response.getDateHeader("Date"), lastModified, now);
+        if (expiresAt < 0) {
+            // no-store，不缓存且不提供验证信息
+            return new FetchedImage(url, response.getBody(), response.getContentType());
+        }
+        return new FetchedImage(url, response.getBody(), response.getContentType(),
+                response.getHeader("ETag"), lastModified, expiresAt);
+    }
+
+    /**
+     * 计算缓存的过期时间
+     *
+     * @param cacheControl Cache-Control响应头
+     * @param expires Expires响应头，毫秒，未设置时为0
+     * @param date Date响应头，毫秒，未设置时为0
+     * @param lastModified Last-Modified响应头，毫秒，未设置时为0
+     * @param now 当前时间，毫秒
+     * @return 过期时间，需立即重新验证时不大于当前时间，不允许缓存时为-1
+     */
+    static long expiresAt(String cacheControl, long expires, long date, long lastModified, long now) {
+        if (cacheControl != null) {
+            long maxAge = -1;
+            boolean noCache = false;
+            for (String directive : cacheControl.split(",")) {
+                directive = directive.trim().toLowerCase();
+                if (directive.equals("no-store")) {
+                    return -1;
+                }
+                if (directive.equals("no-cache")) {
+                    noCache = true;
+                } else if (directive.startsWith("max-age=")) {
+                    try {
+                        maxAge = Math.max(Long.parseLong(directive.substring(8).replace("\"", "").trim()), 0);
+                    } catch (NumberFormatException e) {
+                        maxAge = 0;
+                    }
+                }
+            }
+            if (noCache) {
+                return now;
+            }
+            if (maxAge >= 0) {
+                return now + maxAge * 1000;
+            }
+        }
+        long serverNow = date > 0 ? date : now;
+        if (expires > 0) {
+            return now + Math.max(expires - serverNow, 0);
+        }
+        if (lastModified > 0 && lastModified < serverNow) {
+            // 参考RFC 7234 4.2.2，取距离上次修改时间的10%
+            return now + Math.min((serverNow - lastModified) / 10, MAX_HEURISTIC_FRESHNESS);
+        }
+        return now;
+    }
+
+    private static String host(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host == null ? url : host.toLowerCase();
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * 需要下载时包含熔断器及主机的并发限制，否则直接使用缓存
+     */
+    private static class Request {
+        final String url;
+        final FetchedImage cached;
+        final CircuitBreaker breaker;
+        final HostLimiter limiter;
+
+        Request(String url, FetchedImage cached, CircuitBreaker breaker, HostLimiter limiter) {
+            this.url = url;
+            this.cached = cached;
+            this.breaker = breaker;
+            this.limiter = limiter;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+
+/**
+ * 服务器返回了非成功的状态码
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class HttpStatusException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+
+    public HttpStatusException(int status, String url) {
+        super("Server returned HTTP response code: " + status + " for URL: " + url);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * @return 是否为客户端错误，重试不会成功；请求超时及限流除外
+     */
+    public boolean isClientError() {
+        return status >= 400 && status < 500 && status != 408 && status != 429;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.ddr.image.ImageInfo;
+import org.ddr.image.ImageType;
+
+import java.awt.*;
+import java.io.ByteArrayInputStream;
+
+/**
+ * 图片分析结果，不可变，可随图片数据一起缓存
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public final class ImageAnalysis {
+    private final ImageType type;
+    private final int width;
+    private final int height;
+    private final byte[] pictureData;
+
+    /**
+     * @param type 图片类型，可能为null
+     * @param width 宽度（像素）
+     * @param height 高度（像素）
+     * @param pictureData 插入文档的图片数据，SVG为转换后的位图
+     */
+    public ImageAnalysis(ImageType type, int width, int height, byte[] pictureData) {
+        this.type = type;
+        this.width = width;
+        this.height = height;
+        this.pictureData = pictureData;
+    }
+
+    public ImageType getType() {
+        return type;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return 插入文档的图片数据，调用方不应修改
+     */
+    public byte[] getPictureData() {
+        return pictureData;
+    }
+
+    /**
+     * @return 新的图片信息，每次调用都使用独立的数据流
+     */
+    public ImageInfo toImageInfo() {
+        return new ImageInfo(new ByteArrayInputStream(pictureData), type, new Dimension(width, height));
+    }
+}
@@ -0,0 +1,439 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.ddr.image.ImageType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图片缓存，线程安全，包括按字节数限制大小的内存LRU缓存及可选的磁盘缓存。
+ * 缓存的图片数据及分析结果不应被修改
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageCache {
+    private static final Logger log = LoggerFactory.getLogger(ImageCache.class);
+    /**
+     * 默认的内存缓存大小
+     */
+    public static final long DEFAULT_MAX_MEMORY_BYTES = 64L << 20;
+    private static final int DISK_FORMAT_VERSION = 1;
+    private static final String DISK_SUFFIX = ".img";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final ImageCache DEFAULT = new ImageCache(DEFAULT_MAX_MEMORY_BYTES);
+
+    private final long maxMemoryBytes;
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+
+    private final Path diskDirectory;
+    private final long maxDiskBytes;
+    private final AtomicLong diskBytes = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * 仅使用内存缓存
+     *
+     * @param maxMemoryBytes 内存缓存的最大字节数
+     */
+    public ImageCache(long maxMemoryBytes) {
+        this(maxMemoryBytes, null, 0);
+    }
+
+    /**
+     * @param maxMemoryBytes 内存缓存的最大字节数
+     * @param diskDirectory 磁盘缓存目录，为null时不使用磁盘缓存
+     * @param maxDiskBytes 磁盘缓存的最大字节数，超出时删除最久未使用的文件
+     */
+    public ImageCache(long maxMemoryBytes, Path diskDirectory, long maxDiskBytes) {
+        if (maxMemoryBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxMemoryBytes);
+        }
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.diskDirectory = diskDirectory;
+        this.maxDiskBytes = maxDiskBytes;
+        if (diskDirectory != null) {
+            if (maxDiskBytes <= 0) {
+                throw new IllegalArgumentException("Disk cache size must be positive: " + maxDiskBytes);
+            }
+            try {
+                Files.createDirectories(diskDirectory);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Illegal cache directory: " + diskDirectory, e);
+            }
+            for (File file : diskFiles()) {
+                diskBytes.addAndGet(file.length());
+            }
+        }
+    }
+
+    /**
+     * @return 默认的http(s)图片解析器共享的内存缓存
+     */
+    public static ImageCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 获取缓存的图片，内存中不存在时从磁盘加载，调用方需自行判断是否过期
+     *
+     * @param key 缓存键
+     * @return 缓存的图片，未命中时为null
+     */
+    public FetchedImage get(String key) {
+        FetchedImage image;
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            image = entry == null ? null : entry.image;
+        }
+        if (image == null && diskDirectory != null) {
+            image = readDisk(key);
+            if (image != null) {
+                putMemory(key, image);
+            }
+        }
+        if (image == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return image;
+    }
+
+    /**
+     * 缓存图片，同时写入磁盘
+     *
+     * @param key 缓存键
+     * @param image 图片
+     */
+    public void put(String key, FetchedImage image) {
+        putMemory(key, image);
+        if (diskDirectory != null) {
+            writeDisk(key, image);
+        }
+    }
+
+    /**
+     * 图片缓存后才设置分析结果时重新计算占用的内存并更新磁盘缓存，
+     * 由{@link FetchedImage#setAnalysis}调用
+     *
+     * @param key 缓存键
+     * @param image 已缓存的图片
+     */
+    void updateAnalysis(String key, FetchedImage image) {
+        long weight = weight(key, image);
+        boolean current;
+        synchronized (memory) {
+            Entry entry = memory.get(key);
+            current = entry == null || entry.image == image;
+            if (entry != null && entry.image == image) {
+                memoryBytes += weight - entry.weight;
+                if (weight > maxMemoryBytes) {
+                    memory.remove(key);
+                    memoryBytes -= weight;
+                } else {
+                    memory.put(key, new Entry(image, weight));
+                    trimMemory();
+                }
+            }
+        }
+        // 内存中已是更新的图片时不覆盖，已移出内存的图片仍需写回磁盘
+        if (current && diskDirectory != null) {
+            writeDisk(key, image);
+        }
+    }
+
+    /**
+     * 清空内存及磁盘缓存
+     */
+    public void clear() {
+        synchronized (memory) {
+            for (Entry entry : memory.values()) {
+                entry.image.cachedIn(null, null);
+            }
+            memory.clear();
+            memoryBytes = 0;
+        }
+        if (diskDirectory != null) {
+            for (File file : diskFiles()) {
+                delete(file);
+            }
+        }
+    }
+
+    private void putMemory(String key, FetchedImage image) {
+        long weight = weight(key, image);
+        image.cachedIn(this, key);
+        synchronized (memory) {
+            Entry previous = memory.remove(key);
+            if (previous != null) {
+                memoryBytes -= previous.weight;
+                if (previous.image != image) {
+                    // 被替换的图片之后设置分析结果时不再写回
+                    previous.image.cachedIn(null, null);
+                }
+            }
+            // 超出容量的单个图片不缓存
+            if (weight > maxMemoryBytes) {
+                return;
+            }
+            memory.put(key, new Entry(image, weight));
+            memoryBytes += weight;
+            trimMemory();
+        }
+    }
+
+    /**
+     * 移除最久未使用的图片直至不超过内存缓存大小，需持有memory的锁
+     */
+    private void trimMemory() {
+        Iterator<Entry> iterator = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes && iterator.hasNext()) {
+            memoryBytes -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * 估算占用的内存，包括分析时生成的图片数据，如SVG转换的位图
+     */
+    private static long weight(String key, FetchedImage image) {
+        long weight = 2L * key.length() + image.getData().length;
+        ImageAnalysis analysis = image.getAnalysis();
+        if (analysis != null && analysis.getPictureData() != image.getData()) {
+            weight += analysis.getPictureData().length;
+        }
+        return weight;
+    }
+
+    private FetchedImage readDisk(String key) {
+        File file = diskFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != DISK_FORMAT_VERSION || !key.equals(in.readUTF())) {
+                return null;
+            }
+            String contentType = readNullable(in);
+            String etag = readNullable(in);
+            long lastModified = in.readLong();
+            long expiresAt = in.readLong();
+            byte[] data = readBytes(in);
+            FetchedImage image = new FetchedImage(key, data, contentType, etag, lastModified, expiresAt);
+            if (in.readBoolean()) {
+                String type = readNullable(in);
+                int width = in.readInt();
+                int height = in.readInt();
+                byte[] pictureData = in.readBoolean() ? data : readBytes(in);
+                image.setAnalysis(new ImageAnalysis(type == null ? null : ImageType.valueOf(type), width, height, pictureData));
+            }
+            // 用文件修改时间记录最近使用时间
+            file.setLastModified(System.currentTimeMillis());
+            return image;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to read image cache: {}", file, e);
+            delete(file);
+            return null;
+        }
+    }
+
+    private void writeDisk(String key, FetchedImage image) {
+        File file = diskFile(key);
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(diskDirectory, file.getName(), TEMP_SUFFIX);
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(DISK_FORMAT_VERSION);
+                out.writeUTF(key);
+                writeNullable(out, image.getContentType());
+                writeNullable(out, image.getEtag());
+                out.writeLong(image.getLastModified());
+                out.writeLong(image.getExpiresAt());
+                writeBytes(out, image.getData());
+                ImageAnalysis analysis = image.getAnalysis();
+                out.writeBoolean(analysis != null);
+                if (analysis != null) {
+                    writeNullable(out, analysis.getType() == null ? null : analysis.getType().name());
+                    out.writeInt(analysis.getWidth());
+                    out.writeInt(analysis.getHeight());
+                    boolean samePicture = analysis.getPictureData() == image.getData();
+                    out.writeBoolean(samePicture);
+                    if (!samePicture) {
+                        writeBytes(out, analysis.getPictureData());
+                    }
+                }
+            }
+            long previousLength = file.length();
+            long length = Files.size(temp);
+            try {
+                Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+            if (diskBytes.addAndGet(length - previousLength) > maxDiskBytes) {
+                trimDisk();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to write image cache: {}", file, e);
+        } finally {
+            if (temp != null) {
+                delete(temp.toFile());
+            }
+        }
+    }
+
+    /**
+     * 删除最久未使用的文件直至不超过磁盘缓存大小
+     */
+    private synchronized void trimDisk() {
+        if (diskBytes.get() <= maxDiskBytes) {
+            return;
+        }
+        File[] files = diskFiles();
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        for (File file : files) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            long length = file.length();
+            if (delete(file)) {
+                total -= length;
+            }
+        }
+        diskBytes.set(total);
+    }
+
+    private File[] diskFiles() {
+        File[] files = diskDirectory.toFile().listFiles((dir, name) -> name.endsWith(DISK_SUFFIX));
+        return files == null ? new File[0] : files;
+    }
+
+    private File diskFile(String key) {
+        return diskDirectory.resolve(DigestUtils.sha256Hex(key) + DISK_SUFFIX).toFile();
+    }
+
+    private static boolean delete(File file) {
+        try {
+            return Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @return 内存中缓存的图片数量
+     */
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * @return 内存中缓存的字节数
+     */
+    public long getMemoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    public long getMaxMemoryBytes() {
+        return maxMemoryBytes;
+    }
+
+    public Path getDiskDirectory() {
+        return diskDirectory;
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private static class Entry {
+        final FetchedImage image;
+        final long weight;
+
+        Entry(FetchedImage image, long weight) {
+            this.image = image;
+            this.weight = weight;
+        }
+    }
+}
@@ -13,37 +13,25 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
-package org.ddr.poi.html.util;
-
-import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+package org.ddr.poi.html.image;
 
 /**
- * 行内样式封装类
+ * 图片超时或超出渲染时间预算后的降级方式
  *
  * @author Draco
- * @since 2021-03-18
+ * @since 2026-10-18
  */
-public final class InlineStyle {
+public enum ImageFallback {
     /**
-     * 样式声明
+     * 显示alt属性的文本
      */
-    private final CSSStyleDeclarationImpl declaration;
+    ALT_TEXT,
     /**
-     * 是否为区块元素
+     * 显示指向图片地址的超链接，链接文本为alt属性或图片地址
      */
-    private final boolean block;
-
-    public InlineStyle(CSSStyleDeclarationImpl declaration, boolean block) {
-        this.declaration = declaration;
-        this.block = block;
-    }
-
-    public CSSStyleDeclarationImpl getDeclaration() {
-        return this.declaration;
-    }
-
-    public boolean isBlock() {
-        return this.block;
-    }
+    LINK,
+    /**
+     * 忽略图片
+     */
+    SKIP
 }
@@ -0,0 +1,242 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.io.IOUtils;
+import org.ddr.poi.util.ByteArrayCopyStream;
+import org.ddr.poi.util.HttpURLConnectionUtils;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 获取图片的http客户端，线程安全，应在配置完成后共享使用。
+ * 所有连接共用同一个SSL上下文及会话缓存，完整读取响应后不断开连接，由JDK按主机复用
+ * （每个主机保持的空闲连接数由系统属性http.maxConnections控制）
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageHttpClient {
+    private static final ImageHttpClient DEFAULT = new ImageHttpClient();
+    private static final byte[] EMPTY = new byte[0];
+    private static final String GZIP = "gzip";
+    /**
+     * 默认连接超时时间（毫秒）
+     */
+    public static final int DEFAULT_CONNECT_TIMEOUT = 10_000;
+    /**
+     * 默认读取超时时间（毫秒）
+     */
+    public static final int DEFAULT_READ_TIMEOUT = 30_000;
+
+    private SSLSocketFactory sslSocketFactory = HttpURLConnectionUtils.trustAllSslSocketFactory();
+    private HostnameVerifier hostnameVerifier = HttpURLConnectionUtils.trustAllHostnameVerifier();
+    private String userAgent = HttpURLConnectionUtils.USER_AGENT;
+    private boolean gzipEnabled = true;
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    /**
+     * @return 默认客户端，信任所有https证书
+     */
+    public static ImageHttpClient getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 发送GET请求并读取完整的响应
+     *
+     * @param url 地址
+     * @param headers 请求头
+     * @return 响应
+     */
+    public Response get(String url, Map<String, String> headers) throws IOException {
+        HttpURLConnection connect = open(url);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            connect.setRequestProperty(header.getKey(), header.getValue());
+        }
+        boolean completed = false;
+        try {
+            int status = connect.getResponseCode();
+            InputStream stream = status >= HttpURLConnection.HTTP_BAD_REQUEST ? connect.getErrorStream() : connect.getInputStream();
+            byte[] body = stream == null ? EMPTY : read(connect, stream);
+            completed = true;
+            return new Response(connect, status, body);
+        } finally {
+            // 未读完的连接无法复用
+            if (!completed) {
+                connect.disconnect();
+            }
+        }
+    }
+
+    /**
+     * 发送GET请求并读取完整的响应
+     *
+     * @param url 地址
+     * @return 响应
+     */
+    public Response get(String url) throws IOException {
+        return get(url, Collections.emptyMap());
+    }
+
+    private HttpURLConnection open(String url) throws IOException {
+        HttpURLConnection connect = (HttpURLConnection) new URL(url).openConnection();
+        connect.setUseCaches(false);
+        connect.setConnectTimeout(connectTimeout);
+        connect.setReadTimeout(readTimeout);
+        if (connect instanceof HttpsURLConnection) {
+            HttpsURLConnection httpsConnect = (HttpsURLConnection) connect;
+            if (sslSocketFactory != null) {
+                httpsConnect.setSSLSocketFactory(sslSocketFactory);
+            }
+            if (hostnameVerifier != null) {
+                httpsConnect.setHostnameVerifier(hostnameVerifier);
+            }
+        }
+        if (userAgent != null) {
+            connect.setRequestProperty("User-Agent", userAgent);
+        }
+        if (gzipEnabled) {
+            connect.setRequestProperty("Accept-Encoding", GZIP);
+        }
+        return connect;
+    }
+
+    private static byte[] read(HttpURLConnection connect, InputStream stream) throws IOException {
+        // 关闭数据流而非断开连接，读完的连接会被放回JDK的连接池
+        try (InputStream in = GZIP.equalsIgnoreCase(connect.getContentEncoding()) ? new GZIPInputStream(stream) : stream) {
+            int length = connect.getContentLength();
+            ByteArrayCopyStream outputStream = new ByteArrayCopyStream(length > 0 ? length : 4096);
+            IOUtils.copy(in, outputStream);
+            return outputStream.toByteArray();
+        }
+    }
+
+    public SSLSocketFactory getSslSocketFactory() {
+        return sslSocketFactory;
+    }
+
+    /**
+     * @param sslSocketFactory SSLSocketFactory，应全局共享以复用会话，为null时使用JDK默认配置
+     */
+    public void setSslSocketFactory(SSLSocketFactory sslSocketFactory) {
+        this.sslSocketFactory = sslSocketFactory;
+    }
+
+    public HostnameVerifier getHostnameVerifier() {
+        return hostnameVerifier;
+    }
+
+    /**
+     * @param hostnameVerifier 主机名校验，为null时使用JDK默认配置
+     */
+    public void setHostnameVerifier(HostnameVerifier hostnameVerifier) {
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    public String getUserAgent() {
+        return userAgent;
+    }
+
+    public void setUserAgent(String userAgent) {
+        this.userAgent = userAgent;
+    }
+
+    public boolean isGzipEnabled() {
+        return gzipEnabled;
+    }
+
+    /**
+     * @param gzipEnabled 是否接受gzip压缩的响应，主要用于SVG等文本格式
+     */
+    public void setGzipEnabled(boolean gzipEnabled) {
+        this.gzipEnabled = gzipEnabled;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * @param connectTimeout 连接超时时间（毫秒），0表示不限制
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getReadTimeout() {
+        return readTimeout;
+    }
+
+    /**
+     * @param readTimeout 两次读取数据之间的超时时间（毫秒），0表示不限制
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * 已完整读取的响应
+     */
+    public static class Response {
+        private final HttpURLConnection connection;
+        private final int status;
+        private final byte[] body;
+
+        Response(HttpURLConnection connection, int status, byte[] body) {
+            this.connection = connection;
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return 响应体，已解压
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getHeader(String name) {
+            return connection.getHeaderField(name);
+        }
+
+        /**
+         * @param name 响应头名称
+         * @return 毫秒时间，未设置或无法解析时为0
+         */
+        public long getDateHeader(String name) {
+            return connection.getHeaderFieldDate(name, 0);
+        }
+
+        public String getContentType() {
+            return connection.getContentType();
+        }
+    }
+}
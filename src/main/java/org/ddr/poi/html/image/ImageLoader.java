@@ -0,0 +1,164 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.lang3.StringUtils;
+import org.ddr.poi.html.HtmlConstants;
+import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.util.CSSStyleUtils;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 图片预取器，线程安全，可在多次渲染间共享。
+ * 图片数据由{@link ImageResolver#resolveAsync}获取，同一资源的并发请求会被合并
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageLoader {
+    /**
+     * 默认下载线程数
+     */
+    public static final int DEFAULT_THREADS = 16;
+    private static final String DATA_PREFIX = "data:";
+
+    private final Executor executor;
+    private final ConcurrentHashMap<String, CompletableFuture<FetchedImage>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param executor 预取图片所用的线程池
+     */
+    public ImageLoader(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return 默认加载器，使用守护线程下载
+     */
+    public static ImageLoader getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * 预取文档中会被渲染的img标签引用的图片，Data URL以及位于隐藏或忽略的元素中的图片除外
+     *
+     * @param document HTML文档
+     * @param resolver 图片解析器
+     * @return 图片地址与加载任务的映射
+     */
+    public Map<String, CompletableFuture<FetchedImage>> prefetch(Document document, ImageResolver resolver) {
+        Map<String, CompletableFuture<FetchedImage>> images = new LinkedHashMap<>();
+        Element body = document.body();
+        Map<Element, Boolean> rendered = new IdentityHashMap<>();
+        for (Element img : body.getElementsByTag(HtmlConstants.TAG_IMG)) {
+            String src = ImageSources.src(img);
+            if (!src.isEmpty() && !StringUtils.startsWith(src, DATA_PREFIX) && !images.containsKey(src)
+                    && isRendered(img, body, rendered) && resolver.supports(src)) {
+                images.put(src, load(src, resolver));
+            }
+        }
+        return images;
+    }
+
+    /**
+     * 与{@link HtmlRenderContext#renderElement}相同，判断元素及其祖先元素是否被忽略或隐藏
+     *
+     * @param element HTML元素
+     * @param body 渲染的根元素
+     * @param rendered 已判断过的元素
+     * @return 元素是否会被渲染
+     */
+    private static boolean isRendered(Element element, Element body, Map<Element, Boolean> rendered) {
+        if (element == body) {
+            return true;
+        }
+        Boolean result = rendered.get(element);
+        if (result == null) {
+            Element parent = element.parent();
+            if (parent == null || HtmlRenderContext.isIgnored(element)) {
+                result = false;
+            } else if (element.hasAttr(HtmlConstants.ATTR_STYLE)
+                    && HtmlRenderContext.isHidden(CSSStyleUtils.parseAndSplit(element.attr(HtmlConstants.ATTR_STYLE)))) {
+                result = false;
+            } else {
+                result = isRendered(parent, body, rendered);
+            }
+            rendered.put(element, result);
+        }
+        return result;
+    }
+
+    /**
+     * 异步加载图片，同一资源正在加载时复用已有任务
+     *
+     * @param src 图片地址
+     * @param resolver 图片解析器
+     * @return 加载任务
+     */
+    public CompletableFuture<FetchedImage> load(String src, ImageResolver resolver) {
+        String key = resolver.key(src);
+        CompletableFuture<FetchedImage> future = inFlight.get(key);
+        if (future != null) {
+            return future;
+        }
+        CompletableFuture<FetchedImage> created = new CompletableFuture<>();
+        future = inFlight.putIfAbsent(key, created);
+        if (future != null) {
+            return future;
+        }
+        try {
+            resolver.resolveAsync(src, executor).whenComplete((image, e) -> {
+                inFlight.remove(key, created);
+                if (e == null) {
+                    created.complete(image);
+                } else {
+                    created.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    private static class DefaultHolder {
+        static final ImageLoader INSTANCE = new ImageLoader(newDefaultExecutor());
+
+        private static ExecutorService newDefaultExecutor() {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threadFactory = r -> {
+                Thread thread = new Thread(r, "html-image-loader-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(DEFAULT_THREADS, threadFactory);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html.image;
+
+import com.drew.imaging.ImageMetadataReader;
+import com.drew.imaging.ImageProcessingException;
+import com.drew.metadata.Metadata;
+import com.drew.metadata.exif.ExifIFD0Directory;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.ddr.poi.util.ByteArrayCopyStream;
+import org.ddr.poi.util.ImageIOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 图片重采样器，将远大于显示尺寸的JPEG、PNG图片缩小并重新压缩后再嵌入文档。
+ * 结果按图片内容及目标尺寸缓存，线程安全
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageResampler {
+    private static final Logger log = LoggerFactory.getLogger(ImageResampler.class);
+    /**
+     * 默认的目标分辨率
+     */
+    public static final int DEFAULT_DPI = 150;
+    /**
+     * 默认的JPEG压缩质量
+     */
+    public static final float DEFAULT_JPEG_QUALITY = 0.85f;
+    /**
+     * 默认的PNG压缩级别
+     */
+    public static final int DEFAULT_PNG_COMPRESSION_LEVEL = 9;
+    /**
+     * 默认的缩放阈值，原图宽度超过目标宽度的该倍数时才重采样
+     */
+    public static final float DEFAULT_THRESHOLD = 1.5f;
+    /**
+     * 默认的结果缓存大小
+     */
+    public static final long DEFAULT_MAX_CACHE_BYTES = 32L << 20;
+    private static final byte[] UNCHANGED = new byte[0];
+    private static final int ORIENTATION_NORMAL = 1;
+    private static final int EMU_PER_INCH = Units.EMU_PER_POINT * 72;
+
+    private final int dpi;
+    private volatile float jpegQuality = DEFAULT_JPEG_QUALITY;
+    private volatile int pngCompressionLevel = DEFAULT_PNG_COMPRESSION_LEVEL;
+    private volatile float threshold = DEFAULT_THRESHOLD;
+
+    private final long maxCacheBytes;
+    private final Map<String, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ImageResampler() {
+        this(DEFAULT_DPI);
+    }
+
+    /**
+     * @param dpi 目标分辨率，即按显示尺寸每英寸保留的像素数
+     */
+    public ImageResampler(int dpi) {
+        this(dpi, DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    /**
+     * @param dpi 目标分辨率，即按显示尺寸每英寸保留的像素数
+     * @param maxCacheBytes 结果缓存的最大字节数
+     */
+    public ImageResampler(int dpi, long maxCacheBytes) {
+        if (dpi <= 0) {
+            throw new IllegalArgumentException("DPI must be positive: " + dpi);
+        }
+        if (maxCacheBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxCacheBytes);
+        }
+        this.dpi = dpi;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * 按显示尺寸重采样图片
+     *
+     * @param data 图片数据
+     * @param pictureType 图片类型，仅处理JPEG及PNG
+     * @param widthInPixels 图片宽度（像素）
+     * @param heightInPixels 图片高度（像素）
+     * @param widthInEMU 显示宽度
+     * @param heightInEMU 显示高度
+     * @return 重采样后的图片数据，无需处理或结果并未变小时为null
+     */
+    public byte[] resample(byte[] data, int pictureType, int widthInPixels, int heightInPixels,
+                           int widthInEMU, int heightInEMU) {
+        String format = format(pictureType);
+        if (format == null || widthInPixels <= 0 || heightInPixels <= 0) {
+            return null;
+        }
+        int targetWidth = targetPixels(widthInEMU);
+        int targetHeight = targetPixels(heightInEMU);
+        float threshold = this.threshold;
+        if (widthInPixels <= targetWidth * threshold || heightInPixels <= targetHeight * threshold) {
+            return null;
+        }
+        // 保持原图宽高比
+        double scale = Math.max(1d * targetWidth / widthInPixels, 1d * targetHeight / heightInPixels);
+        targetWidth = Math.max((int) Math.round(widthInPixels * scale), 1);
+        targetHeight = Math.max((int) Math.round(heightInPixels * scale), 1);
+
+        boolean jpeg = pictureType == Document.PICTURE_TYPE_JPEG;
+        float quality = jpeg ? jpegQuality : 1f - pngCompressionLevel / 9f;
+        // 修改编码参数后不能使用之前的结果
+        String key = DigestUtils.sha256Hex(data) + '/' + targetWidth + 'x' + targetHeight
+                + '/' + quality + '/' + threshold;
+        byte[] result = get(key);
+        if (result == null) {
+            result = UNCHANGED;
+            try {
+                byte[] resampled = resample(data, format, jpeg, quality, widthInPixels, targetWidth, targetHeight);
+                if (resampled != null && resampled.length < data.length) {
+                    result = resampled;
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to resample image", e);
+            }
+            put(key, result);
+        }
+        return result == UNCHANGED ? null : result;
+    }
+
+    private byte[] resample(byte[] data, String format, boolean jpeg, float quality, int widthInPixels,
+                            int targetWidth, int targetHeight) throws IOException {
+        if (jpeg && isRotated(data)) {
+            // 重新编码会丢失EXIF方向信息
+            return null;
+        }
+        // 先按整数间隔采样以减少解码大图的内存占用，保留至少两倍的目标尺寸用于平滑缩放
+        int subsampling = Math.max(widthInPixels / (targetWidth * 2), 1);
+        BufferedImage image = ImageIOUtils.read(data, format, subsampling);
+        if (image == null) {
+            return null;
+        }
+        int imageType = !jpeg && image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage scaled = scale(image, imageType, targetWidth, targetHeight);
+
+        ByteArrayCopyStream outputStream = new ByteArrayCopyStream(data.length / 4);
+        if (!ImageIOUtils.write(scaled, format, outputStream, quality)) {
+            return null;
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * 逐次减半缩放，避免一次缩放过多时双线性插值丢失细节
+     */
+    private static BufferedImage scale(BufferedImage image, int imageType, int targetWidth, int targetHeight) {
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        do {
+            width = Math.max(width / 2, targetWidth);
+            height = Math.max(height / 2, targetHeight);
+            BufferedImage next = new BufferedImage(width, height, imageType);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (imageType == BufferedImage.TYPE_INT_RGB) {
+                    // JPEG没有透明通道，以白色作为背景
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, width, height);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static boolean isRotated(byte[] data) {
+        try {
+            Metadata metadata = ImageMetadataReader.readMetadata(new ByteArrayInputStream(data), data.length);
+            ExifIFD0Directory directory = metadata.getFirstDirectoryOfType(ExifIFD0Directory.class);
+            if (directory != null) {
+                Integer orientation = directory.getInteger(ExifIFD0Directory.TAG_ORIENTATION);
+                return orientation != null && orientation != ORIENTATION_NORMAL;
+            }
+            return false;
+        } catch (ImageProcessingException | IOException e) {
+            return true;
+        }
+    }
+
+    private int targetPixels(int emu) {
+        return Math.max((int) Math.ceil(1d * emu * dpi / EMU_PER_INCH), 1);
+    }
+
+    private static String format(int pictureType) {
+        if (pictureType == Document.PICTURE_TYPE_JPEG) {
+            return "jpeg";
+        }
+        if (pictureType == Document.PICTURE_TYPE_PNG) {
+            return "png";
+        }
+        return null;
+    }
+
+    private byte[] get(String key) {
+        byte[] result;
+        synchronized (cache) {
+            result = cache.get(key);
+        }
+        if (result == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return result;
+    }
+
+    private void put(String key, byte[] result) {
+        long weight = key.length() * 2L + result.length;
+        if (weight > maxCacheBytes) {
+            return;
+        }
+        synchronized (cache) {
+            byte[] previous = cache.put(key, result);
+            if (previous != null) {
+                cacheBytes -= key.length() * 2L + previous.length;
+            }
+            cacheBytes += weight;
+            Iterator<Map.Entry<String, byte[]>> iterator = cache.entrySet().iterator();
+            while (cacheBytes > maxCacheBytes && iterator.hasNext()) {
+                Map.Entry<String, byte[]> eldest = iterator.next();
+                cacheBytes -= eldest.getKey().length() * 2L + eldest.getValue().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    public int getDpi() {
+        return dpi;
+    }
+
+    public float getJpegQuality() {
+        return jpegQuality;
+    }
+
+    /**
+     * @param jpegQuality JPEG压缩质量，取值0~1
+     */
+    public void setJpegQuality(float jpegQuality) {
+        if (jpegQuality < 0 || jpegQuality > 1) {
+            throw new IllegalArgumentException("JPEG quality must be between 0 and 1: " + jpegQuality);
+        }
+        this.jpegQuality = jpegQuality;
+    }
+
+    public int getPngCompressionLevel() {
+        return pngCompressionLevel;
+    }
+
+    /**
+     * 设置PNG压缩级别，Java 8自带的PNG编码器不支持调整，始终使用默认级别
+     *
+     * @param pngCompressionLevel PNG压缩级别，取值0~9
+     */
+    public void setPngCompressionLevel(int pngCompressionLevel) {
+        if (pngCompressionLevel < 0 || pngCompressionLevel > 9) {
+            throw new IllegalArgumentException("PNG compression level must be between 0 and 9: " + pngCompressionLevel);
+        }
+        this.pngCompressionLevel = pngCompressionLevel;
+    }
+
+    public float getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * @param threshold 缩放阈值，原图宽高均超过目标尺寸的该倍数时才重采样，不小于1
+     */
+    public void setThreshold(float threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must not be less than 1: " + threshold);
+        }
+        this.threshold = threshold;
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            cacheBytes = 0;
+        }
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 图片解析器，根据img标签的地址获取图片数据，实现类需线程安全
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public interface ImageResolver {
+    /**
+     * @return 优先级，数值越小越先尝试
+     */
+    default int getPriority() {
+        return 0;
+    }
+
+    /**
+     * 是否由当前解析器处理该地址
+     *
+     * @param src 图片地址
+     * @return 是否支持
+     */
+    boolean supports(String src);
+
+    /**
+     * 图片资源的唯一标识，用于合并并发请求，不同来源的资源不能重复
+     *
+     * @param src 图片地址
+     * @return 唯一标识
+     */
+    default String key(String src) {
+        return src;
+    }
+
+    /**
+     * 获取图片数据
+     *
+     * @param src 图片地址
+     * @return 图片数据
+     */
+    FetchedImage resolve(String src) throws IOException;
+
+    /**
+     * 在线程池中异步获取图片，需要限制并发的实现应排队等待而不是阻塞线程池中的线程
+     *
+     * @param src 图片地址
+     * @param executor 执行获取任务的线程池
+     * @return 获取任务
+     * @throws java.util.concurrent.RejectedExecutionException 线程池拒绝执行
+     */
+    default CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+        CompletableFuture<FetchedImage> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(resolve(src));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 按优先级串联的图片解析器，由第一个支持该地址的解析器处理
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageResolverChain implements ImageResolver {
+    private final List<ImageResolver> resolvers;
+
+    public ImageResolverChain(Collection<? extends ImageResolver> resolvers) {
+        List<ImageResolver> sorted = new ArrayList<>(resolvers);
+        // 稳定排序，相同优先级保持添加顺序
+        sorted.sort(Comparator.comparingInt(ImageResolver::getPriority));
+        this.resolvers = Collections.unmodifiableList(sorted);
+    }
+
+    public List<ImageResolver> getResolvers() {
+        return resolvers;
+    }
+
+    /**
+     * 查找支持该地址的解析器
+     *
+     * @param src 图片地址
+     * @return 解析器，不支持时为null
+     */
+    public ImageResolver find(String src) {
+        for (ImageResolver resolver : resolvers) {
+            if (resolver.supports(src)) {
+                return resolver;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean supports(String src) {
+        return find(src) != null;
+    }
+
+    @Override
+    public String key(String src) {
+        ImageResolver resolver = find(src);
+        return resolver == null ? src : resolver.key(src);
+    }
+
+    @Override
+    public FetchedImage resolve(String src) throws IOException {
+        ImageResolver resolver = find(src);
+        if (resolver == null) {
+            throw new IOException("No image resolver supports " + src);
+        }
+        return resolver.resolve(src);
+    }
+
+    @Override
+    public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+        ImageResolver resolver = find(src);
+        if (resolver == null) {
+            CompletableFuture<FetchedImage> future = new CompletableFuture<>();
+            future.completeExceptionally(new IOException("No image resolver supports " + src));
+            return future;
+        }
+        return resolver.resolveAsync(src, executor);
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.ddr.poi.html.HtmlConstants;
+import org.jsoup.nodes.Element;
+
+import java.net.URLConnection;
+
+/**
+ * img标签图片地址解析
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageSources {
+    private static final String HTTP = "http";
+    private static final String DOUBLE_SLASH = "//";
+    private static final String SVG_CONTENT_TYPE = "image/svg+xml";
+
+    /**
+     * 获取图片地址，src为空时取srcset中尺寸最大的候选地址
+     *
+     * @param img img元素
+     * @return 图片地址，可能为空字符串
+     */
+    public static String src(Element img) {
+        String src = img.attr(HtmlConstants.ATTR_SRC).trim();
+        if (src.isEmpty()) {
+            String candidate = largestCandidate(img.attr(HtmlConstants.ATTR_SRCSET));
+            if (candidate != null) {
+                return candidate;
+            }
+        }
+        return src;
+    }
+
+    /**
+     * 转换为远程图片地址
+     *
+     * @param src 图片地址
+     * @return http(s)地址，非远程图片时为null
+     */
+    public static String remoteUrl(String src) {
+        if (StringUtils.startsWithIgnoreCase(src, HTTP)) {
+            return src;
+        }
+        if (StringUtils.startsWith(src, DOUBLE_SLASH)) {
+            // 某些图片链接为了跟随网站协议而隐去了协议名称
+            return HTTP + HtmlConstants.COLON + src;
+        }
+        return null;
+    }
+
+    /**
+     * 获取地址的协议名称，单个字母视为Windows盘符
+     *
+     * @param src 图片地址
+     * @return 小写的协议名称，相对地址或本地路径为null
+     */
+    static String scheme(String src) {
+        for (int i = 0, l = src.length(); i < l; i++) {
+            char c = src.charAt(i);
+            if (c == ':') {
+                return i > 1 ? src.substring(0, i).toLowerCase() : null;
+            }
+            boolean valid = c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z'
+                    || i > 0 && (c >= '0' && c <= '9' || c == '+' || c == '-' || c == '.');
+            if (!valid) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 去除地址中的查询参数及片段标识
+     *
+     * @param src 图片地址
+     * @return 路径部分
+     */
+    static String path(String src) {
+        int end = StringUtils.indexOfAny(src, '?', '#');
+        return end < 0 ? src : src.substring(0, end);
+    }
+
+    /**
+     * 根据文件名推断Content-Type
+     *
+     * @param name 文件名
+     * @return Content-Type，无法推断时为null
+     */
+    static String contentType(String name) {
+        if (StringUtils.endsWithIgnoreCase(name, ".svg")) {
+            return SVG_CONTENT_TYPE;
+        }
+        return URLConnection.guessContentTypeFromName(name);
+    }
+
+    /**
+     * 选取srcset中尺寸最大的候选地址，有宽度描述符时按宽度比较，否则按像素密度比较
+     *
+     * @param srcset srcset属性值
+     * @return 候选地址，没有候选时为null
+     */
+    static String largestCandidate(String srcset) {
+        String best = null;
+        double bestWidth = -1;
+        double bestDensity = -1;
+        int length = srcset.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && (Character.isWhitespace(srcset.charAt(i)) || srcset.charAt(i) == ',')) {
+                i++;
+            }
+            int urlStart = i;
+            while (i < length && !Character.isWhitespace(srcset.charAt(i))) {
+                i++;
+            }
+            int urlEnd = i;
+            boolean hasDescriptor = true;
+            // 地址后紧跟逗号时没有描述符
+            if (urlEnd > urlStart && srcset.charAt(urlEnd - 1) == ',') {
+                while (urlEnd > urlStart && srcset.charAt(urlEnd - 1) == ',') {
+                    urlEnd--;
+                }
+                hasDescriptor = false;
+            }
+            if (urlEnd <= urlStart) {
+                continue;
+            }
+            String url = srcset.substring(urlStart, urlEnd);
+            String descriptor = "";
+            if (hasDescriptor) {
+                int descriptorStart = i;
+                while (i < length && srcset.charAt(i) != ',') {
+                    i++;
+                }
+                descriptor = srcset.substring(descriptorStart, i).trim();
+            }
+
+            double width = -1;
+            double density = 1;
+            if (descriptor.length() > 1) {
+                char unit = Character.toLowerCase(descriptor.charAt(descriptor.length() - 1));
+                String value = descriptor.substring(0, descriptor.length() - 1);
+                if (NumberUtils.isParsable(value)) {
+                    if (unit == 'w') {
+                        width = Double.parseDouble(value);
+                    } else if (unit == 'x') {
+                        density = Double.parseDouble(value);
+                    }
+                }
+            }
+            if (width > bestWidth || width == bestWidth && density > bestDensity) {
+                best = url;
+                bestWidth = width;
+                bestDensity = density;
+            }
+        }
+        return best;
+    }
+}
@@ -19,7 +19,7 @@ package org.ddr.poi.html.tag;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
-import org.ddr.poi.html.util.CSSStyleUtils;
+import org.ddr.poi.html.util.StyleFrames;
 import org.jsoup.nodes.Element;
 
 /**
@@ -41,7 +41,7 @@ public class BigRenderer implements ElementRenderer {
      */
     @Override
     public boolean renderStart(Element element, HtmlRenderContext context) {
-        context.pushInlineStyle(CSSStyleUtils.parse(HtmlConstants.DEFINED_LARGER), element.isBlock());
+        context.pushInlineStyle(StyleFrames.LARGER, element.isBlock());
         return true;
     }
 
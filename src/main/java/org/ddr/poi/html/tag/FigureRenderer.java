@@ -6,6 +6,7 @@ import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.util.CSSFloat;
 import org.ddr.poi.html.util.JsoupUtils;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
@@ -39,11 +40,11 @@ public class FigureRenderer implements ElementRenderer {
         context.markDedupe(paragraph);
 
         CSSStyleDeclarationImpl styleDeclaration = context.currentElementStyle();
-        String cssFloat = styleDeclaration.getPropertyValue(HtmlConstants.CSS_FLOAT);
-        if (HtmlConstants.LEFT.equals(cssFloat)) {
+        CSSFloat cssFloat = CSSFloat.of(styleDeclaration.getPropertyValue(HtmlConstants.CSS_FLOAT));
+        if (cssFloat == CSSFloat.LEFT) {
             paragraph.setAlignment(ParagraphAlignment.LEFT);
             styleDeclaration.setTextAlign(HtmlConstants.LEFT);
-        } else if (HtmlConstants.RIGHT.equals(cssFloat)) {
+        } else if (cssFloat == CSSFloat.RIGHT) {
             paragraph.setAlignment(ParagraphAlignment.RIGHT);
             styleDeclaration.setTextAlign(HtmlConstants.RIGHT);
         } else {
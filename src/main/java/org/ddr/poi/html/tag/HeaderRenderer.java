@@ -19,8 +19,8 @@ package org.ddr.poi.html.tag;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
-import org.ddr.poi.html.util.CSSStyleUtils;
 import org.ddr.poi.html.util.RenderUtils;
+import org.ddr.poi.html.util.StyleFrames;
 import org.jsoup.nodes.Element;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
@@ -39,11 +39,6 @@ public class HeaderRenderer implements ElementRenderer {
             HtmlConstants.TAG_H4, HtmlConstants.TAG_H5, HtmlConstants.TAG_H6
     };
 
-    /**
-     * 各级别标题对应字号
-     */
-    private static final String[] FONT_SIZES = {"24pt", "18pt", "14pt", "12pt", "10pt", "7.5pt"};
-
     /**
      * 开始渲染
      *
@@ -54,8 +49,7 @@ public class HeaderRenderer implements ElementRenderer {
     @Override
     public boolean renderStart(Element element, HtmlRenderContext context) {
         int index = Integer.parseInt(element.normalName().substring(1)) - 1;
-        String fontSizeStyle = HtmlConstants.inlineStyle(HtmlConstants.CSS_FONT_SIZE, FONT_SIZES[index]);
-        context.pushInlineStyle(CSSStyleUtils.parse(HtmlConstants.DEFINED_BOLD + fontSizeStyle), element.isBlock());
+        context.pushInlineStyle(StyleFrames.heading(index + 1), element.isBlock());
 
         CTP ctp = context.getClosestParagraph().getCTP();
         CTDecimalNumber ctDecimalNumber = CTDecimalNumber.Factory.newInstance();
@@ -27,6 +27,8 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.util.Units;
 import org.apache.poi.xwpf.usermodel.SVGPictureData;
+import org.ddr.image.HeaderReader;
+import org.ddr.image.HeaderReaders;
 import org.ddr.image.ImageInfo;
 import org.ddr.image.ImageType;
 import org.ddr.image.MetadataReader;
@@ -34,27 +36,34 @@ import org.ddr.image.MetadataReaders;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.RenderMetrics;
+import org.ddr.poi.html.RenderPhase;
+import org.ddr.poi.html.image.FetchedImage;
+import org.ddr.poi.html.image.ImageAnalysis;
+import org.ddr.poi.html.image.ImageResampler;
+import org.ddr.poi.html.image.ImageResolver;
+import org.ddr.poi.html.image.ImageSources;
 import org.ddr.poi.html.util.CSSLength;
 import org.ddr.poi.math.MathMLUtils;
 import org.ddr.poi.util.ByteArrayCopyStream;
-import org.ddr.poi.util.HttpURLConnectionUtils;
+import org.ddr.poi.util.ImageIOUtils;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
-import javax.imageio.ImageReader;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
-import java.net.HttpURLConnection;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * img标签渲染器
@@ -66,8 +75,6 @@ public class ImageRenderer implements ElementRenderer {
     private static final Logger log = LoggerFactory.getLogger(ImageRenderer.class);
 
     private static final String[] TAGS = {HtmlConstants.TAG_IMG};
-    private static final String HTTP = "http";
-    private static final String DOUBLE_SLASH = "//";
     private static final String DATA_PREFIX = "data:";
     private static final String COMMENT_MATH_PREFIX = "<!--MathML: <math ";
     private static final String COMMENT_MATH_SUFFIX = "</math>-->";
@@ -84,14 +91,11 @@ public class ImageRenderer implements ElementRenderer {
      */
     @Override
     public boolean renderStart(Element element, HtmlRenderContext context) {
-        String src = element.attr(HtmlConstants.ATTR_SRC);
-        if (StringUtils.startsWithIgnoreCase(src, HTTP)) {
-            handleRemoteImage(element, context, src);
-        } else if (StringUtils.startsWith(src, DOUBLE_SLASH)) {
-            // 某些图片链接为了跟随网站协议而隐去了协议名称
-            handleRemoteImage(element, context, HTTP + HtmlConstants.COLON + src);
-        } else if (StringUtils.startsWith(src, DATA_PREFIX)) {
+        String src = ImageSources.src(element);
+        if (StringUtils.startsWith(src, DATA_PREFIX)) {
             handleData(element, context, src);
+        } else if (!src.isEmpty()) {
+            handleResolvedImage(element, context, src);
         }
         return false;
     }
@@ -139,7 +143,12 @@ public class ImageRenderer implements ElementRenderer {
                 try {
                     int endOfMath = data.indexOf(COMMENT_MATH_SUFFIX, startOfMath + COMMENT_MATH_PREFIX.length());
                     String math = data.substring(startOfMath + 12, endOfMath + 7);
+                    RenderMetrics metrics = context.getRenderMetrics();
+                    long start = metrics == null ? 0 : System.nanoTime();
                     MathMLUtils.renderTo(context.getClosestParagraph(), context.newRun(), math, context.getMathRenderConfig());
+                    if (metrics != null) {
+                        metrics.record(RenderPhase.MATH_CONVERT, HtmlConstants.TAG_IMG, start);
+                    }
                     return;
                 } catch (Exception e) {
                     log.warn("Failed to render math in wiris svg, will try to render as svg image: {}", data, e);
@@ -150,7 +159,7 @@ public class ImageRenderer implements ElementRenderer {
         }
         boolean svg = HtmlConstants.TAG_SVG.equals(format);
         try (ByteArrayInputStream inputStream = new ByteArrayInputStream(bytes)) {
-            ImageInfo info = analyzeImage(inputStream, svg);
+            ImageInfo info = analyzeImage(context, inputStream, bytes, svg);
             if (info == null) {
                 log.warn("Illegal image url: {}", src);
                 return;
@@ -172,42 +181,144 @@ public class ImageRenderer implements ElementRenderer {
     }
 
     /**
-     * 处理远程图片
+     * 处理由图片解析器获取的图片
      *
      * @param element HTML元素
      * @param context 渲染上下文
      * @param src 图片链接地址
      */
-    private void handleRemoteImage(Element element, HtmlRenderContext context, String src) {
-        HttpURLConnection connect = null;
+    private void handleResolvedImage(Element element, HtmlRenderContext context, String src) {
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
         try {
-            connect = HttpURLConnectionUtils.connect(src);
-            HttpURLConnectionUtils.initUserAgent(connect);
-            int firstSlashPosition = src.indexOf('/', src.indexOf("://") + 3);
-            connect.setRequestProperty("Referrer", src.substring(0, firstSlashPosition));
-
-            InputStream urlStream = connect.getInputStream();
-            boolean svg = StringUtils.contains(connect.getHeaderField("content-type"), HtmlConstants.TAG_SVG);
-            ByteArrayCopyStream outputStream = new ByteArrayCopyStream(urlStream.available());
-            IOUtils.copy(urlStream, outputStream);
-            final byte[] svgData = svg ? outputStream.toByteArray() : null;
-
-            ByteArrayInputStream inputStream = outputStream.toInput();
-            ImageInfo info = analyzeImage(inputStream, svg);
-            if (info == null) {
-                log.warn("Illegal image url: {}", src);
+            FetchedImage image = fetch(context, src);
+            if (image == null) {
                 return;
             }
-
-            addPicture(element, context, info.getStream(), info.getRawType(), info.getWidth(), info.getHeight(), svgData);
+            if (metrics != null) {
+                metrics.record(RenderPhase.IMAGE_FETCH, src, start);
+            }
+            boolean svg = image.isSvg();
+            byte[] data = image.getData();
+            // 缓存的图片只需分析一次
+            ImageAnalysis analysis = image.getAnalysis();
+            if (analysis == null) {
+                ImageInfo info = analyzeImage(context, new ByteArrayInputStream(data), data, svg);
+                if (info == null) {
+                    log.warn("Illegal image url: {}", src);
+                    return;
+                }
+                analysis = new ImageAnalysis(info.getType(), info.getWidth(), info.getHeight(),
+                        svg ? IOUtils.toByteArray(info.getStream()) : data);
+                image.setAnalysis(analysis);
+            }
+            ImageInfo info = analysis.toImageInfo();
+
+            addPicture(element, context, info.getStream(), info.getRawType(), info.getWidth(), info.getHeight(),
+                    svg ? data : null);
+        } catch (TimeoutException e) {
+            renderFallback(element, context, src);
+            if (metrics != null) {
+                if (context.isImageBudgetExhausted()) {
+                    metrics.incrementImageBudgetExceeded();
+                } else {
+                    metrics.incrementImageTimeouts();
+                }
+                metrics.record(RenderPhase.IMAGE_FALLBACK, src, start);
+            }
         } catch (IOException | InvalidFormatException e) {
             log.warn("Failed to load image: {}", src, e);
+        }
+    }
+
+    /**
+     * 图片超时或超出时间预算时按配置降级
+     *
+     * @param element HTML元素
+     * @param context 渲染上下文
+     * @param src 图片链接地址
+     */
+    private void renderFallback(Element element, HtmlRenderContext context, String src) {
+        log.warn("Image timed out, fallback to {}: {}", context.getImageFallback(), src);
+        String alt = element.attr(HtmlConstants.ATTR_ALT).trim();
+        switch (context.getImageFallback()) {
+            case ALT_TEXT:
+                if (!alt.isEmpty()) {
+                    context.renderText(alt);
+                }
+                break;
+            case LINK:
+                String url = ImageSources.remoteUrl(src);
+                String text = alt.isEmpty() ? src : alt;
+                // 已位于超链接中时不能嵌套
+                if (url == null || element.closest(HtmlConstants.TAG_A) != null) {
+                    context.renderText(text);
+                } else {
+                    context.startHyperlink(url);
+                    context.renderText(text);
+                    context.endHyperlink();
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * 获取图片，优先使用预取的结果
+     *
+     * @param context 渲染上下文
+     * @param src 图片链接地址
+     * @return 图片数据，没有支持该地址的解析器或等待时被中断则为null
+     * @throws TimeoutException 超过单个图片的等待时间或本次渲染的时间预算
+     */
+    private FetchedImage fetch(HtmlRenderContext context, String src) throws IOException, TimeoutException {
+        CompletableFuture<FetchedImage> future = context.getPrefetchedImage(src);
+        if (future == null) {
+            ImageResolver resolver = context.getImageResolver();
+            if (!resolver.supports(src)) {
+                log.warn("No image resolver supports: {}", src);
+                return null;
+            }
+            if (!context.isImageTimeLimited()) {
+                return resolver.resolve(src);
+            }
+            // 异步加载才能限制等待时间
+            future = context.getImageLoader().load(src, resolver);
+        }
+        long waitNanos = context.getImageWaitNanos();
+        long start = System.nanoTime();
+        try {
+            return waitNanos == Long.MAX_VALUE ? future.get() : future.get(waitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for image: {}", src);
+            return null;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        } finally {
+            context.consumeImageBudget(System.nanoTime() - start);
+        }
+    }
+
+    private ImageInfo analyzeImage(HtmlRenderContext context, ByteArrayInputStream inputStream, byte[] data, boolean svg)
+            throws IOException, InvalidFormatException {
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        try {
+            return analyzeImage(inputStream, data, svg);
         } finally {
-            IOUtils.close(connect);
+            if (metrics != null) {
+                metrics.record(RenderPhase.IMAGE_DECODE, null, start);
+            }
         }
     }
 
-    private ImageInfo analyzeImage(ByteArrayInputStream inputStream, boolean svg) throws IOException, InvalidFormatException {
+    private ImageInfo analyzeImage(ByteArrayInputStream inputStream, byte[] data, boolean svg) throws IOException, InvalidFormatException {
         final long length = inputStream.available();
         // actual image data stream
         ByteArrayInputStream stream = inputStream;
@@ -215,46 +326,50 @@ public class ImageRenderer implements ElementRenderer {
         Dimension dimension = null;
 
         if (svg) {
-            BufferedImage image = ImageIO.read(inputStream);
-            inputStream.reset();
+            BufferedImage image = ImageIOUtils.read(data, HtmlConstants.TAG_SVG);
 
             type = typeOf(image);
             ByteArrayCopyStream imageStream = new ByteArrayCopyStream(image.getData().getDataBuffer().getSize());
-            ImageIO.write(image, type.getExtension(), imageStream);
+            ImageIOUtils.write(image, type.getExtension(), imageStream);
             stream = imageStream.toInput();
 
             dimension = new Dimension(image.getWidth(), image.getHeight());
         } else {
             FileType fileType = FileTypeDetector.detectFileType(inputStream);
-            for (MetadataReader metadataReader : MetadataReaders.INSTANCES) {
-                if (metadataReader.canRead(fileType)) {
-                    try {
-                        // FIXME metadata-extractor 一直未发版支持 AVIF 格式，会被归为 QuickTime 格式
-                        if (fileType == FileType.QuickTime) {
-                            fileType = FileType.Heif;
-                        }
-                        Metadata metadata = ImageMetadataReader.readMetadata(inputStream, length, fileType);
-                        type = metadataReader.getType(metadata);
-                        dimension = metadataReader.getDimension(metadata);
-                        break;
-                    } catch (ImageProcessingException ignored) {
+            // 优先只解析文件头，避免读取完整的EXIF等元数据
+            for (HeaderReader headerReader : HeaderReaders.INSTANCES) {
+                if (headerReader.canRead(fileType)) {
+                    ImageInfo info = headerReader.read(data);
+                    if (info != null) {
+                        type = info.getType();
+                        dimension = info.getDimension();
                     }
+                    break;
                 }
             }
-            inputStream.reset();
             if (dimension == null) {
-                Iterator<ImageReader> imageReaders = ImageIO.getImageReaders(inputStream);
-                while (imageReaders.hasNext()) {
-                    ImageReader reader = imageReaders.next();
-                    try {
-                        dimension = new Dimension(reader.getWidth(0), reader.getHeight(0));
-                        break;
-                    } catch (IOException ignored) {
+                for (MetadataReader metadataReader : MetadataReaders.INSTANCES) {
+                    if (metadataReader.canRead(fileType)) {
+                        try {
+                            // FIXME metadata-extractor 一直未发版支持 AVIF 格式，会被归为 QuickTime 格式
+                            if (fileType == FileType.QuickTime) {
+                                fileType = FileType.Heif;
+                            }
+                            Metadata metadata = ImageMetadataReader.readMetadata(inputStream, length, fileType);
+                            type = metadataReader.getType(metadata);
+                            dimension = metadataReader.getDimension(metadata);
+                            break;
+                        } catch (ImageProcessingException ignored) {
+                        }
                     }
                 }
+            }
+            inputStream.reset();
+            if (dimension == null) {
+                String format = fileType.getCommonExtension();
+                dimension = ImageIOUtils.readDimension(data, format);
                 if (dimension == null) {
-                    BufferedImage image = ImageIO.read(inputStream);
-                    inputStream.reset();
+                    BufferedImage image = ImageIOUtils.read(data, format);
 
                     if (image == null) {
                         return null;
@@ -384,8 +499,27 @@ public class ImageRenderer implements ElementRenderer {
             calculatedHeight = (int) (declaredHeight * scale);
         }
 
+        ImageResampler resampler = context.getImageResampler();
+        if (resampler != null) {
+            inputStream = resample(context, resampler, inputStream, type, widthInPixels, heightInPixels,
+                    calculatedWidth, calculatedHeight);
+        }
+
         context.renderPicture(inputStream, type, HtmlConstants.TAG_IMG,
             calculatedWidth, calculatedHeight, svgData);
     }
 
+    private InputStream resample(HtmlRenderContext context, ImageResampler resampler, InputStream inputStream,
+                                 int type, int widthInPixels, int heightInPixels, int widthInEMU, int heightInEMU)
+            throws IOException {
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        byte[] data = IOUtils.toByteArray(inputStream);
+        byte[] resampled = resampler.resample(data, type, widthInPixels, heightInPixels, widthInEMU, heightInEMU);
+        if (metrics != null) {
+            metrics.record(RenderPhase.IMAGE_RESAMPLE, null, start);
+        }
+        return new ByteArrayInputStream(resampled == null ? data : resampled);
+    }
+
 }
@@ -20,9 +20,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.RenderMetrics;
+import org.ddr.poi.html.RenderPhase;
 import org.ddr.poi.latex.LaTeXUtils;
 import org.jsoup.nodes.Element;
-import uk.ac.ed.ph.snuggletex.SnuggleSession;
 
 /**
  * latex标签渲染器（自定义）
@@ -47,9 +48,12 @@ public class LaTeXRenderer implements ElementRenderer {
             return false;
         }
 
-        SnuggleSession session = LaTeXUtils.createSession();
-        LaTeXUtils.parse(session, latex);
-        LaTeXUtils.renderTo(context.getClosestParagraph(), null, session, context.getMathRenderConfig());
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        LaTeXUtils.renderTo(context.getClosestParagraph(), null, latex, context.getMathRenderConfig());
+        if (metrics != null) {
+            metrics.record(RenderPhase.LATEX_CONVERT, HtmlConstants.TAG_LATEX, start);
+        }
 
         return false;
     }
@@ -19,9 +19,10 @@ package org.ddr.poi.html.tag;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.RenderMetrics;
+import org.ddr.poi.html.RenderPhase;
+import org.ddr.poi.html.util.JsoupUtils;
 import org.ddr.poi.math.MathMLUtils;
-import org.jsoup.nodes.Document.OutputSettings;
-import org.jsoup.nodes.Document.OutputSettings.Syntax;
 import org.jsoup.nodes.Element;
 
 /**
@@ -42,12 +43,15 @@ public class MathRenderer implements ElementRenderer {
      */
     @Override
     public boolean renderStart(Element element, HtmlRenderContext context) {
-        OutputSettings outputSettings = element.ownerDocument().outputSettings();
-        outputSettings.syntax(Syntax.xml);
-        String math = element.outerHtml();
-        outputSettings.syntax(Syntax.html);
-        math = MathMLUtils.normalize(math);
-        MathMLUtils.renderTo(context.getClosestParagraph(), context.newRun(), math, context.getMathRenderConfig());
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        // 直接转换为DOM，避免序列化后再次解析
+        org.w3c.dom.Document math = JsoupUtils.toMathML(element);
+        MathMLUtils.renderTo(context.getClosestParagraph(), context.newRun(), math.getDocumentElement(),
+                context.getMathRenderConfig());
+        if (metrics != null) {
+            metrics.record(RenderPhase.MATH_CONVERT, HtmlConstants.TAG_MATH, start);
+        }
 
         return false;
     }
@@ -3,7 +3,7 @@ package org.ddr.poi.html.tag;
 import org.ddr.poi.html.ElementRenderer;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
-import org.ddr.poi.html.util.CSSStyleUtils;
+import org.ddr.poi.html.util.StyleFrames;
 import org.jsoup.nodes.Element;
 
 /**
@@ -17,7 +17,7 @@ public class PreRenderer implements ElementRenderer {
 
     @Override
     public boolean renderStart(Element element, HtmlRenderContext context) {
-        context.pushInlineStyle(CSSStyleUtils.parse(HtmlConstants.DEFINED_PRE), element.isBlock());
+        context.pushInlineStyle(StyleFrames.PRE, element.isBlock());
         return true;
     }
 
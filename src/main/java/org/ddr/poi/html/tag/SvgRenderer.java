@@ -4,14 +4,15 @@ import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.ddr.image.ImageType;
 import org.ddr.poi.html.HtmlConstants;
 import org.ddr.poi.html.HtmlRenderContext;
+import org.ddr.poi.html.RenderMetrics;
+import org.ddr.poi.html.RenderPhase;
 import org.ddr.poi.util.ByteArrayCopyStream;
+import org.ddr.poi.util.ImageIOUtils;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -46,16 +47,21 @@ public class SvgRenderer extends ImageRenderer {
         String svg = element.outerHtml().replace(" />", "/>");
         byte[] bytes = svg.getBytes(StandardCharsets.UTF_8);
         BufferedImage image;
-        try (InputStream svgStream = new ByteArrayInputStream(bytes)) {
-            image = ImageIO.read(svgStream);
+        RenderMetrics metrics = context.getRenderMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
+        try {
+            image = ImageIOUtils.read(bytes, HtmlConstants.TAG_SVG);
 
             ImageType type = typeOf(image);
 
             int size = image.getData().getDataBuffer().getSize();
             ByteArrayCopyStream outputStream = new ByteArrayCopyStream(size);
-            ImageIO.write(image, type.getExtension(), outputStream);
+            ImageIOUtils.write(image, type.getExtension(), outputStream);
 
             InputStream imageStream = outputStream.toInput();
+            if (metrics != null) {
+                metrics.record(RenderPhase.IMAGE_DECODE, HtmlConstants.TAG_SVG, start);
+            }
             addPicture(element, context, imageStream, type.getType(), image.getWidth(), image.getHeight(), bytes);
         } catch (IOException | InvalidFormatException e) {
             log.warn("Failed to render svg as image: {}", svg, e);
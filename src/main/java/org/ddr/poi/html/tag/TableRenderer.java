@@ -213,14 +213,13 @@ public class TableRenderer implements ElementRenderer {
                     }
                 }
 
-                CSSStyleDeclarationImpl tdStyleDeclaration = CSSStyleUtils.parse(td.attr(HtmlConstants.ATTR_STYLE));
+                CSSStyleDeclarationImpl tdStyleDeclaration = CSSStyleUtils.parseAndSplit(td.attr(HtmlConstants.ATTR_STYLE));
                 CSSLength tdWidth = CSSLength.of(tdStyleDeclaration.getWidth());
 
                 // 必须晚于之前列的行合并单元格创建
                 XWPFTableCell cell = createCell(row, c);
                 CTTcPr ctTcPr = RenderUtils.getTcPr(cell.getCTTc());
                 if (rowspan > 1) {
-                    CSSStyleUtils.split(tdStyleDeclaration);
                     rowSpanMap.put(columnIndex, new Span(rowspan, colspan, false, tdStyleDeclaration));
                     CTVMerge ctvMerge = ctTcPr.isSetVMerge() ? ctTcPr.getVMerge() : ctTcPr.addNewVMerge();
                     ctvMerge.setVal(STMerge.RESTART);
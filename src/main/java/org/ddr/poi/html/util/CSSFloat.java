@@ -0,0 +1,37 @@
+package org.ddr.poi.html.util;
+
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+
+/**
+ * https://developer.mozilla.org/zh-CN/docs/Web/CSS/float
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public enum CSSFloat {
+    NONE(HtmlConstants.NONE),
+    LEFT(HtmlConstants.LEFT),
+    RIGHT(HtmlConstants.RIGHT);
+
+    private final String value;
+
+    CSSFloat(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    private static final Map<String, CSSFloat> VALUES = Keywords.index(values(), CSSFloat::getValue);
+
+    /**
+     * @param value 样式值，大小写无关
+     * @return 对应的枚举，未知值为null
+     */
+    public static CSSFloat of(String value) {
+        return Keywords.get(VALUES, value);
+    }
+}
@@ -0,0 +1,68 @@
+package org.ddr.poi.html.util;
+
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+
+/**
+ * 样式属性编号表，已知属性按编号比较而非按名称比较
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public final class CSSProperty {
+    private static final String[] NAMES = {
+            HtmlConstants.CSS_BACKGROUND, HtmlConstants.CSS_BACKGROUND_COLOR,
+            HtmlConstants.CSS_BORDER, HtmlConstants.CSS_BORDER_STYLE, HtmlConstants.CSS_BORDER_WIDTH,
+            HtmlConstants.CSS_BORDER_COLOR, HtmlConstants.CSS_BORDER_TOP, HtmlConstants.CSS_BORDER_RIGHT,
+            HtmlConstants.CSS_BORDER_BOTTOM, HtmlConstants.CSS_BORDER_LEFT, HtmlConstants.CSS_BORDER_TOP_STYLE,
+            HtmlConstants.CSS_BORDER_RIGHT_STYLE, HtmlConstants.CSS_BORDER_BOTTOM_STYLE,
+            HtmlConstants.CSS_BORDER_LEFT_STYLE, HtmlConstants.CSS_BORDER_TOP_WIDTH,
+            HtmlConstants.CSS_BORDER_RIGHT_WIDTH, HtmlConstants.CSS_BORDER_BOTTOM_WIDTH,
+            HtmlConstants.CSS_BORDER_LEFT_WIDTH, HtmlConstants.CSS_BORDER_TOP_COLOR,
+            HtmlConstants.CSS_BORDER_RIGHT_COLOR, HtmlConstants.CSS_BORDER_BOTTOM_COLOR,
+            HtmlConstants.CSS_BORDER_LEFT_COLOR, HtmlConstants.CSS_BORDER_COLLAPSE, HtmlConstants.CSS_BORDER_SPACING,
+            HtmlConstants.CSS_MARGIN, HtmlConstants.CSS_MARGIN_TOP, HtmlConstants.CSS_MARGIN_RIGHT,
+            HtmlConstants.CSS_MARGIN_BOTTOM, HtmlConstants.CSS_MARGIN_LEFT,
+            HtmlConstants.CSS_PADDING, HtmlConstants.CSS_PADDING_TOP, HtmlConstants.CSS_PADDING_RIGHT,
+            HtmlConstants.CSS_PADDING_BOTTOM, HtmlConstants.CSS_PADDING_LEFT,
+            HtmlConstants.CSS_FONT, HtmlConstants.CSS_FONT_STYLE, HtmlConstants.CSS_FONT_VARIANT_CAPS,
+            HtmlConstants.CSS_FONT_WEIGHT, HtmlConstants.CSS_FONT_SIZE, HtmlConstants.CSS_LINE_HEIGHT,
+            HtmlConstants.CSS_FONT_FAMILY, HtmlConstants.CSS_LETTER_SPACING, HtmlConstants.CSS_COLOR,
+            HtmlConstants.CSS_TEXT_DECORATION, HtmlConstants.CSS_TEXT_DECORATION_LINE,
+            HtmlConstants.CSS_TEXT_DECORATION_STYLE, HtmlConstants.CSS_TEXT_DECORATION_COLOR,
+            HtmlConstants.CSS_TEXT_ALIGN, HtmlConstants.CSS_TEXT_INDENT, HtmlConstants.CSS_VERTICAL_ALIGN,
+            HtmlConstants.CSS_WHITE_SPACE, HtmlConstants.CSS_VISIBILITY, HtmlConstants.CSS_DISPLAY,
+            HtmlConstants.CSS_FLOAT, HtmlConstants.CSS_WIDTH, HtmlConstants.CSS_MAX_WIDTH,
+            HtmlConstants.CSS_HEIGHT, HtmlConstants.CSS_MAX_HEIGHT, HtmlConstants.CSS_LIST_STYLE,
+            HtmlConstants.CSS_LIST_STYLE_TYPE, HtmlConstants.CSS_LIST_STYLE_POSITION, HtmlConstants.CSS_CAPTION_SIDE
+    };
+    private static final Map<String, Integer> IDS = Keywords.index(NAMES);
+
+    private CSSProperty() {
+    }
+
+    /**
+     * @return 已知属性的数量，编号从0开始连续分配
+     */
+    public static int count() {
+        return NAMES.length;
+    }
+
+    /**
+     * @param property 样式名称，大小写无关
+     * @return 属性编号，未知属性为-1
+     */
+    public static int idOf(String property) {
+        Integer id = Keywords.get(IDS, property);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * @param id 属性编号
+     * @return 样式名称
+     */
+    public static String nameOf(int id) {
+        return NAMES[id];
+    }
+}
@@ -15,6 +15,8 @@ import org.w3c.dom.css.CSSValue;
 
 import java.io.IOException;
 import java.io.StringReader;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * CSS样式相关的工具类
@@ -30,6 +32,21 @@ public class CSSStyleUtils {
      */
     public static final CSSStyleDeclarationImpl EMPTY_STYLE = new EmptyCSSStyle();
 
+    /**
+     * 缓存的行内样式数量上限
+     */
+    public static final int STYLE_CACHE_SIZE = 1024;
+
+    /**
+     * 行内样式到已分解的只读样式属性的缓存
+     */
+    private static final Map<String, PropertyIndex> STYLE_CACHE = new LinkedHashMap<String, PropertyIndex>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PropertyIndex> eldest) {
+            return size() > STYLE_CACHE_SIZE;
+        }
+    };
+
     /**
      * 样式是否为空
      *
@@ -37,7 +54,7 @@ public class CSSStyleUtils {
      * @return 是否为空
      */
     public static boolean isEmpty(CSSStyleDeclarationImpl style) {
-        return style == null || EMPTY_STYLE.equals(style) || style.getProperties().isEmpty();
+        return style == null || style.getLength() == 0;
     }
 
     /**
@@ -48,7 +65,7 @@ public class CSSStyleUtils {
     }
 
     /**
-     * 解析行内样式
+     * 解析行内样式，简单的样式由{@link InlineStyleParser}直接解析，其他样式使用CSS解析器
      *
      * @param inlineStyle 行内样式声明
      * @return 样式
@@ -57,6 +74,10 @@ public class CSSStyleUtils {
         if (StringUtils.isBlank(inlineStyle)) {
             return new CSSStyleDeclarationImpl();
         }
+        CSSStyleDeclarationImpl style = InlineStyleParser.parseDeclaration(inlineStyle);
+        if (style != null) {
+            return style;
+        }
         try (StringReader sr = new StringReader(inlineStyle)) {
             return (CSSStyleDeclarationImpl) newParser().parseStyleDeclaration(new InputSource(sr));
         } catch (IOException e) {
@@ -65,6 +86,42 @@ public class CSSStyleUtils {
         }
     }
 
+    /**
+     * 解析并分解行内样式，相同的样式字符串只解析一次
+     *
+     * @param inlineStyle 行内样式声明
+     * @return 样式，修改时复制缓存的属性
+     */
+    public static CSSStyleDeclarationImpl parseAndSplit(String inlineStyle) {
+        if (StringUtils.isBlank(inlineStyle)) {
+            return new CopyOnWriteCSSStyle(PropertyIndex.EMPTY);
+        }
+        PropertyIndex index;
+        synchronized (STYLE_CACHE) {
+            index = STYLE_CACHE.get(inlineStyle);
+        }
+        if (index == null) {
+            CSSStyleDeclarationImpl style = parse(inlineStyle);
+            if (style != EMPTY_STYLE) {
+                split(style);
+            }
+            index = new PropertyIndex(style.getProperties());
+            synchronized (STYLE_CACHE) {
+                STYLE_CACHE.put(inlineStyle, index);
+            }
+        }
+        return new CopyOnWriteCSSStyle(index);
+    }
+
+    /**
+     * 清空行内样式缓存
+     */
+    public static void clearStyleCache() {
+        synchronized (STYLE_CACHE) {
+            STYLE_CACHE.clear();
+        }
+    }
+
     /**
      * 解析样式值
      *
@@ -72,6 +129,10 @@ public class CSSStyleUtils {
      * @return 样式值
      */
     public static CSSValue parseValue(String value) {
+        CSSValueImpl cssValue = InlineStyleParser.parseValue(value);
+        if (cssValue != null) {
+            return cssValue;
+        }
         try (StringReader sr = new StringReader(value)) {
             return newParser().parsePropertyValue(new InputSource(sr));
         } catch (IOException e) {
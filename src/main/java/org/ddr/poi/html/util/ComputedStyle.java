@@ -0,0 +1,157 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import org.apache.commons.lang3.StringUtils;
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Arrays;
+
+/**
+ * 元素的计算样式帧，按{@link CSSProperty}编号缓存自身及祖先声明的样式值，由渲染上下文在样式栈中复用
+ * <p>
+ * 栈顶的帧始终读取其样式声明，因此元素渲染开始时对样式声明的修改可以生效；
+ * 帧在有子元素入栈后才会缓存样式值，此后对其样式声明的修改将不再生效
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public final class ComputedStyle {
+    private static final int TEXT_DECORATION_LINE = CSSProperty.idOf(HtmlConstants.CSS_TEXT_DECORATION_LINE);
+
+    private CSSStyleDeclarationImpl declaration;
+    private boolean block;
+    /**
+     * 合并继承值后的text-decoration-line，为null时使用样式声明中的值
+     */
+    private String textDecorationLine;
+    private int inheritedFontSize;
+    private ComputedStyle parent;
+    /**
+     * 自身及祖先中最近声明的样式值
+     */
+    private final String[] values = new String[CSSProperty.count()];
+    /**
+     * 自身及祖先中最近声明的样式值，遇到块状元素为止
+     */
+    private final String[] inlineValues = new String[CSSProperty.count()];
+
+    /**
+     * 重置为新元素的样式帧
+     *
+     * @param parent 父元素的样式帧
+     * @param declaration 样式声明
+     * @param block 是否为块状元素
+     * @param fontSize 声明的字号，以“半点”为单位，未声明时小于等于0
+     * @param textDecorationLine 合并继承值后的text-decoration-line，未合并时为null
+     */
+    public void reset(ComputedStyle parent, CSSStyleDeclarationImpl declaration, boolean block,
+                      int fontSize, String textDecorationLine) {
+        this.parent = parent;
+        this.declaration = declaration;
+        this.block = block;
+        this.textDecorationLine = textDecorationLine;
+        if (fontSize > 0) {
+            inheritedFontSize = fontSize;
+        } else {
+            inheritedFontSize = parent == null ? Integer.MIN_VALUE : parent.inheritedFontSize;
+        }
+        Arrays.fill(values, null);
+        Arrays.fill(inlineValues, null);
+    }
+
+    /**
+     * 出栈时释放引用
+     */
+    public void clear() {
+        parent = null;
+        declaration = null;
+        textDecorationLine = null;
+    }
+
+    public CSSStyleDeclarationImpl getDeclaration() {
+        return declaration;
+    }
+
+    public boolean isBlock() {
+        return block;
+    }
+
+    /**
+     * @return 自身或祖先声明的字号，以“半点”为单位，均未声明时小于等于0
+     */
+    public int getInheritedFontSize() {
+        return inheritedFontSize;
+    }
+
+    /**
+     * 获取自身声明的样式值
+     *
+     * @param property 样式名称
+     * @return 样式值，未声明时返回空字符串
+     */
+    public String getDeclaredValue(String property) {
+        if (textDecorationLine != null && HtmlConstants.CSS_TEXT_DECORATION_LINE.equals(property)) {
+            return textDecorationLine;
+        }
+        return declaration.getPropertyValue(property);
+    }
+
+    private String getDeclaredValue(int id) {
+        if (id == TEXT_DECORATION_LINE && textDecorationLine != null) {
+            return textDecorationLine;
+        }
+        if (declaration instanceof IndexedCSSStyle) {
+            return ((IndexedCSSStyle) declaration).getPropertyValue(id);
+        }
+        return declaration.getPropertyValue(CSSProperty.nameOf(id));
+    }
+
+    /**
+     * 获取自身或祖先中最近声明的样式值，自身的样式值不缓存
+     *
+     * @param id 属性编号，参见{@link CSSProperty}
+     * @param inlineOnly 是否仅查找行内元素
+     * @return 样式值，未声明时返回空字符串
+     */
+    public String getValue(int id, boolean inlineOnly) {
+        if (inlineOnly && block) {
+            return "";
+        }
+        String value = getDeclaredValue(id);
+        if (StringUtils.isNotBlank(value)) {
+            return value;
+        }
+        if (parent == null) {
+            return "";
+        }
+        return inlineOnly ? parent.inlineValue(id) : parent.value(id);
+    }
+
+    private String value(int id) {
+        String value = values[id];
+        if (value == null) {
+            value = getDeclaredValue(id);
+            if (StringUtils.isBlank(value)) {
+                value = parent == null ? "" : parent.value(id);
+            }
+            values[id] = value;
+        }
+        return value;
+    }
+
+    private String inlineValue(int id) {
+        String value = inlineValues[id];
+        if (value == null) {
+            if (block) {
+                value = "";
+            } else {
+                value = getDeclaredValue(id);
+                if (StringUtils.isBlank(value)) {
+                    value = parent == null ? "" : parent.inlineValue(id);
+                }
+            }
+            inlineValues[id] = value;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.Property;
+import org.w3c.dom.DOMException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 共享只读样式属性的样式声明，首次修改时复制属性
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class CopyOnWriteCSSStyle extends IndexedCSSStyle {
+    private static final long serialVersionUID = 1L;
+
+    private boolean shared;
+
+    /**
+     * @param properties 共享的样式属性，不会被修改
+     */
+    public CopyOnWriteCSSStyle(List<Property> properties) {
+        this(new PropertyIndex(properties));
+    }
+
+    CopyOnWriteCSSStyle(PropertyIndex index) {
+        super(index);
+        shared = true;
+    }
+
+    /**
+     * @return 是否仍在共享属性
+     */
+    public boolean isShared() {
+        return shared;
+    }
+
+    private void copyOnWrite() {
+        if (shared) {
+            List<Property> properties = super.getProperties();
+            List<Property> copy = new ArrayList<>(properties.size() + 4);
+            for (Property property : properties) {
+                copy.add(new Property(property.getName(), property.getValue(), property.isImportant()));
+            }
+            super.setProperties(copy);
+            dropIndex();
+            shared = false;
+        }
+    }
+
+    /**
+     * 返回的列表可被调用方修改，因此会触发复制
+     */
+    @Override
+    public List<Property> getProperties() {
+        copyOnWrite();
+        return super.getProperties();
+    }
+
+    @Override
+    public void setProperties(List<Property> properties) {
+        dropIndex();
+        shared = false;
+        super.setProperties(properties);
+    }
+
+    @Override
+    public void setProperty(String propertyName, String value, String priority) throws DOMException {
+        copyOnWrite();
+        super.setProperty(propertyName, value, priority);
+    }
+
+    @Override
+    public String removeProperty(String propertyName) throws DOMException {
+        if (shared && getPropertyDeclaration(propertyName) == null) {
+            return "";
+        }
+        copyOnWrite();
+        return super.removeProperty(propertyName);
+    }
+
+    @Override
+    public void addProperty(Property property) {
+        copyOnWrite();
+        super.addProperty(property);
+    }
+
+    @Override
+    public void setCssText(String cssText) throws DOMException {
+        copyOnWrite();
+        super.setCssText(cssText);
+    }
+}
@@ -0,0 +1,39 @@
+package org.ddr.poi.html.util;
+
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+
+/**
+ * https://developer.mozilla.org/zh-CN/docs/Web/CSS/display
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public enum Display {
+    NONE(HtmlConstants.NONE),
+    INLINE(HtmlConstants.INLINE),
+    BLOCK(HtmlConstants.BLOCK),
+    INLINE_BLOCK(HtmlConstants.INLINE_BLOCK),
+    LIST_ITEM(HtmlConstants.LIST_ITEM);
+
+    private final String value;
+
+    Display(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    private static final Map<String, Display> VALUES = Keywords.index(values(), Display::getValue);
+
+    /**
+     * @param value 样式值，大小写无关
+     * @return 对应的枚举，未知值为null
+     */
+    public static Display of(String value) {
+        return Keywords.get(VALUES, value);
+    }
+}
@@ -1,11 +1,6 @@
 package org.ddr.poi.html.util;
 
-import com.steadystate.css.dom.CSSStyleDeclarationImpl;
-import com.steadystate.css.dom.Property;
-import org.w3c.dom.DOMException;
-
 import java.util.Collections;
-import java.util.List;
 
 /**
  * 空样式
@@ -13,24 +8,10 @@ import java.util.List;
  * @author Draco
  * @since 2022-10-21
  */
-public class EmptyCSSStyle extends CSSStyleDeclarationImpl {
-    @Override
-    public void setProperties(List<Property> properties) {
-        throw new UnsupportedOperationException();
-    }
-
-    @Override
-    public List<Property> getProperties() {
-        return Collections.unmodifiableList(super.getProperties());
-    }
-
-    @Override
-    public void setProperty(String propertyName, String value, String priority) throws DOMException {
-        throw new UnsupportedOperationException();
-    }
+public class EmptyCSSStyle extends ReadOnlyCSSStyle {
+    private static final long serialVersionUID = 1L;
 
-    @Override
-    public void setCssText(String cssText) throws DOMException {
-        throw new UnsupportedOperationException();
+    public EmptyCSSStyle() {
+        super(Collections.emptyList());
     }
 }
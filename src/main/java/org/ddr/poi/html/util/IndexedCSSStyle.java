@@ -0,0 +1,58 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import com.steadystate.css.dom.Property;
+
+/**
+ * 按属性编号查找样式属性的样式声明，属性被修改后退回按名称查找
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public abstract class IndexedCSSStyle extends CSSStyleDeclarationImpl {
+    private static final long serialVersionUID = 1L;
+
+    private PropertyIndex index;
+
+    IndexedCSSStyle(PropertyIndex index) {
+        this.index = index;
+        super.setProperties(index.getProperties());
+    }
+
+    /**
+     * 属性列表将被替换或修改时调用
+     */
+    void dropIndex() {
+        index = null;
+    }
+
+    @Override
+    public Property getPropertyDeclaration(String name) {
+        PropertyIndex current = index;
+        if (current != null) {
+            int id = CSSProperty.idOf(name);
+            if (id >= 0) {
+                return current.get(id);
+            }
+        }
+        return super.getPropertyDeclaration(name);
+    }
+
+    /**
+     * 获取样式值
+     *
+     * @param id 属性编号
+     * @return 样式值，未声明时返回空字符串
+     */
+    public String getPropertyValue(int id) {
+        PropertyIndex current = index;
+        if (current == null) {
+            return getPropertyValue(CSSProperty.nameOf(id));
+        }
+        Property property = current.get(id);
+        if (property == null || property.getValue() == null) {
+            return "";
+        }
+        return property.getValue().toString();
+    }
+}
@@ -0,0 +1,372 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import com.steadystate.css.dom.CSSValueImpl;
+import com.steadystate.css.dom.Property;
+import com.steadystate.css.parser.LexicalUnitImpl;
+import org.w3c.css.sac.LexicalUnit;
+
+/**
+ * 简单行内样式的单遍解析器，仅支持由关键字、长度、数字、百分比、十六进制/rgb颜色、字符串及逗号/斜杠组成的值，
+ * 结果与{@link com.steadystate.css.parser.SACParserCSS3}一致，遇到其他语法时返回null以便回退到完整的解析器
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+final class InlineStyleParser {
+    /**
+     * 整数超过该位数时SAC解析器可能将其视为实数，交由完整解析器处理
+     */
+    private static final int MAX_INTEGER_DIGITS = 9;
+
+    private final String text;
+    private final int end;
+    private int pos;
+
+    private InlineStyleParser(String text) {
+        this.text = text;
+        this.end = text.length();
+    }
+
+    /**
+     * 解析行内样式声明
+     *
+     * @param inlineStyle 行内样式声明
+     * @return 样式，包含不支持的语法时为null
+     */
+    static CSSStyleDeclarationImpl parseDeclaration(String inlineStyle) {
+        // SAC解析器会忽略以空白开头的整个声明，保持一致
+        if (inlineStyle.isEmpty() || isWhitespace(inlineStyle.charAt(0))) {
+            return null;
+        }
+        InlineStyleParser parser = new InlineStyleParser(inlineStyle);
+        CSSStyleDeclarationImpl style = new CSSStyleDeclarationImpl(null);
+        while (true) {
+            parser.skipWhitespace();
+            if (parser.pos == parser.end) {
+                return style;
+            }
+            if (parser.text.charAt(parser.pos) == ';') {
+                parser.pos++;
+                continue;
+            }
+            int nameStart = parser.pos;
+            if (!parser.skipIdent()) {
+                return null;
+            }
+            String name = inlineStyle.substring(nameStart, parser.pos);
+            parser.skipWhitespace();
+            if (parser.pos == parser.end || parser.text.charAt(parser.pos) != ':') {
+                return null;
+            }
+            parser.pos++;
+            LexicalUnit value = parser.parseExpression();
+            if (value == null) {
+                return null;
+            }
+            style.addProperty(new Property(name, new CSSValueImpl(value), false));
+        }
+    }
+
+    /**
+     * 解析样式值
+     *
+     * @param value 样式值字符串
+     * @return 样式值，包含不支持的语法时为null
+     */
+    static CSSValueImpl parseValue(String value) {
+        InlineStyleParser parser = new InlineStyleParser(value);
+        LexicalUnit unit = parser.parseExpression();
+        return unit == null || parser.pos != parser.end ? null : new CSSValueImpl(unit);
+    }
+
+    /**
+     * 解析到分号或结尾为止的值
+     *
+     * @return 值的第一个词法单元，为空或包含不支持的语法时为null
+     */
+    private LexicalUnit parseExpression() {
+        LexicalUnit first = null;
+        LexicalUnit last = null;
+        boolean termExpected = true;
+        while (true) {
+            skipWhitespace();
+            if (pos == end || text.charAt(pos) == ';') {
+                return termExpected ? null : first;
+            }
+            char c = text.charAt(pos);
+            if (c == ',' || c == '/') {
+                if (termExpected || c == '/' && pos + 1 < end && text.charAt(pos + 1) == '*') {
+                    return null;
+                }
+                pos++;
+                last = c == ',' ? LexicalUnitImpl.createComma(last) : LexicalUnitImpl.createDivide(last);
+                termExpected = true;
+                continue;
+            }
+            last = parseTerm(last);
+            if (last == null) {
+                return null;
+            }
+            if (first == null) {
+                first = last;
+            }
+            termExpected = false;
+        }
+    }
+
+    private LexicalUnit parseTerm(LexicalUnit prev) {
+        char c = text.charAt(pos);
+        LexicalUnit unit;
+        if (c == '#') {
+            unit = parseHexColor(prev);
+        } else if (c == '"' || c == '\'') {
+            unit = parseString(prev, c);
+        } else if (isDigit(c) || c == '.' || c == '+' || c == '-' && !isIdentStart(pos)) {
+            unit = parseNumber(prev);
+        } else if (isIdentStart(pos)) {
+            unit = parseIdentOrColor(prev);
+        } else {
+            return null;
+        }
+        return unit != null && isDelimiter() ? unit : null;
+    }
+
+    private LexicalUnit parseHexColor(LexicalUnit prev) {
+        int start = ++pos;
+        while (pos < end && Character.digit(text.charAt(pos), 16) >= 0) {
+            pos++;
+        }
+        int length = pos - start;
+        int r;
+        int g;
+        int b;
+        if (length == 3) {
+            r = Character.digit(text.charAt(start), 16) * 0x11;
+            g = Character.digit(text.charAt(start + 1), 16) * 0x11;
+            b = Character.digit(text.charAt(start + 2), 16) * 0x11;
+        } else if (length == 6) {
+            r = hexByte(start);
+            g = hexByte(start + 2);
+            b = hexByte(start + 4);
+        } else {
+            return null;
+        }
+        return rgb(prev, r, g, b);
+    }
+
+    private int hexByte(int index) {
+        return Character.digit(text.charAt(index), 16) << 4 | Character.digit(text.charAt(index + 1), 16);
+    }
+
+    private LexicalUnit parseString(LexicalUnit prev, char quote) {
+        int start = pos++;
+        while (pos < end) {
+            char c = text.charAt(pos);
+            if (c == quote) {
+                pos++;
+                return LexicalUnitImpl.createString(prev, text.substring(start + 1, pos - 1), text.substring(start, pos));
+            }
+            if (c == '\\' || c == '\n' || c == '\r' || c == '\f') {
+                return null;
+            }
+            pos++;
+        }
+        return null;
+    }
+
+    private LexicalUnit parseNumber(LexicalUnit prev) {
+        char sign = text.charAt(pos);
+        if (sign == '+' || sign == '-') {
+            pos++;
+        }
+        int start = pos;
+        while (pos < end && isDigit(text.charAt(pos))) {
+            pos++;
+        }
+        int integerEnd = pos;
+        if (pos < end && text.charAt(pos) == '.') {
+            pos++;
+            int fractionStart = pos;
+            while (pos < end && isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            if (pos == fractionStart) {
+                return null;
+            }
+        } else if (pos == start) {
+            return null;
+        }
+        int numberEnd = pos;
+        boolean negative = sign == '-';
+        if (pos < end && text.charAt(pos) == '%') {
+            pos++;
+            return LexicalUnitImpl.createPercentage(prev, floatValue(negative, start, numberEnd));
+        }
+        int unitStart = pos;
+        while (pos < end && isLetter(text.charAt(pos))) {
+            pos++;
+        }
+        if (unitStart == pos) {
+            if (integerEnd != numberEnd) {
+                return LexicalUnitImpl.createNumber(prev, floatValue(negative, start, numberEnd));
+            }
+            if (numberEnd - start > MAX_INTEGER_DIGITS) {
+                return null;
+            }
+            int value = 0;
+            for (int i = start; i < numberEnd; i++) {
+                value = value * 10 + text.charAt(i) - '0';
+            }
+            return LexicalUnitImpl.createNumber(prev, negative ? -value : value);
+        }
+        float value = floatValue(negative, start, numberEnd);
+        switch (pos - unitStart) {
+            case 2:
+                if (unitIs(unitStart, "px")) {
+                    return LexicalUnitImpl.createPixel(prev, value);
+                }
+                if (unitIs(unitStart, "pt")) {
+                    return LexicalUnitImpl.createPoint(prev, value);
+                }
+                if (unitIs(unitStart, "em")) {
+                    return LexicalUnitImpl.createEm(prev, value);
+                }
+                if (unitIs(unitStart, "ex")) {
+                    return LexicalUnitImpl.createEx(prev, value);
+                }
+                if (unitIs(unitStart, "cm")) {
+                    return LexicalUnitImpl.createCentimeter(prev, value);
+                }
+                if (unitIs(unitStart, "mm")) {
+                    return LexicalUnitImpl.createMillimeter(prev, value);
+                }
+                if (unitIs(unitStart, "in")) {
+                    return LexicalUnitImpl.createInch(prev, value);
+                }
+                if (unitIs(unitStart, "pc")) {
+                    return LexicalUnitImpl.createPica(prev, value);
+                }
+                return null;
+            case 3:
+                return unitIs(unitStart, "rem") ? LexicalUnitImpl.createRem(prev, value) : null;
+            default:
+                return null;
+        }
+    }
+
+    private float floatValue(boolean negative, int start, int end) {
+        // 与SAC解析器相同，先解析绝对值再取负
+        float value = Float.parseFloat(text.substring(start, end));
+        return negative ? -value : value;
+    }
+
+    private boolean unitIs(int start, String unit) {
+        return text.regionMatches(true, start, unit, 0, unit.length());
+    }
+
+    private LexicalUnit parseIdentOrColor(LexicalUnit prev) {
+        int start = pos;
+        skipIdent();
+        if (pos < end && text.charAt(pos) == '(') {
+            if (pos - start == 3 && text.startsWith("rgb", start)) {
+                pos++;
+                return parseRgbArguments(prev);
+            }
+            return null;
+        }
+        String ident = text.substring(start, pos);
+        // inherit对应单独的词法单元类型
+        if ("inherit".equalsIgnoreCase(ident)) {
+            return null;
+        }
+        return LexicalUnitImpl.createIdent(prev, ident);
+    }
+
+    private LexicalUnit parseRgbArguments(LexicalUnit prev) {
+        int[] rgb = new int[3];
+        for (int i = 0; i < rgb.length; i++) {
+            skipWhitespace();
+            int start = pos;
+            int value = 0;
+            while (pos < end && isDigit(text.charAt(pos)) && pos - start < 3) {
+                value = value * 10 + text.charAt(pos++) - '0';
+            }
+            if (pos == start) {
+                return null;
+            }
+            skipWhitespace();
+            if (pos == end || text.charAt(pos++) != (i < rgb.length - 1 ? ',' : ')')) {
+                return null;
+            }
+            rgb[i] = value;
+        }
+        return rgb(prev, rgb[0], rgb[1], rgb[2]);
+    }
+
+    private static LexicalUnit rgb(LexicalUnit prev, int r, int g, int b) {
+        LexicalUnit red = LexicalUnitImpl.createNumber(null, r);
+        LexicalUnit unit = LexicalUnitImpl.createComma(red);
+        unit = LexicalUnitImpl.createNumber(unit, g);
+        unit = LexicalUnitImpl.createComma(unit);
+        LexicalUnitImpl.createNumber(unit, b);
+        return LexicalUnitImpl.createRgbColor(prev, red);
+    }
+
+    /**
+     * 跳过标识符，仅支持不含转义的字母、数字、下划线、连字符及非ASCII字符
+     *
+     * @return 当前位置是否为标识符
+     */
+    private boolean skipIdent() {
+        if (!isIdentStart(pos)) {
+            return false;
+        }
+        pos++;
+        while (pos < end && isIdentChar(text.charAt(pos))) {
+            pos++;
+        }
+        return true;
+    }
+
+    private boolean isIdentStart(int index) {
+        if (index < end && text.charAt(index) == '-') {
+            index++;
+        }
+        if (index == end) {
+            return false;
+        }
+        char c = text.charAt(index);
+        return isLetter(c) || c == '_' || c >= 0x80;
+    }
+
+    private boolean isDelimiter() {
+        if (pos == end) {
+            return true;
+        }
+        char c = text.charAt(pos);
+        return isWhitespace(c) || c == ';' || c == ',' || c == '/';
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private static boolean isIdentChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '-' || c == '_' || c >= 0x80;
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+}
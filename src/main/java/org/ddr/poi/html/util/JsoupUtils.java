@@ -21,10 +21,15 @@ import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
 import org.jsoup.parser.CustomHtmlTreeBuilder;
 import org.jsoup.parser.Parser;
 import org.jsoup.select.Elements;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.DOMImplementation;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -37,6 +42,17 @@ import java.util.function.Predicate;
  * @since 2021-03-03
  */
 public class JsoupUtils {
+    private static final String MATHML_NS = "http://www.w3.org/1998/Math/MathML";
+    private static final DOMImplementation DOM_IMPLEMENTATION;
+
+    static {
+        try {
+            DOM_IMPLEMENTATION = DocumentBuilderFactory.newInstance().newDocumentBuilder().getDOMImplementation();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * 选取符合条件的子元素到目标集合中
      *
@@ -133,4 +149,46 @@ public class JsoupUtils {
         return Jsoup.parse(html, new Parser(treeBuilder));
     }
 
+    /**
+     * 将math元素转换为MathML命名空间下的W3C DOM，实体在HTML解析时已被还原
+     *
+     * @param math math元素
+     * @return MathML文档
+     */
+    public static org.w3c.dom.Document toMathML(Element math) {
+        org.w3c.dom.Document document = DOM_IMPLEMENTATION.createDocument(MATHML_NS, localName(math), null);
+        copyMathML(math, document.getDocumentElement(), document);
+        return document;
+    }
+
+    private static void copyMathML(Element source, org.w3c.dom.Element target, org.w3c.dom.Document document) {
+        for (org.jsoup.nodes.Attribute attribute : source.attributes()) {
+            String key = attribute.getKey();
+            if (key.equals("xmlns") || key.startsWith("xmlns:")) {
+                continue;
+            }
+            try {
+                target.setAttribute(key, attribute.getValue());
+            } catch (DOMException ignored) {
+                // 忽略不符合XML规范的属性名
+            }
+        }
+        for (Node node : source.childNodes()) {
+            if (node instanceof Element) {
+                Element child = (Element) node;
+                org.w3c.dom.Element element = document.createElementNS(MATHML_NS, localName(child));
+                target.appendChild(element);
+                copyMathML(child, element, document);
+            } else if (node instanceof TextNode) {
+                target.appendChild(document.createTextNode(((TextNode) node).getWholeText()));
+            }
+        }
+    }
+
+    private static String localName(Element element) {
+        String name = element.normalName();
+        int index = name.indexOf(':');
+        return index < 0 ? name : name.substring(index + 1);
+    }
+
 }
@@ -0,0 +1,54 @@
+package org.ddr.poi.html.util;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 关键字查找，小写的关键字无需转换即可匹配
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+final class Keywords {
+    private Keywords() {
+    }
+
+    static Map<String, Integer> index(String[] keywords) {
+        Map<String, Integer> map = new HashMap<>(keywords.length * 2);
+        for (int i = 0; i < keywords.length; i++) {
+            map.put(keywords[i], i);
+        }
+        return map;
+    }
+
+    static <E extends Enum<E>> Map<String, E> index(E[] values, Function<E, String> keyword) {
+        Map<String, E> map = new HashMap<>(values.length * 2);
+        for (E value : values) {
+            map.put(keyword.apply(value), value);
+        }
+        return map;
+    }
+
+    static <V> V get(Map<String, V> map, String keyword) {
+        if (keyword == null || keyword.isEmpty()) {
+            return null;
+        }
+        V value = map.get(keyword);
+        if (value == null && hasUpperCase(keyword)) {
+            value = map.get(keyword.toLowerCase(Locale.ROOT));
+        }
+        return value;
+    }
+
+    private static boolean hasUpperCase(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
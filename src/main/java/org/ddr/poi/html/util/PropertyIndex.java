@@ -0,0 +1,44 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.Property;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 只读样式属性及其属性编号
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+final class PropertyIndex {
+    static final PropertyIndex EMPTY = new PropertyIndex(Collections.emptyList());
+
+    private final List<Property> properties;
+    private final int[] ids;
+
+    PropertyIndex(List<Property> properties) {
+        this.properties = Collections.unmodifiableList(properties);
+        this.ids = new int[properties.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Property property = properties.get(i);
+            ids[i] = property == null ? -1 : CSSProperty.idOf(property.getName());
+        }
+    }
+
+    List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * 与{@link com.steadystate.css.dom.CSSStyleDeclarationImpl#getPropertyDeclaration}一致，后声明的属性优先
+     */
+    Property get(int id) {
+        for (int i = ids.length - 1; i >= 0; i--) {
+            if (ids[i] == id) {
+                return properties.get(i);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,48 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.Property;
+import org.w3c.dom.DOMException;
+
+import java.util.List;
+
+/**
+ * 只读样式，可在多个元素及线程间共享
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ReadOnlyCSSStyle extends IndexedCSSStyle {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param properties 样式属性，不会被修改
+     */
+    public ReadOnlyCSSStyle(List<Property> properties) {
+        super(new PropertyIndex(properties));
+    }
+
+    @Override
+    public void setProperties(List<Property> properties) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setProperty(String propertyName, String value, String priority) throws DOMException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public String removeProperty(String propertyName) throws DOMException {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addProperty(Property property) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setCssText(String cssText) throws DOMException {
+        throw new UnsupportedOperationException();
+    }
+}
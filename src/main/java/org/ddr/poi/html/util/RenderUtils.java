@@ -891,17 +891,13 @@ public class RenderUtils {
      * @return Word表格对齐枚举
      */
     public static TableRowAlign alignTable(String cssFloat) {
-        if (StringUtils.isBlank(cssFloat)) {
-            return null;
-        }
-        switch (cssFloat.toLowerCase()) {
-            case HtmlConstants.LEFT:
-                return TableRowAlign.LEFT;
-            case HtmlConstants.RIGHT:
-                return TableRowAlign.RIGHT;
-            default:
-                return null;
+        CSSFloat value = CSSFloat.of(cssFloat);
+        if (value == CSSFloat.LEFT) {
+            return TableRowAlign.LEFT;
+        } else if (value == CSSFloat.RIGHT) {
+            return TableRowAlign.RIGHT;
         }
+        return null;
     }
 
     /**
@@ -914,14 +910,13 @@ public class RenderUtils {
         if (StringUtils.isBlank(verticalAlign)) {
             return null;
         }
-        switch (verticalAlign.toLowerCase()) {
-            case HtmlConstants.MIDDLE:
-                return XWPFTableCell.XWPFVertAlign.CENTER;
-            case HtmlConstants.BOTTOM:
-                return XWPFTableCell.XWPFVertAlign.BOTTOM;
-            default:
-                return XWPFTableCell.XWPFVertAlign.TOP;
+        VerticalAlign value = VerticalAlign.of(verticalAlign);
+        if (value == VerticalAlign.MIDDLE) {
+            return XWPFTableCell.XWPFVertAlign.CENTER;
+        } else if (value == VerticalAlign.BOTTOM) {
+            return XWPFTableCell.XWPFVertAlign.BOTTOM;
         }
+        return XWPFTableCell.XWPFVertAlign.TOP;
     }
 
     /**
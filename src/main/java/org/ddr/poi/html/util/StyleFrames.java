@@ -0,0 +1,64 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 预先解析的只读样式，供标签渲染器直接入栈而无需每次解析
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class StyleFrames {
+    private static final Map<String, ReadOnlyCSSStyle> FRAMES = new ConcurrentHashMap<>();
+
+    public static final ReadOnlyCSSStyle BOLD = of(HtmlConstants.DEFINED_BOLD);
+    public static final ReadOnlyCSSStyle ITALIC = of(HtmlConstants.DEFINED_ITALIC);
+    public static final ReadOnlyCSSStyle UNDERLINE = of(HtmlConstants.DEFINED_UNDERLINE);
+    public static final ReadOnlyCSSStyle STRIKE = of(HtmlConstants.DEFINED_STRIKE);
+    public static final ReadOnlyCSSStyle SUPERSCRIPT = of(HtmlConstants.DEFINED_SUPERSCRIPT);
+    public static final ReadOnlyCSSStyle SUBSCRIPT = of(HtmlConstants.DEFINED_SUBSCRIPT);
+    public static final ReadOnlyCSSStyle LARGER = of(HtmlConstants.DEFINED_LARGER);
+    public static final ReadOnlyCSSStyle SMALLER = of(HtmlConstants.DEFINED_SMALLER);
+    public static final ReadOnlyCSSStyle PRE = of(HtmlConstants.DEFINED_PRE);
+
+    /**
+     * 各级别标题对应字号
+     */
+    private static final String[] HEADING_FONT_SIZES = {"24pt", "18pt", "14pt", "12pt", "10pt", "7.5pt"};
+    private static final ReadOnlyCSSStyle[] HEADINGS = new ReadOnlyCSSStyle[HEADING_FONT_SIZES.length];
+
+    static {
+        for (int i = 0; i < HEADINGS.length; i++) {
+            HEADINGS[i] = of(HtmlConstants.DEFINED_BOLD
+                    + HtmlConstants.inlineStyle(HtmlConstants.CSS_FONT_SIZE, HEADING_FONT_SIZES[i]));
+        }
+    }
+
+    /**
+     * 获取预先解析的样式，相同的样式字符串共享同一实例，适用于自定义渲染器中的固定样式
+     *
+     * @param inlineStyle 行内样式声明
+     * @return 已分解缩写的只读样式
+     */
+    public static ReadOnlyCSSStyle of(String inlineStyle) {
+        return FRAMES.computeIfAbsent(inlineStyle, s -> {
+            CSSStyleDeclarationImpl style = CSSStyleUtils.parse(s);
+            if (style != CSSStyleUtils.EMPTY_STYLE) {
+                CSSStyleUtils.split(style);
+            }
+            return new ReadOnlyCSSStyle(style.getProperties());
+        });
+    }
+
+    /**
+     * @param level 标题级别，1~6
+     * @return 标题样式
+     */
+    public static ReadOnlyCSSStyle heading(int level) {
+        return HEADINGS[level - 1];
+    }
+}
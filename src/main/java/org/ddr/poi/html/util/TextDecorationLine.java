@@ -0,0 +1,89 @@
+package org.ddr.poi.html.util;
+
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+
+/**
+ * https://developer.mozilla.org/zh-CN/docs/Web/CSS/text-decoration-line
+ * <p>
+ * 样式值可包含多个关键字，解析结果为各关键字的位掩码
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public enum TextDecorationLine {
+    NONE(HtmlConstants.NONE),
+    UNDERLINE(HtmlConstants.UNDERLINE),
+    OVERLINE(HtmlConstants.OVERLINE),
+    LINE_THROUGH(HtmlConstants.LINE_THROUGH);
+
+    private final String value;
+    private final int mask;
+
+    TextDecorationLine(String value) {
+        this.value = value;
+        this.mask = 1 << ordinal();
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @param lines 位掩码
+     * @return 是否包含该关键字
+     */
+    public boolean in(int lines) {
+        return (lines & mask) != 0;
+    }
+
+    private static final TextDecorationLine[] LINES = values();
+    private static final Map<String, TextDecorationLine> VALUES = Keywords.index(LINES, TextDecorationLine::getValue);
+
+    /**
+     * @param value 单个关键字，大小写无关
+     * @return 对应的枚举，未知值为null
+     */
+    public static TextDecorationLine of(String value) {
+        return Keywords.get(VALUES, value);
+    }
+
+    /**
+     * 解析以空白分隔的关键字
+     *
+     * @param value 样式值，大小写无关
+     * @return 各关键字的位掩码，忽略未知关键字
+     */
+    public static int parse(String value) {
+        int lines = 0;
+        if (value == null) {
+            return lines;
+        }
+        int length = value.length();
+        int start = 0;
+        while (start < length) {
+            while (start < length && Character.isWhitespace(value.charAt(start))) {
+                start++;
+            }
+            int end = start;
+            while (end < length && !Character.isWhitespace(value.charAt(end))) {
+                end++;
+            }
+            if (end > start) {
+                for (TextDecorationLine line : LINES) {
+                    if (line.value.length() == end - start && value.regionMatches(true, start, line.value, 0, end - start)) {
+                        lines |= line.mask;
+                        break;
+                    }
+                }
+            }
+            start = end;
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,42 @@
+package org.ddr.poi.html.util;
+
+import org.ddr.poi.html.HtmlConstants;
+
+import java.util.Map;
+
+/**
+ * https://developer.mozilla.org/zh-CN/docs/Web/CSS/vertical-align
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public enum VerticalAlign {
+    BASELINE(HtmlConstants.BASELINE),
+    SUB(HtmlConstants.SUB),
+    SUPER(HtmlConstants.SUPER),
+    TEXT_TOP(HtmlConstants.TEXT_TOP),
+    TEXT_BOTTOM(HtmlConstants.TEXT_BOTTOM),
+    MIDDLE(HtmlConstants.MIDDLE),
+    TOP(HtmlConstants.TOP),
+    BOTTOM(HtmlConstants.BOTTOM);
+
+    private final String value;
+
+    VerticalAlign(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    private static final Map<String, VerticalAlign> VALUES = Keywords.index(values(), VerticalAlign::getValue);
+
+    /**
+     * @param value 样式值，大小写无关
+     * @return 对应的枚举，未知值或长度值为null
+     */
+    public static VerticalAlign of(String value) {
+        return Keywords.get(VALUES, value);
+    }
+}
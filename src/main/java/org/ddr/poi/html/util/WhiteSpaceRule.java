@@ -18,10 +18,7 @@ package org.ddr.poi.html.util;
 
 import org.ddr.poi.html.HtmlConstants;
 
-import java.util.Arrays;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 /**
  * https://developer.mozilla.org/zh-CN/docs/Web/CSS/white-space
@@ -69,15 +66,18 @@ public enum WhiteSpaceRule {
         return this == NORMAL || this == NO_WRAP;
     }
 
-    private static Map<String, WhiteSpaceRule> rules = Arrays.stream(values()).collect(
-            Collectors.toMap(WhiteSpaceRule::getValue, Function.identity())
-    );
+    private static final Map<String, WhiteSpaceRule> rules = Keywords.index(values(), WhiteSpaceRule::getValue);
 
+    /**
+     * @param value 样式值，大小写无关
+     * @return 对应的规则，未知值为null
+     */
     public static WhiteSpaceRule of(String value) {
-        return rules.get(value);
+        return Keywords.get(rules, value);
     }
 
     public static WhiteSpaceRule of(String value, WhiteSpaceRule defaultRule) {
-        return rules.getOrDefault(value, defaultRule);
+        WhiteSpaceRule rule = of(value);
+        return rule == null ? defaultRule : rule;
     }
 }
@@ -0,0 +1,116 @@
+package org.ddr.poi.latex;
+
+import org.ddr.poi.math.MathRenderConfig;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LaTeX转换结果的LRU缓存，线程安全
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class LaTeXCache {
+    /**
+     * 默认缓存的LaTeX数量
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final LaTeXCache DEFAULT = new LaTeXCache(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final Map<String, LaTeXFormula> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public LaTeXCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, LaTeXFormula>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, LaTeXFormula> eldest) {
+                return size() > LaTeXCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return 所有公式渲染配置默认共享的缓存
+     */
+    public static LaTeXCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 生成缓存键
+     *
+     * @param latex LaTeX字符串
+     * @param config 公式渲染配置
+     * @return 缓存键
+     */
+    static String key(String latex, MathRenderConfig config) {
+        return config.getEmptyEOfNaryOption().name() + '\n' + latex;
+    }
+
+    /**
+     * 获取缓存的转换结果，结果中的公式在插入文档时会被复制
+     *
+     * @param key 缓存键
+     * @return 转换结果，未命中时为null
+     */
+    LaTeXFormula get(String key) {
+        LaTeXFormula formula;
+        synchronized (cache) {
+            formula = cache.get(key);
+        }
+        if (formula == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return formula;
+    }
+
+    void put(String key, LaTeXFormula formula) {
+        synchronized (cache) {
+            cache.put(key, formula);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return 当前缓存的LaTeX数量
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,91 @@
+package org.ddr.poi.latex;
+
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * LaTeX转换结果，由文本、公式及带编号的公式组成，创建后不再修改，可在多线程间共享
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+final class LaTeXFormula {
+    private final boolean valid;
+    private final List<Segment> segments;
+
+    LaTeXFormula(boolean valid, List<Segment> segments) {
+        this.valid = valid;
+        this.segments = Collections.unmodifiableList(new ArrayList<>(segments));
+    }
+
+    /**
+     * @return LaTeX是否解析成功
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    List<Segment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * 转换结果片段
+     */
+    static final class Segment {
+        private final String text;
+        private final CTOMath math;
+        private final CTOMath tag;
+        private final boolean tagged;
+
+        private Segment(String text, CTOMath math, CTOMath tag, boolean tagged) {
+            this.text = text;
+            this.math = math;
+            this.tag = tag;
+            this.tagged = tagged;
+        }
+
+        static Segment text(String text) {
+            return new Segment(text, null, null, false);
+        }
+
+        static Segment math(CTOMath math) {
+            return new Segment(null, math, null, false);
+        }
+
+        static Segment tag(CTOMath math, CTOMath tag) {
+            return new Segment(null, math, tag, true);
+        }
+
+        /**
+         * @return 文本，非文本片段为null
+         */
+        String getText() {
+            return text;
+        }
+
+        /**
+         * @return 公式，转换失败时为null
+         */
+        CTOMath getMath() {
+            return math;
+        }
+
+        /**
+         * @return 公式编号，转换失败或非编号公式时为null
+         */
+        CTOMath getTag() {
+            return tag;
+        }
+
+        /**
+         * @return 是否为带编号的公式
+         */
+        boolean isTagged() {
+            return tagged;
+        }
+    }
+}
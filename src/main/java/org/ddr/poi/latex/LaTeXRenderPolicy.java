@@ -6,7 +6,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.xwpf.usermodel.XWPFParagraph;
 import org.ddr.poi.math.MathRenderConfig;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
-import uk.ac.ed.ph.snuggletex.SnuggleSession;
 
 /**
  * LaTeX字符串渲染策略
@@ -16,7 +15,7 @@ import uk.ac.ed.ph.snuggletex.SnuggleSession;
  */
 public class LaTeXRenderPolicy extends AbstractRenderPolicy<String> {
     private final MathRenderConfig config;
-    private SnuggleSession session;
+    private LaTeXFormula formula;
 
     public LaTeXRenderPolicy() {
         this(new MathRenderConfig());
@@ -37,15 +36,15 @@ public class LaTeXRenderPolicy extends AbstractRenderPolicy<String> {
         }
 
         // https://www2.ph.ed.ac.uk/snuggletex/documentation/overview-and-features.html
-        session = LaTeXUtils.createSession();
-        return LaTeXUtils.parse(session, data);
+        formula = LaTeXUtils.convert(data, config);
+        return formula.isValid();
     }
 
     @Override
     public void doRender(RenderContext<String> context) throws Exception {
         XWPFParagraph paragraph = (XWPFParagraph) context.getRun().getParent();
         CTR ctr = context.getRun().getCTR();
-        LaTeXUtils.renderTo(paragraph, ctr, session, config);
+        LaTeXUtils.renderTo(paragraph, ctr, formula);
     }
 
     @Override
@@ -11,11 +11,13 @@ import org.apache.xmlbeans.XmlObject;
 import org.ddr.poi.html.util.Colors;
 import org.ddr.poi.math.MathMLUtils;
 import org.ddr.poi.math.MathRenderConfig;
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTBookmark;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTPPr;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
@@ -27,7 +29,6 @@ import uk.ac.ed.ph.snuggletex.definitions.CorePackageDefinitions;
 import uk.ac.ed.ph.snuggletex.definitions.Globals;
 import uk.ac.ed.ph.snuggletex.definitions.LaTeXMode;
 import uk.ac.ed.ph.snuggletex.dombuilding.MathComplexCommandHandler;
-import uk.ac.ed.ph.snuggletex.internal.util.XMLUtilities;
 import uk.ac.ed.ph.snuggletex.utilities.DefaultTransformerFactoryChooser;
 
 import java.io.BufferedReader;
@@ -35,6 +36,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -51,6 +54,11 @@ public class LaTeXUtils {
 
     static final ConcurrentHashMap<String, String> textCircledMap = new ConcurrentHashMap<>();
 
+    /**
+     * 空闲Snuggle会话数量上限
+     */
+    private static final int MAX_IDLE_SESSIONS = Runtime.getRuntime().availableProcessors() * 2;
+
     /**
      * 创建Snuggle会话
      */
@@ -82,6 +90,18 @@ public class LaTeXUtils {
         return valid;
     }
 
+    /**
+     * 将LaTeX渲染到段落中，相同的LaTeX只转换一次
+     *
+     * @param paragraph 段落
+     * @param ctr       目标run，如果总是在末尾渲染可传null
+     * @param latex     LaTeX字符串
+     * @param config    公式渲染配置
+     */
+    public static void renderTo(XWPFParagraph paragraph, CTR ctr, String latex, MathRenderConfig config) {
+        renderTo(paragraph, ctr, convert(latex, config));
+    }
+
     /**
      * 将LaTeX渲染到段落中
      *
@@ -91,26 +111,84 @@ public class LaTeXUtils {
      * @param config    公式渲染配置
      */
     public static void renderTo(XWPFParagraph paragraph, CTR ctr, SnuggleSession session, MathRenderConfig config) {
-        CTR target = ctr;
+        renderTo(paragraph, ctr, convert(session, true, config));
+    }
+
+    /**
+     * 解析并转换LaTeX，优先使用缓存
+     *
+     * @param latex  LaTeX字符串
+     * @param config 公式渲染配置
+     * @return 转换结果
+     */
+    static LaTeXFormula convert(String latex, MathRenderConfig config) {
+        LaTeXCache cache = config.getLaTeXCache();
+        String key = null;
+        if (cache != null) {
+            key = LaTeXCache.key(latex, config);
+            LaTeXFormula cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        SnuggleSession session = Initializer.SESSION_POOL.borrow();
+        LaTeXFormula formula;
+        try {
+            boolean valid = parse(session, latex);
+            formula = convert(session, valid, config);
+        } finally {
+            Initializer.SESSION_POOL.release(session);
+        }
+        if (cache != null) {
+            cache.put(key, formula);
+        }
+        return formula;
+    }
+
+    private static LaTeXFormula convert(SnuggleSession session, boolean valid, MathRenderConfig config) {
         NodeList nodeList = session.buildDOMSubtree();
         int length = nodeList.getLength();
+        List<LaTeXFormula.Segment> segments = new ArrayList<>(length);
         for (int i = 0; i < length; i++) {
             Node node = nodeList.item(i);
             if (node instanceof Text) {
-                target = paragraph.getCTP().addNewR();
-                target.addNewT().setStringValue(node.getTextContent());
+                segments.add(LaTeXFormula.Segment.text(node.getTextContent()));
             } else if (TAG_MATH.equals(node.getLocalName())) {
-                String math = XMLUtilities.serializeNode(node,
-                        Initializer.SNUGGLE_ENGINE.getDefaultXMLStringOutputOptions());
-
-                MathMLUtils.renderTo(paragraph, target, math, config);
+                CTOMath math = MathMLUtils.convert((Element) node, config);
+                if (math != null) {
+                    segments.add(LaTeXFormula.Segment.math(math));
+                }
             } else if (TAG_TAG.equals(node.getLocalName())) {
-                renderTag(paragraph, ctr, node, config);
+                CTOMath math = MathMLUtils.convert((Element) node.getFirstChild(), config);
+                CTOMath tag = MathMLUtils.convert((Element) node.getLastChild(), config);
+                segments.add(LaTeXFormula.Segment.tag(math, tag));
+            }
+        }
+        return new LaTeXFormula(valid, segments);
+    }
+
+    /**
+     * 将转换结果渲染到段落中
+     *
+     * @param paragraph 段落
+     * @param ctr       目标run，如果总是在末尾渲染可传null
+     * @param formula   转换结果
+     */
+    static void renderTo(XWPFParagraph paragraph, CTR ctr, LaTeXFormula formula) {
+        CTR target = ctr;
+        for (LaTeXFormula.Segment segment : formula.getSegments()) {
+            if (segment.getText() != null) {
+                target = paragraph.getCTP().addNewR();
+                target.addNewT().setStringValue(segment.getText());
+            } else if (segment.isTagged()) {
+                renderTag(paragraph, ctr, segment.getMath(), segment.getTag());
+            } else {
+                MathMLUtils.insertMath(paragraph, target, segment.getMath());
             }
         }
     }
 
-    private static void renderTag(XWPFParagraph paragraph, CTR ctr, Node node, MathRenderConfig config) {
+    private static void renderTag(XWPFParagraph paragraph, CTR ctr, CTOMath math, CTOMath tag) {
         XmlCursor pCursor = paragraph.getCTP().newCursor();
         pCursor.push();
 
@@ -152,21 +230,24 @@ public class LaTeXUtils {
         pCursor.dispose();
 
         // render math
-        String math = XMLUtilities.serializeNode(node.getFirstChild(),
-                Initializer.SNUGGLE_ENGINE.getDefaultXMLStringOutputOptions());
-        MathMLUtils.renderTo(mathParagraph, mathParagraph.createRun().getCTR(), math, config);
+        CTR mathRun = mathParagraph.createRun().getCTR();
+        if (math != null) {
+            MathMLUtils.insertMath(mathParagraph, mathRun, math);
+        }
 
         // render tag
         XWPFTableCell tagCell = row.createCell();
         tagCell.setVerticalAlignment(XWPFTableCell.XWPFVertAlign.CENTER);
         XWPFParagraph tagParagraph = tagCell.getParagraphs().get(0);
-        String tag = XMLUtilities.serializeNode(node.getLastChild(),
-                Initializer.SNUGGLE_ENGINE.getDefaultXMLStringOutputOptions());
-        MathMLUtils.renderTo(tagParagraph, tagParagraph.createRun().getCTR(), tag, config);
+        CTR tagRun = tagParagraph.createRun().getCTR();
+        if (tag != null) {
+            MathMLUtils.insertMath(tagParagraph, tagRun, tag);
+        }
     }
 
     private static class Initializer {
         static final SnuggleEngine SNUGGLE_ENGINE = new SnuggleEngine(DefaultTransformerFactoryChooser.getInstance(), null);
+        static final SessionPool SESSION_POOL = new SessionPool(SNUGGLE_ENGINE, MAX_IDLE_SESSIONS);
 
         static {
             CorePackageDefinitions.getPackage().loadMathCharacterAliases("math-character-aliases.txt");
@@ -0,0 +1,46 @@
+package org.ddr.poi.latex;
+
+import uk.ac.ed.ph.snuggletex.SnuggleEngine;
+import uk.ac.ed.ph.snuggletex.SnuggleSession;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Snuggle会话池，会话非线程安全，归还时重置，空闲会话超过上限时直接丢弃
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+class SessionPool {
+    private final SnuggleEngine engine;
+    private final BlockingQueue<SnuggleSession> idle;
+
+    SessionPool(SnuggleEngine engine, int maxIdle) {
+        if (maxIdle <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxIdle);
+        }
+        this.engine = engine;
+        this.idle = new ArrayBlockingQueue<>(maxIdle);
+    }
+
+    /**
+     * 借用会话，使用完毕后应调用{@link #release(SnuggleSession)}归还
+     *
+     * @return 空闲会话，没有时新建
+     */
+    SnuggleSession borrow() {
+        SnuggleSession session = idle.poll();
+        return session == null ? engine.createSession() : session;
+    }
+
+    /**
+     * 重置并归还会话
+     *
+     * @param session 会话
+     */
+    void release(SnuggleSession session) {
+        session.reset();
+        idle.offer(session);
+    }
+}
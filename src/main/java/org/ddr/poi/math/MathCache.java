@@ -0,0 +1,215 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.math;
+
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * MathML转换结果的LRU缓存，线程安全，取出的总是深拷贝
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class MathCache {
+    /**
+     * 默认缓存的公式数量
+     */
+    public static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final MathCache DEFAULT = new MathCache(DEFAULT_MAX_SIZE);
+
+    private final int maxSize;
+    private final Map<String, CTOMath> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public MathCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.cache = new LinkedHashMap<String, CTOMath>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CTOMath> eldest) {
+                return size() > MathCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return 所有公式渲染配置默认共享的缓存
+     */
+    public static MathCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * 生成缓存键，忽略标签之间的空白字符
+     *
+     * @param math MathML字符串
+     * @param config 公式渲染配置
+     * @return 缓存键
+     */
+    static String key(String math, MathRenderConfig config) {
+        String mode = config.getEmptyEOfNaryOption().name();
+        StringBuilder sb = new StringBuilder(mode.length() + 1 + math.length());
+        sb.append(mode).append('\n');
+        int whitespaceStart = -1;
+        for (int i = 0, l = math.length(); i < l; i++) {
+            char c = math.charAt(i);
+            if (Character.isWhitespace(c)) {
+                if (whitespaceStart < 0) {
+                    whitespaceStart = i;
+                }
+                continue;
+            }
+            if (whitespaceStart >= 0) {
+                // 仅保留文本内容中的空白
+                boolean betweenTags = c == '<' && (whitespaceStart == 0 || math.charAt(whitespaceStart - 1) == '>');
+                if (!betweenTags && whitespaceStart > 0) {
+                    sb.append(math, whitespaceStart, i);
+                }
+                whitespaceStart = -1;
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 由DOM生成缓存键，忽略仅包含空白的文本节点
+     *
+     * @param math math元素
+     * @param config 公式渲染配置
+     * @return 缓存键
+     */
+    static String key(Element math, MathRenderConfig config) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(config.getEmptyEOfNaryOption().name()).append('\n');
+        appendKey(sb, math);
+        return sb.toString();
+    }
+
+    private static void appendKey(StringBuilder sb, Node node) {
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            String name = node.getLocalName() == null ? node.getNodeName() : node.getLocalName();
+            sb.append('<').append(name);
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                String attributeName = attribute.getNodeName();
+                if (!attributeName.equals("xmlns") && !attributeName.startsWith("xmlns:")) {
+                    sb.append(' ').append(attributeName).append("=\"");
+                    appendEscaped(sb, attribute.getNodeValue());
+                    sb.append('"');
+                }
+            }
+            sb.append('>');
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                appendKey(sb, child);
+            }
+            sb.append("</").append(name).append('>');
+        } else if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+            String text = node.getNodeValue();
+            if (!text.trim().isEmpty()) {
+                appendEscaped(sb, text);
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder sb, String text) {
+        for (int i = 0, l = text.length(); i < l; i++) {
+            char c = text.charAt(i);
+            if (c == '<' || c == '&' || c == '"') {
+                sb.append("&#").append((int) c).append(';');
+            } else {
+                sb.append(c);
+            }
+        }
+    }
+
+    /**
+     * 获取缓存的公式
+     *
+     * @param key 缓存键
+     * @return 公式的深拷贝，未命中时为null
+     */
+    CTOMath get(String key) {
+        CTOMath oMath;
+        synchronized (cache) {
+            oMath = cache.get(key);
+        }
+        if (oMath == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return (CTOMath) oMath.copy();
+    }
+
+    /**
+     * 缓存公式，调用方之后不应再修改该公式
+     *
+     * @param key 缓存键
+     * @param oMath 公式
+     */
+    void put(String key, CTOMath oMath) {
+        synchronized (cache) {
+            cache.put(key, oMath);
+        }
+    }
+
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * @return 当前缓存的公式数量
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+}
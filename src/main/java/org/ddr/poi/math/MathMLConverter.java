@@ -0,0 +1,771 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.math;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 常用MathML子集到OMML的转换器，输出与MML2OMML.XSL保持一致，遇到不支持的结构时返回null以便回退到XSL转换
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+final class MathMLConverter {
+    private static final String NS = MathMLUtils.MATH_NS;
+
+    private static final QName R = new QName(NS, "r");
+    private static final QName RPR = new QName(NS, "rPr");
+    private static final QName NOR = new QName(NS, "nor");
+    private static final QName SCR = new QName(NS, "scr");
+    private static final QName STY = new QName(NS, "sty");
+    private static final QName T = new QName(NS, "t");
+    private static final QName E = MathMLUtils.E_QNAME;
+    private static final QName SUB = new QName(NS, "sub");
+    private static final QName SUP = new QName(NS, "sup");
+    private static final QName S_SUB = new QName(NS, "sSub");
+    private static final QName S_SUP = new QName(NS, "sSup");
+    private static final QName S_SUB_SUP = new QName(NS, "sSubSup");
+    private static final QName F = new QName(NS, "f");
+    private static final QName F_PR = new QName(NS, "fPr");
+    private static final QName TYPE = new QName(NS, "type");
+    private static final QName NUM = new QName(NS, "num");
+    private static final QName DEN = new QName(NS, "den");
+    private static final QName RAD = new QName(NS, "rad");
+    private static final QName RAD_PR = new QName(NS, "radPr");
+    private static final QName DEG_HIDE = new QName(NS, "degHide");
+    private static final QName DEG = new QName(NS, "deg");
+    private static final QName NARY = MathMLUtils.NARY_QNAME;
+    private static final QName NARY_PR = new QName(NS, "naryPr");
+    private static final QName CHR = new QName(NS, "chr");
+    private static final QName LIM_LOC = new QName(NS, "limLoc");
+    private static final QName GROW = new QName(NS, "grow");
+    private static final QName SUB_HIDE = new QName(NS, "subHide");
+    private static final QName SUP_HIDE = new QName(NS, "supHide");
+    private static final QName LIM_LOW = new QName(NS, "limLow");
+    private static final QName LIM_UPP = new QName(NS, "limUpp");
+    private static final QName LIM = new QName(NS, "lim");
+    private static final QName D = new QName(NS, "d");
+    private static final QName D_PR = new QName(NS, "dPr");
+    private static final QName BEG_CHR = new QName(NS, "begChr");
+    private static final QName SEP_CHR = new QName(NS, "sepChr");
+    private static final QName END_CHR = new QName(NS, "endChr");
+    private static final QName M = new QName(NS, "m");
+    private static final QName M_PR = new QName(NS, "mPr");
+    private static final QName BASE_JC = new QName(NS, "baseJc");
+    private static final QName PLC_HIDE = new QName(NS, "plcHide");
+    private static final QName MCS = new QName(NS, "mcs");
+    private static final QName MC = new QName(NS, "mc");
+    private static final QName MC_PR = new QName(NS, "mcPr");
+    private static final QName COUNT = new QName(NS, "count");
+    private static final QName MC_JC = new QName(NS, "mcJc");
+    private static final QName MR = new QName(NS, "mr");
+
+    private static final String ON = "on";
+    private static final String OFF = "off";
+    private static final String TRUE = "true";
+
+    /**
+     * 可作为N元运算符的字符，同MML2OMML.XSL的isNaryOper
+     */
+    private static final Set<String> NARY_CHARS = new HashSet<>(Arrays.asList(
+            "∫", "∬", "∭", "∮", "∯", "∰", "∲", "∳", "∱",
+            "∩", "∪", "∏", "∐", "∑", "⋀", "⋁", "⋂", "⋃"));
+    /**
+     * 默认可伸缩的N元运算符
+     */
+    private static final Set<String> GROW_CHARS = new HashSet<>(Arrays.asList(
+            "∫", "∮", "∯", "∲", "∳", "∩", "∪", "∏", "∑",
+            "⋀", "⋁", "⋂", "⋃"));
+    /**
+     * mathvariant对应的m:scr及m:sty
+     */
+    private static final Map<String, String[]> VARIANTS = new HashMap<>();
+
+    static {
+        VARIANTS.put("normal", new String[]{null, "p"});
+        VARIANTS.put("bold", new String[]{null, "b"});
+        VARIANTS.put("italic", new String[]{null, null});
+        VARIANTS.put("bold-italic", new String[]{null, "bi"});
+        VARIANTS.put("double-struck", new String[]{"double-struck", "p"});
+        VARIANTS.put("script", new String[]{"script", null});
+        VARIANTS.put("bold-script", new String[]{"script", "b"});
+        VARIANTS.put("fraktur", new String[]{"fraktur", "p"});
+        VARIANTS.put("bold-fraktur", new String[]{"fraktur", "b"});
+        VARIANTS.put("sans-serif", new String[]{"sans-serif", "p"});
+        VARIANTS.put("bold-sans-serif", new String[]{"sans-serif", "b"});
+        VARIANTS.put("sans-serif-italic", new String[]{"sans-serif", null});
+        VARIANTS.put("sans-serif-bold-italic", new String[]{"sans-serif", "bi"});
+    }
+
+    /**
+     * 遇到不支持的结构时中止转换，无需堆栈
+     */
+    private static final RuntimeException UNSUPPORTED = new RuntimeException("Unsupported MathML", null, false, false) {
+    };
+
+    private final XmlCursor cursor;
+    private final MathRenderConfig config;
+
+    private MathMLConverter(XmlCursor cursor, MathRenderConfig config) {
+        this.cursor = cursor;
+        this.config = config;
+    }
+
+    /**
+     * 转换MathML，空N元组的处理与XSL转换后的处理相同
+     *
+     * @param math math元素
+     * @param config 公式渲染配置
+     * @return oMath元素，包含不支持的结构时为null
+     */
+    static CTOMath convert(Element math, MathRenderConfig config) {
+        if (!"math".equals(localName(math))) {
+            return null;
+        }
+        CTOMath oMath = CTOMath.Factory.newInstance();
+        XmlCursor cursor = oMath.newCursor();
+        cursor.toEndToken();
+        try {
+            new MathMLConverter(cursor, config).children(math);
+            return oMath;
+        } catch (RuntimeException e) {
+            if (e == UNSUPPORTED) {
+                return null;
+            }
+            throw e;
+        } finally {
+            cursor.dispose();
+        }
+    }
+
+    /**
+     * 在空的N元组参数中插入幻影，指针需位于m:e内部，完成后指针位于幻影之后
+     *
+     * @param cursor xml指针
+     * @param mode 显示模式
+     */
+    static void insertEmptyNaryArgument(XmlCursor cursor, EmptyEOfNaryDisplayMode mode) {
+        cursor.beginElement(MathMLUtils.PHANT_QNAME);
+        cursor.beginElement(MathMLUtils.PHANT_PR_QNAME);
+        if (mode.isHidden()) {
+            cursor.beginElement(MathMLUtils.SHOW_QNAME);
+            cursor.insertAttributeWithValue(MathMLUtils.VALUE_QNAME, OFF);
+            cursor.toNextToken();
+        }
+        if (mode.isZeroWidth()) {
+            cursor.beginElement(MathMLUtils.ZERO_WIDTH_QNAME);
+            cursor.toNextToken();
+        }
+        cursor.toNextToken();
+        cursor.beginElement(E);
+        cursor.toNextToken();
+        cursor.toNextToken();
+    }
+
+    private void children(Element parent) {
+        List<Element> children = elements(parent);
+        // 同XSL，相邻且样式相同的文本合并为一个m:r
+        Run pending = null;
+        for (int i = 0; i < children.size(); i++) {
+            Element child = children.get(i);
+            String nary = naryChar(child);
+            if (nary == null && isRunToken(child)) {
+                Run run = token(child);
+                if (pending != null && pending.isSameStyle(run)) {
+                    pending.text.append(run.text);
+                } else {
+                    write(pending);
+                    pending = run;
+                }
+                continue;
+            }
+            write(pending);
+            pending = null;
+            if (nary == null) {
+                element(child);
+                continue;
+            }
+            // 紧随其后的mrow或mstyle作为N元组的参数
+            Element argument = null;
+            if (i + 1 < children.size()) {
+                Element next = children.get(i + 1);
+                String nextName = localName(next);
+                if ("mrow".equals(nextName) || "mstyle".equals(nextName)) {
+                    argument = next;
+                    i++;
+                }
+            }
+            nary(child, nary, argument);
+        }
+        write(pending);
+    }
+
+    private void element(Element element) {
+        String name = localName(element);
+        switch (name) {
+            case "mi":
+            case "mn":
+            case "mo":
+            case "mtext":
+                write(token(element));
+                break;
+            case "mrow":
+                if (isLinearFraction(element) || isFunction(element)) {
+                    throw UNSUPPORTED;
+                }
+                children(element);
+                break;
+            case "mstyle":
+                children(element);
+                break;
+            case "semantics":
+                List<Element> semantics = elements(element);
+                if (!semantics.isEmpty()) {
+                    element(semantics.get(0));
+                }
+                break;
+            case "mspace":
+                break;
+            case "msub":
+                script(element, S_SUB, SUB, null);
+                break;
+            case "msup":
+                script(element, S_SUP, null, SUP);
+                break;
+            case "msubsup":
+                script(element, S_SUB_SUP, SUB, SUP);
+                break;
+            case "mfrac":
+                fraction(element);
+                break;
+            case "msqrt":
+                begin(RAD);
+                begin(RAD_PR);
+                property(DEG_HIDE, ON);
+                end();
+                begin(DEG);
+                end();
+                begin(E);
+                children(element);
+                end();
+                end();
+                break;
+            case "mroot":
+                root(element);
+                break;
+            case "munder":
+            case "mover":
+            case "munderover":
+                underOver(element, name);
+                break;
+            case "mfenced":
+                fenced(element);
+                break;
+            case "mtable":
+                table(element);
+                break;
+            default:
+                throw UNSUPPORTED;
+        }
+    }
+
+    private Run token(Element token) {
+        if (token.hasAttribute("fontweight") || token.hasAttribute("fontstyle") || token.hasAttribute("fontfamily")
+                || elements(token).size() > 0) {
+            throw UNSUPPORTED;
+        }
+        String text = outputText(normalizeSpace(token.getTextContent()));
+        String name = localName(token);
+        Run run = new Run(text);
+        String variant = token.getAttribute("mathvariant");
+        if (!variant.isEmpty()) {
+            String[] styles = VARIANTS.get(variant);
+            if (styles == null || "mtext".equals(name)) {
+                throw UNSUPPORTED;
+            }
+            run.scr = styles[0];
+            run.sty = styles[1];
+        } else if ("mi".equals(name)) {
+            if (text.codePointCount(0, text.length()) > 1) {
+                run.sty = "p";
+            }
+        } else if ("mn".equals(name)) {
+            if (!isNumber(text)) {
+                run.sty = "p";
+            }
+        } else if ("mtext".equals(name)) {
+            run.nor = true;
+        }
+        return run;
+    }
+
+    private void write(Run run) {
+        if (run == null) {
+            return;
+        }
+        begin(R);
+        if (run.nor || run.scr != null || run.sty != null) {
+            begin(RPR);
+            if (run.nor) {
+                begin(NOR);
+                end();
+            }
+            if (run.scr != null) {
+                property(SCR, run.scr);
+            }
+            if (run.sty != null) {
+                property(STY, run.sty);
+            }
+            end();
+        }
+        begin(T);
+        cursor.insertChars(run.text.toString());
+        end();
+        end();
+    }
+
+    private void script(Element element, QName name, QName sub, QName sup) {
+        List<Element> children = elements(element);
+        if (children.size() != (sub != null && sup != null ? 3 : 2)) {
+            throw UNSUPPORTED;
+        }
+        begin(name);
+        argument(E, children.get(0));
+        int index = 1;
+        if (sub != null) {
+            argument(sub, children.get(index++));
+        }
+        if (sup != null) {
+            argument(sup, children.get(index));
+        }
+        end();
+    }
+
+    private void fraction(Element element) {
+        List<Element> children = elements(element);
+        if (children.size() != 2) {
+            throw UNSUPPORTED;
+        }
+        String type = "bar";
+        if (TRUE.equalsIgnoreCase(element.getAttribute("bevelled"))) {
+            type = "skw";
+        } else if (isZeroLength(element.getAttribute("linethickness"))) {
+            type = "noBar";
+        }
+        begin(F);
+        begin(F_PR);
+        property(TYPE, type);
+        end();
+        argument(NUM, children.get(0));
+        argument(DEN, children.get(1));
+        end();
+    }
+
+    private void root(Element element) {
+        List<Element> children = elements(element);
+        if (children.size() != 2) {
+            throw UNSUPPORTED;
+        }
+        begin(RAD);
+        begin(RAD_PR);
+        property(DEG_HIDE, OFF);
+        end();
+        argument(DEG, children.get(1));
+        argument(E, children.get(0));
+        end();
+    }
+
+    private void underOver(Element element, String name) {
+        List<Element> children = elements(element);
+        boolean both = "munderover".equals(name);
+        if (children.size() != (both ? 3 : 2)) {
+            throw UNSUPPORTED;
+        }
+        // 重音、上下划线及括号由XSL映射为m:acc、m:bar等结构
+        if (TRUE.equalsIgnoreCase(element.getAttribute("accent"))
+                || TRUE.equalsIgnoreCase(element.getAttribute("accentunder"))) {
+            throw UNSUPPORTED;
+        }
+        for (int i = 1; i < children.size(); i++) {
+            if ("mo".equals(localName(children.get(i)))) {
+                throw UNSUPPORTED;
+            }
+        }
+        if (both) {
+            begin(LIM_UPP);
+            begin(E);
+            limit(LIM_LOW, children.get(0), children.get(1));
+            end();
+            argument(LIM, children.get(2));
+            end();
+        } else {
+            limit("munder".equals(name) ? LIM_LOW : LIM_UPP, children.get(0), children.get(1));
+        }
+    }
+
+    private void limit(QName name, Element base, Element limit) {
+        begin(name);
+        argument(E, base);
+        argument(LIM, limit);
+        end();
+    }
+
+    private void nary(Element element, String chr, Element argument) {
+        String name = localName(element);
+        List<Element> children = elements(element);
+        boolean underOver = "munder".equals(name) || "mover".equals(name) || "munderover".equals(name);
+        boolean hasSub = !"mover".equals(name) && !"msup".equals(name);
+        boolean hasSup = !"munder".equals(name) && !"msub".equals(name);
+        if (children.size() != (hasSub && hasSup ? 3 : 2)) {
+            throw UNSUPPORTED;
+        }
+
+        String stretchy = children.get(0).getAttribute("stretchy");
+        String grow;
+        if (TRUE.equalsIgnoreCase(stretchy)) {
+            grow = "1";
+        } else if ("false".equalsIgnoreCase(stretchy)) {
+            grow = "0";
+        } else {
+            grow = GROW_CHARS.contains(chr) ? "1" : "0";
+        }
+
+        begin(NARY);
+        begin(NARY_PR);
+        property(CHR, chr);
+        property(LIM_LOC, underOver ? "undOvr" : "subSup");
+        property(GROW, grow);
+        property(SUB_HIDE, hasSub ? OFF : ON);
+        property(SUP_HIDE, hasSup ? OFF : ON);
+        end();
+        begin(SUB);
+        if (hasSub) {
+            element(children.get(1));
+        }
+        end();
+        begin(SUP);
+        if (hasSup) {
+            element(children.get(hasSub ? 2 : 1));
+        }
+        end();
+        begin(E);
+        if (argument != null && !elements(argument).isEmpty()) {
+            element(argument);
+        } else if (config.getEmptyEOfNaryOption() != EmptyEOfNaryDisplayMode.DEFAULT) {
+            insertEmptyNaryArgument(cursor, config.getEmptyEOfNaryOption());
+        }
+        end();
+        end();
+    }
+
+    private void fenced(Element element) {
+        begin(D);
+        begin(D_PR);
+        if (element.hasAttribute("open") && !"(".equals(element.getAttribute("open"))) {
+            property(BEG_CHR, element.getAttribute("open"));
+        }
+        String separator = ",";
+        if (element.hasAttribute("separators")) {
+            separator = element.getAttribute("separators").trim();
+            if (!separator.isEmpty()) {
+                separator = separator.substring(0, separator.offsetByCodePoints(0, 1));
+            }
+        }
+        property(SEP_CHR, separator);
+        if (element.hasAttribute("close") && !")".equals(element.getAttribute("close"))) {
+            property(END_CHR, element.getAttribute("close"));
+        }
+        end();
+        for (Element child : elements(element)) {
+            argument(E, child);
+        }
+        end();
+    }
+
+    private void table(Element element) {
+        List<List<Element>> rows = new ArrayList<>();
+        int columns = 0;
+        for (Element row : elements(element)) {
+            if (!"mtr".equals(localName(row)) || row.hasAttribute("columnalign")) {
+                throw UNSUPPORTED;
+            }
+            List<Element> cells = elements(row);
+            for (Element cell : cells) {
+                if (!"mtd".equals(localName(cell)) || cell.hasAttribute("columnalign")
+                        || cell.hasAttribute("columnspan") || cell.hasAttribute("rowspan")) {
+                    throw UNSUPPORTED;
+                }
+            }
+            rows.add(cells);
+            columns = Math.max(columns, cells.size());
+        }
+
+        begin(M);
+        begin(M_PR);
+        property(BASE_JC, "center");
+        property(PLC_HIDE, ON);
+        begin(MCS);
+        begin(MC);
+        begin(MC_PR);
+        property(COUNT, String.valueOf(columns));
+        property(MC_JC, "center");
+        end();
+        end();
+        end();
+        end();
+        for (List<Element> cells : rows) {
+            begin(MR);
+            for (int i = 0; i < columns; i++) {
+                begin(E);
+                if (i < cells.size()) {
+                    children(cells.get(i));
+                }
+                end();
+            }
+            end();
+        }
+        end();
+    }
+
+    private void argument(QName name, Element element) {
+        begin(name);
+        element(element);
+        end();
+    }
+
+    private void begin(QName name) {
+        cursor.beginElement(name);
+    }
+
+    private void end() {
+        cursor.toNextToken();
+    }
+
+    private void property(QName name, String value) {
+        cursor.beginElement(name);
+        cursor.insertAttributeWithValue(MathMLUtils.VALUE_QNAME, value);
+        cursor.toNextToken();
+    }
+
+    /**
+     * 判断是否为N元组，即基础部分为N元运算符的上下标结构
+     *
+     * @param element 元素
+     * @return N元运算符，不是N元组时为null
+     */
+    private static String naryChar(Element element) {
+        String name = localName(element);
+        switch (name) {
+            case "munder":
+                if (TRUE.equalsIgnoreCase(element.getAttribute("accentunder"))) {
+                    return null;
+                }
+                break;
+            case "mover":
+            case "munderover":
+            case "msub":
+            case "msup":
+            case "msubsup":
+                if (TRUE.equalsIgnoreCase(element.getAttribute("accent"))) {
+                    return null;
+                }
+                break;
+            default:
+                return null;
+        }
+        List<Element> children = elements(element);
+        if (children.isEmpty()) {
+            return null;
+        }
+        Element base = children.get(0);
+        // 仅由mrow、mstyle包裹的mo
+        while (!"mo".equals(localName(base))) {
+            String baseName = localName(base);
+            List<Element> baseChildren = elements(base);
+            if (!"mrow".equals(baseName) && !"mstyle".equals(baseName) || baseChildren.size() != 1) {
+                return null;
+            }
+            base = baseChildren.get(0);
+        }
+        String chr = normalizeSpace(base.getTextContent());
+        return NARY_CHARS.contains(chr) ? chr : null;
+    }
+
+    /**
+     * 形如a/b的行内分式由XSL转换
+     */
+    private static boolean isLinearFraction(Element mrow) {
+        for (Element child : elements(mrow)) {
+            if ("mo".equals(localName(child)) && "/".equals(normalizeSpace(child.getTextContent()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isNumber(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != ',') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZeroLength(String length) {
+        length = length.trim();
+        if (length.isEmpty()) {
+            return false;
+        }
+        int end = 0;
+        while (end < length.length() && (Character.isDigit(length.charAt(end)) || length.charAt(end) == '.')) {
+            end++;
+        }
+        try {
+            return end > 0 && Double.parseDouble(length.substring(0, end)) == 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static List<Element> elements(Element parent) {
+        List<Element> elements = new ArrayList<>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() == Node.ELEMENT_NODE) {
+                elements.add((Element) child);
+            } else if (child.getNodeType() == Node.TEXT_NODE && !isMathToken(parent)
+                    && !normalizeSpace(child.getNodeValue()).isEmpty()) {
+                throw UNSUPPORTED;
+            }
+        }
+        return elements;
+    }
+
+    /**
+     * 函数名、函数应用符及参数组成的mrow由XSL转换为m:func
+     */
+    private static boolean isFunction(Element mrow) {
+        List<Element> children = elements(mrow);
+        return children.size() == 3 && "mo".equals(localName(children.get(1)))
+                && "\u2061".equals(normalizeSpace(children.get(1).getTextContent()));
+    }
+
+    /**
+     * 同XSL的OutputText模板：去除不可见乘号及零宽空格，替换双等号及不间断空格
+     */
+    private static String outputText(String text) {
+        if (text.indexOf('\u2062') < 0 && text.indexOf('\u200B') < 0 && text.indexOf('\u2A75') < 0
+                && text.indexOf('\u00A0') < 0) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 1);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\u2A75') {
+                sb.append("==");
+            } else if (c == '\u00A0') {
+                sb.append(' ');
+            } else if (c != '\u2062' && c != '\u200B') {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isRunToken(Element element) {
+        String name = localName(element);
+        return "mi".equals(name) || "mn".equals(name) || "mo".equals(name) || "mtext".equals(name);
+    }
+
+    private static boolean isMathToken(Element element) {
+        String name = localName(element);
+        return "mi".equals(name) || "mn".equals(name) || "mo".equals(name) || "mtext".equals(name)
+                || "ms".equals(name) || "annotation".equals(name);
+    }
+
+    private static String localName(Element element) {
+        String name = element.getLocalName();
+        return name == null ? element.getTagName() : name;
+    }
+
+    /**
+     * 同XPath的normalize-space
+     */
+    private static String normalizeSpace(String text) {
+        StringBuilder sb = null;
+        int length = text.length();
+        int start = 0;
+        while (start < length && isSpace(text.charAt(start))) {
+            start++;
+        }
+        int end = length;
+        while (end > start && isSpace(text.charAt(end - 1))) {
+            end--;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isSpace(c)) {
+                if (sb == null) {
+                    sb = new StringBuilder(end - start);
+                    sb.append(text, start, i);
+                }
+                if (!isSpace(text.charAt(i - 1))) {
+                    sb.append(' ');
+                }
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+        return sb == null ? text.substring(start, end) : sb.toString();
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    /**
+     * 待输出的m:r
+     */
+    private static class Run {
+        private final StringBuilder text;
+        private boolean nor;
+        private String scr;
+        private String sty;
+
+        Run(String text) {
+            this.text = new StringBuilder(text);
+        }
+
+        boolean isSameStyle(Run other) {
+            return nor == other.nor && Objects.equals(scr, other.scr) && Objects.equals(sty, other.sty);
+        }
+    }
+}
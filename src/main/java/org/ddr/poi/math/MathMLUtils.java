@@ -16,9 +16,9 @@
 
 package org.ddr.poi.math;
 
+import net.sf.saxon.s9api.DOMDestination;
 import net.sf.saxon.s9api.Processor;
 import net.sf.saxon.s9api.SaxonApiException;
-import net.sf.saxon.s9api.Serializer;
 import net.sf.saxon.s9api.Xslt30Transformer;
 import net.sf.saxon.s9api.XsltCompiler;
 import net.sf.saxon.s9api.XsltExecutable;
@@ -33,13 +33,24 @@ import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTP;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.DOMImplementation;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
 
+import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamSource;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
-import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
@@ -69,31 +80,177 @@ public class MathMLUtils {
 
     private static final Set<String> PREDEFINED = new HashSet<>(Arrays.asList("&amp;", "&lt;", "&gt;", "&quot;", "&apos;"));
 
+    private static final DocumentBuilderFactory DOCUMENT_BUILDER_FACTORY = DocumentBuilderFactory.newInstance();
+    private static final DOMImplementation DOM_IMPLEMENTATION;
+    /**
+     * 解析错误直接抛出，避免默认处理器输出到标准错误流
+     */
+    private static final ErrorHandler PARSE_ERROR_HANDLER = new ErrorHandler() {
+        @Override
+        public void warning(SAXParseException exception) {
+        }
+
+        @Override
+        public void error(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+
+        @Override
+        public void fatalError(SAXParseException exception) throws SAXException {
+            throw exception;
+        }
+    };
+
+    static {
+        DOCUMENT_BUILDER_FACTORY.setNamespaceAware(true);
+        try {
+            DOCUMENT_BUILDER_FACTORY.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            DOCUMENT_BUILDER_FACTORY.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        } catch (ParserConfigurationException e) {
+            log.warn("Failed to configure MathML parser", e);
+        }
+        try {
+            DOM_IMPLEMENTATION = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().getDOMImplementation();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * 将MathML渲染到段落中
      *
      * @param paragraph 段落
      * @param ctr 占位符所属run，如果总是在末尾渲染可传null
      * @param math MathML字符串
+     * @param config 公式渲染配置
      */
     public static void renderTo(XWPFParagraph paragraph, CTR ctr, String math, MathRenderConfig config) {
         if (log.isDebugEnabled()) {
             log.info("Start rendering MathML: {}", math);
         }
-        try (StringReader sr = new StringReader(math);
-             StringWriter sw = new StringWriter()) {
-            Serializer out = newSerializer(sw);
+        MathCache cache = config.getCache();
+        String key = null;
+        if (cache != null) {
+            key = MathCache.key(math, config);
+            CTOMath cached = cache.get(key);
+            if (cached != null) {
+                insertMath(paragraph, ctr, cached);
+                return;
+            }
+        }
+        Document document;
+        try {
+            document = parse(math);
+        } catch (IOException | SAXException e) {
+            log.warn("Failed to render math: {}", math, e);
+            return;
+        }
+        CTOMath oMath = convert(document.getDocumentElement(), config, key);
+        if (oMath != null) {
+            insertMath(paragraph, ctr, oMath);
+        }
+    }
+
+    /**
+     * 将MathML渲染到段落中，直接使用已构建的DOM，无需序列化及重新解析
+     *
+     * @param paragraph 段落
+     * @param ctr 占位符所属run，如果总是在末尾渲染可传null
+     * @param math math元素
+     * @param config 公式渲染配置
+     */
+    public static void renderTo(XWPFParagraph paragraph, CTR ctr, Element math, MathRenderConfig config) {
+        CTOMath oMath = convert(math, config);
+        if (oMath != null) {
+            insertMath(paragraph, ctr, oMath);
+        }
+    }
+
+    /**
+     * 将MathML转换为OMML，结果可能与缓存共享，调用方不应修改，插入文档时会被复制
+     *
+     * @param math math元素
+     * @param config 公式渲染配置
+     * @return oMath元素，转换失败时为null
+     */
+    public static CTOMath convert(Element math, MathRenderConfig config) {
+        MathCache cache = config.getCache();
+        String key = null;
+        if (cache != null) {
+            key = MathCache.key(math, config);
+            CTOMath cached = cache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return convert(math, config, key);
+    }
+
+    private static CTOMath convert(Element math, MathRenderConfig config, String key) {
+        TransformerPool pool = config.getTransformerPool();
+        Xslt30Transformer transformer = null;
+        try {
+            CTOMath oMath = MathMLConverter.convert(math, config);
+            if (oMath == null) {
+                // 原生转换不支持时回退到XSL转换，输入输出均为DOM
+                Document result = DOM_IMPLEMENTATION.createDocument(null, null, null);
 
-            Initializer.TRANSFORMER.transform(new StreamSource(sr), out);
+                transformer = pool.borrow();
+                transformer.transform(new DOMSource(asDocument(math)), new DOMDestination(result));
+                pool.release(transformer);
+                transformer = null;
 
-            String omath = sw.toString();
-            if (log.isDebugEnabled()) {
-                log.info("Output OMath: {}", omath);
+                oMath = toOMath(CTOMath.Factory.parse(result), config);
+                if (log.isDebugEnabled()) {
+                    log.info("Output OMath: {}", oMath);
+                }
             }
-            addMath(paragraph, ctr, omath, config);
-        } catch (IOException | SaxonApiException | XmlException e) {
+            MathCache cache = config.getCache();
+            if (cache != null && key != null) {
+                cache.put(key, oMath);
+            }
+            return oMath;
+        } catch (SaxonApiException | XmlException e) {
             log.warn("Failed to render math: {}", math, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for transformer: {}", math);
+        } finally {
+            if (transformer != null) {
+                pool.release(transformer);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 样式表从文档根节点开始匹配，非根元素需复制到新文档中
+     */
+    private static Document asDocument(Element math) {
+        Document owner = math.getOwnerDocument();
+        if (owner.getDocumentElement() == math) {
+            return owner;
+        }
+        Document document = DOM_IMPLEMENTATION.createDocument(null, null, null);
+        document.appendChild(document.importNode(math, true));
+        return document;
+    }
+
+    /**
+     * 解析MathML字符串
+     *
+     * @param math MathML字符串
+     * @return DOM
+     */
+    private static Document parse(String math) throws IOException, SAXException {
+        DocumentBuilder documentBuilder;
+        try {
+            documentBuilder = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
         }
+        documentBuilder.setErrorHandler(PARSE_ERROR_HANDLER);
+        return documentBuilder.parse(new InputSource(new StringReader(math)));
     }
 
     /**
@@ -116,41 +273,41 @@ public class MathMLUtils {
     }
 
     /**
-     * 用于惰性加载XSL转换器
+     * 创建XSL转换器池，所有池共享同一个编译后的样式表
+     *
+     * @param size 转换器数量上限
+     * @return 转换器池
+     */
+    static TransformerPool newTransformerPool(int size) {
+        return new TransformerPool(Initializer.STYLESHEET, size);
+    }
+
+    /**
+     * 用于惰性加载XSL样式表
      */
     private static class Initializer {
         static final Processor PROCESSOR = new Processor(false);
-        static final Xslt30Transformer TRANSFORMER = createTransformer();
+        static final XsltExecutable STYLESHEET = compileStylesheet();
 
-        private static Xslt30Transformer createTransformer() {
+        private static XsltExecutable compileStylesheet() {
             XsltCompiler compiler = PROCESSOR.newXsltCompiler();
-            XsltExecutable stylesheet;
             try (InputStream inputStream = MathMLUtils.class.getResourceAsStream("/MML2OMML.XSL")) {
-                stylesheet = compiler.compile(new StreamSource(inputStream));
+                return compiler.compile(new StreamSource(inputStream));
             } catch (IOException | SaxonApiException e) {
                 throw new IllegalStateException("Failed to load MML2OMML.XSL", e);
             }
-            return stylesheet.load30();
         }
     }
 
-    private static Serializer newSerializer(StringWriter sw) {
-        Serializer out = Initializer.PROCESSOR.newSerializer(sw);
-        out.setOutputProperty(Serializer.Property.METHOD, "xml");
-        out.setOutputProperty(Serializer.Property.INDENT, "no");
-        out.setOutputProperty(Serializer.Property.OMIT_XML_DECLARATION, "yes");
-        return out;
-    }
 
     /**
-     * 添加公式到Word
+     * 解析并调整公式
      *
-     * @param paragraph 段落
-     * @param ctr 占位符所属run，如果总是在末尾渲染可传null
-     * @param omath 由mathml转换得到的omath字符串
+     * @param ctoMath 由mathml转换得到的omath
+     * @param config 公式渲染配置
+     * @return oMath元素
      */
-    private static void addMath(XWPFParagraph paragraph, CTR ctr, String omath, MathRenderConfig config) throws XmlException {
-        CTOMath ctoMath = CTOMath.Factory.parse(omath);
+    private static CTOMath toOMath(CTOMath ctoMath, MathRenderConfig config) {
         // 老版本Office可能无法正常显示，强制设置公式字体
         XmlCursor xmlCursor = ctoMath.newCursor();
         while (xmlCursor.hasNextToken()) {
@@ -170,16 +327,7 @@ public class MathMLUtils {
                         if (NARY_QNAME.equals(parentName)) {
                             if (config.getEmptyEOfNaryOption() != EmptyEOfNaryDisplayMode.DEFAULT) {
                                 xmlCursor.toNextToken();
-                                xmlCursor.beginElement(PHANT_QNAME);
-                                xmlCursor.beginElement(PHANT_PR_QNAME);
-                                if (config.getEmptyEOfNaryOption().isZeroWidth()) {
-                                    xmlCursor.beginElement(ZERO_WIDTH_QNAME);
-                                    xmlCursor.toParent();
-                                }
-                                if (config.getEmptyEOfNaryOption().isHidden()) {
-                                    xmlCursor.beginElement(SHOW_QNAME);
-                                    xmlCursor.insertAttributeWithValue(VALUE_QNAME, "off");
-                                }
+                                MathMLConverter.insertEmptyNaryArgument(xmlCursor, config.getEmptyEOfNaryOption());
                             }
                         }
                     }
@@ -187,19 +335,29 @@ public class MathMLUtils {
             }
         }
         xmlCursor.dispose();
+        return ctoMath.getOMathArray(0);
+    }
 
+    /**
+     * 添加公式到Word
+     *
+     * @param paragraph 段落
+     * @param ctr 占位符所属run，如果总是在末尾渲染可传null
+     * @param oMath oMath元素，插入时会被复制
+     */
+    public static void insertMath(XWPFParagraph paragraph, CTR ctr, CTOMath oMath) {
         CTP ctp = paragraph.getCTP();
 
         if (ctr == null) {
             ctp.addNewOMath();
-            ctp.setOMathArray(ctp.sizeOfOMathArray() - 1, ctoMath.getOMathArray(0));
+            ctp.setOMathArray(ctp.sizeOfOMathArray() - 1, oMath);
             return;
         }
 
-        insertMathAfterRun(ctp, ctr, ctoMath);
+        insertMathAfterRun(ctp, ctr, oMath);
     }
 
-    private static void insertMathAfterRun(CTP ctp, CTR ctr, CTOMath ctoMath) {
+    private static void insertMathAfterRun(CTP ctp, CTR ctr, CTOMath oMath) {
         XmlCursor xmlCursor;
         int oMathIndex = 0;
         boolean foundCTR = false;
@@ -222,6 +380,6 @@ public class MathMLUtils {
         if (!foundCTR) {
             throw new IllegalArgumentException("The run does not belong to the paragraph");
         }
-        ctp.setOMathArray(oMathIndex, ctoMath.getOMathArray(0));
+        ctp.setOMathArray(oMathIndex, oMath);
     }
 }
@@ -1,5 +1,7 @@
 package org.ddr.poi.math;
 
+import org.ddr.poi.latex.LaTeXCache;
+
 /**
  * 公式渲染配置
  * @author Draco
@@ -7,6 +9,13 @@ package org.ddr.poi.math;
  */
 public class MathRenderConfig {
     private EmptyEOfNaryDisplayMode emptyEOfNaryDisplayMode = EmptyEOfNaryDisplayMode.DEFAULT;
+    /**
+     * MathML转OMML的XSL转换器数量上限，即最多可同时转换的公式数
+     */
+    private int transformerPoolSize = Runtime.getRuntime().availableProcessors();
+    private volatile TransformerPool transformerPool;
+    private MathCache cache = MathCache.getDefault();
+    private LaTeXCache laTeXCache = LaTeXCache.getDefault();
 
     public EmptyEOfNaryDisplayMode getEmptyEOfNaryOption() {
         return emptyEOfNaryDisplayMode;
@@ -15,4 +24,52 @@ public class MathRenderConfig {
     public void setEmptyEOfNaryOption(EmptyEOfNaryDisplayMode emptyEOfNaryDisplayMode) {
         this.emptyEOfNaryDisplayMode = emptyEOfNaryDisplayMode;
     }
+
+    public int getTransformerPoolSize() {
+        return transformerPoolSize;
+    }
+
+    public synchronized void setTransformerPoolSize(int transformerPoolSize) {
+        if (transformerPoolSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + transformerPoolSize);
+        }
+        this.transformerPoolSize = transformerPoolSize;
+        transformerPool = null;
+    }
+
+    TransformerPool getTransformerPool() {
+        TransformerPool pool = transformerPool;
+        if (pool == null) {
+            synchronized (this) {
+                pool = transformerPool;
+                if (pool == null) {
+                    pool = MathMLUtils.newTransformerPool(transformerPoolSize);
+                    transformerPool = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * @return 公式转换结果缓存，为null时不缓存
+     */
+    public MathCache getCache() {
+        return cache;
+    }
+
+    public void setCache(MathCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * @return LaTeX转换结果缓存，为null时不缓存
+     */
+    public LaTeXCache getLaTeXCache() {
+        return laTeXCache;
+    }
+
+    public void setLaTeXCache(LaTeXCache laTeXCache) {
+        this.laTeXCache = laTeXCache;
+    }
 }
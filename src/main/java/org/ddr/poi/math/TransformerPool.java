@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.math;
+
+import net.sf.saxon.s9api.Xslt30Transformer;
+import net.sf.saxon.s9api.XsltExecutable;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * XSL转换器池，转换器非线程安全，由同一个编译后的样式表按需创建，数量达到上限后借用方需等待归还
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+class TransformerPool {
+    private final XsltExecutable executable;
+    private final int maxSize;
+    private final BlockingQueue<Xslt30Transformer> idle = new LinkedBlockingQueue<>();
+    private final AtomicInteger created = new AtomicInteger();
+
+    TransformerPool(XsltExecutable executable, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.executable = executable;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 借用转换器，使用完毕后必须调用{@link #release(Xslt30Transformer)}归还
+     *
+     * @return 转换器
+     * @throws InterruptedException 等待时被中断
+     */
+    Xslt30Transformer borrow() throws InterruptedException {
+        Xslt30Transformer transformer = idle.poll();
+        if (transformer != null) {
+            return transformer;
+        }
+        if (created.incrementAndGet() <= maxSize) {
+            return executable.load30();
+        }
+        created.decrementAndGet();
+        return idle.take();
+    }
+
+    /**
+     * 归还转换器
+     *
+     * @param transformer 转换器
+     */
+    void release(Xslt30Transformer transformer) {
+        idle.offer(transformer);
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+}
@@ -49,6 +49,8 @@ import java.util.Base64;
 public class HttpURLConnectionUtils {
 
     public static final byte[] newLineBytes = "\r\n".getBytes();
+    public static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/137.0.0.0 Safari/537.36";
+    private static final HostnameVerifier TRUST_ALL_HOSTNAME = new TrustAllHostname();
 
     public static class X509TrustAllManager implements X509TrustManager {
         @Override
@@ -103,7 +105,7 @@ public class HttpURLConnectionUtils {
         if (isHttps) {
             HttpsURLConnection httpsURLConnection = (HttpsURLConnection) httpURLConnection;
             httpsURLConnection.setSSLSocketFactory(trustAllSslSocketFactory());
-            httpsURLConnection.setHostnameVerifier(new TrustAllHostname());
+            httpsURLConnection.setHostnameVerifier(TRUST_ALL_HOSTNAME);
         }
 
         if (user != null) {
@@ -118,15 +120,18 @@ public class HttpURLConnectionUtils {
         return httpURLConnection;
     }
 
+    /**
+     * 信任所有证书的SSLSocketFactory，全局共享以复用SSL上下文及会话缓存
+     */
     public static SSLSocketFactory trustAllSslSocketFactory() {
-        try {
-            TrustManager[] trustManagers = {new X509TrustAllManager()};
-            SSLContext sslContext = SSLContext.getInstance("SSL", "SunJSSE");
-            sslContext.init(null, trustManagers, SecureRandom.getInstance("SHA1PRNG"));
-            return sslContext.getSocketFactory();
-        } catch (NoSuchAlgorithmException | NoSuchProviderException | KeyManagementException e) {
-            throw new RuntimeException(e);
-        }
+        return TrustAllHolder.SSL_SOCKET_FACTORY;
+    }
+
+    /**
+     * @return 不校验主机名的HostnameVerifier
+     */
+    public static HostnameVerifier trustAllHostnameVerifier() {
+        return TRUST_ALL_HOSTNAME;
     }
 
     /**
@@ -147,7 +152,7 @@ public class HttpURLConnectionUtils {
      * 初始化User-Agent请求头
      */
     public static void initUserAgent(HttpURLConnection connect) {
-        connect.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/137.0.0.0 Safari/537.36");
+        connect.setRequestProperty("User-Agent", USER_AGENT);
     }
 
     /**
@@ -186,4 +191,19 @@ public class HttpURLConnectionUtils {
         }
         outputStream.write(newLineBytes);
     }
+
+    private static class TrustAllHolder {
+        static final SSLSocketFactory SSL_SOCKET_FACTORY = newTrustAllSslSocketFactory();
+
+        private static SSLSocketFactory newTrustAllSslSocketFactory() {
+            try {
+                TrustManager[] trustManagers = {new X509TrustAllManager()};
+                SSLContext sslContext = SSLContext.getInstance("SSL", "SunJSSE");
+                sslContext.init(null, trustManagers, SecureRandom.getInstance("SHA1PRNG"));
+                return sslContext.getSocketFactory();
+            } catch (NoSuchAlgorithmException | NoSuchProviderException | KeyManagementException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
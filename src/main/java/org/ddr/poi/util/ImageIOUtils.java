@@ -0,0 +1,235 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.util;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageTypeSpecifier;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.spi.IIORegistry;
+import javax.imageio.spi.ImageReaderWriterSpi;
+import javax.imageio.spi.ImageReaderSpi;
+import javax.imageio.spi.ImageWriterSpi;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ImageIO工具类，始终使用内存缓存的图片流，避免默认的临时文件缓存，并按格式缓存查找到的编解码器
+ *
+ * @author Draco
+ * @since 2026-10-18
+ */
+public class ImageIOUtils {
+    private static final Map<String, List<ImageReaderSpi>> READER_SPIS = new ConcurrentHashMap<>();
+    private static final Map<String, List<ImageWriterSpi>> WRITER_SPIS = new ConcurrentHashMap<>();
+
+    /**
+     * 解码图片
+     *
+     * @param data 图片数据
+     * @param format 图片格式或扩展名，用于快速定位解码器，未知时为null
+     * @return 图片，无法解码时为null
+     * @throws IOException 解码失败
+     */
+    public static BufferedImage read(byte[] data, String format) throws IOException {
+        return read(data, format, 1);
+    }
+
+    /**
+     * 按间隔采样解码图片，用于在解码大图时减少内存占用
+     *
+     * @param data 图片数据
+     * @param format 图片格式或扩展名，用于快速定位解码器，未知时为null
+     * @param subsampling 横纵方向的采样间隔，1表示读取所有像素
+     * @return 图片，无法解码时为null
+     * @throws IOException 解码失败
+     */
+    public static BufferedImage read(byte[] data, String format, int subsampling) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            ImageReader reader = reader(input, format);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                reader.setInput(input, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 仅读取图片尺寸，不解码像素数据
+     *
+     * @param data 图片数据
+     * @param format 图片格式或扩展名，用于快速定位解码器，未知时为null
+     * @return 图片尺寸，无法读取时为null
+     * @throws IOException 流操作失败
+     */
+    public static Dimension readDimension(byte[] data, String format) throws IOException {
+        try (ImageInputStream input = new MemoryCacheImageInputStream(new ByteArrayInputStream(data))) {
+            ImageReader reader = reader(input, format);
+            if (reader == null) {
+                return null;
+            }
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                // 部分解码器在无法从元数据获取尺寸时返回0
+                return width > 0 && height > 0 ? new Dimension(width, height) : null;
+            } catch (IOException | RuntimeException ignored) {
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 编码图片，不会关闭输出流
+     *
+     * @param image 图片
+     * @param format 图片格式
+     * @param outputStream 输出流
+     * @return 是否找到了合适的编码器
+     * @throws IOException 编码失败
+     */
+    public static boolean write(RenderedImage image, String format, OutputStream outputStream) throws IOException {
+        return write(image, format, outputStream, -1);
+    }
+
+    /**
+     * 按指定的压缩质量编码图片，不会关闭输出流
+     *
+     * @param image 图片
+     * @param format 图片格式
+     * @param outputStream 输出流
+     * @param compressionQuality 压缩质量，取值0~1，负数或编码器不支持时使用默认设置
+     * @return 是否找到了合适的编码器
+     * @throws IOException 编码失败
+     */
+    public static boolean write(RenderedImage image, String format, OutputStream outputStream,
+                                float compressionQuality) throws IOException {
+        ImageTypeSpecifier imageType = ImageTypeSpecifier.createFromRenderedImage(image);
+        for (ImageWriterSpi spi : writerSpis(format)) {
+            if (spi.canEncodeImage(imageType)) {
+                ImageWriter writer = spi.createWriterInstance();
+                try (ImageOutputStream output = new MemoryCacheImageOutputStream(outputStream)) {
+                    writer.setOutput(output);
+                    ImageWriteParam param = writer.getDefaultWriteParam();
+                    if (compressionQuality >= 0 && param.canWriteCompressed()) {
+                        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                        if (param.getCompressionType() == null) {
+                            param.setCompressionType(param.getCompressionTypes()[0]);
+                        }
+                        param.setCompressionQuality(Math.min(compressionQuality, 1f));
+                    }
+                    writer.write(null, new IIOImage(image, null, null), param);
+                } finally {
+                    writer.dispose();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 清除缓存的编解码器，在运行时注册新的插件后调用
+     */
+    public static void clearCache() {
+        READER_SPIS.clear();
+        WRITER_SPIS.clear();
+    }
+
+    private static ImageReader reader(ImageInputStream input, String format) throws IOException {
+        if (format != null) {
+            for (ImageReaderSpi spi : readerSpis(format)) {
+                if (canDecode(spi, input)) {
+                    return spi.createReaderInstance();
+                }
+            }
+        }
+        // 格式未知或与实际数据不符时遍历所有解码器
+        Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+        return readers.hasNext() ? readers.next() : null;
+    }
+
+    private static boolean canDecode(ImageReaderSpi spi, ImageInputStream input) throws IOException {
+        input.mark();
+        try {
+            return spi.canDecodeInput(input);
+        } finally {
+            input.reset();
+        }
+    }
+
+    static List<ImageReaderSpi> readerSpis(String format) {
+        return READER_SPIS.computeIfAbsent(format.toLowerCase(Locale.ROOT), f -> lookup(ImageReaderSpi.class, f));
+    }
+
+    static List<ImageWriterSpi> writerSpis(String format) {
+        return WRITER_SPIS.computeIfAbsent(format.toLowerCase(Locale.ROOT), f -> lookup(ImageWriterSpi.class, f));
+    }
+
+    private static <T extends ImageReaderWriterSpi> List<T> lookup(Class<T> category, String format) {
+        List<T> providers = new ArrayList<>(2);
+        Iterator<T> iterator = IIORegistry.getDefaultInstance().getServiceProviders(category, true);
+        while (iterator.hasNext()) {
+            T spi = iterator.next();
+            if (matches(spi.getFormatNames(), format) || matches(spi.getFileSuffixes(), format)) {
+                providers.add(spi);
+            }
+        }
+        return Collections.unmodifiableList(providers);
+    }
+
+    private static boolean matches(String[] names, String format) {
+        if (names != null) {
+            for (String name : names) {
+                if (format.equalsIgnoreCase(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
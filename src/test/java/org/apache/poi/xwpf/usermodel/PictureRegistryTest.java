@@ -0,0 +1,80 @@
+package org.apache.poi.xwpf.usermodel;
+
+import org.apache.poi.wp.usermodel.HeaderFooterType;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.drawingml.x2006.wordprocessingDrawing.CTInline;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PictureRegistryTest {
+
+    @Test
+    void dedupe() throws Exception {
+        SVGPictureData.initRelation();
+        XWPFDocument document = new XWPFDocument();
+        XWPFRun run = document.createParagraph().createRun();
+        PictureRegistry registry = PictureRegistry.of(run);
+        assertSame(registry, PictureRegistry.of(document.createParagraph().createRun()));
+
+        byte[] png = png(3, 2);
+        XWPFPicture first = registry.addPicture(run, png, Document.PICTURE_TYPE_PNG, "a.png", 3000, 2000);
+        XWPFPicture second = registry.addPicture(run, png, Document.PICTURE_TYPE_PNG, "b.png", 6000, 4000);
+        registry.addPicture(run, png(4, 4), Document.PICTURE_TYPE_PNG, "c.png", 100, 100);
+
+        byte[] svg = "<svg xmlns=\"http://www.w3.org/2000/svg\"/>".getBytes(StandardCharsets.UTF_8);
+        String svgRelId = registry.addPictureData(run, svg, SVGPictureData.PICTURE_TYPE_SVG);
+        assertEquals(svgRelId, registry.addPictureData(run, svg, SVGPictureData.PICTURE_TYPE_SVG));
+
+        assertEquals(3, document.getAllPictures().size());
+        assertEquals(3, run.getEmbeddedPictures().size());
+        // 仅新建的部件计入
+        assertEquals(png.length + png(4, 4).length + svg.length, registry.getEmbeddedBytes());
+        assertEquals(first.getCTPicture().getBlipFill().getBlip().getEmbed(),
+                second.getCTPicture().getBlipFill().getBlip().getEmbed());
+        assertEquals("b.png", second.getDescription());
+        assertEquals(6000, second.getCTPicture().getSpPr().getXfrm().getExt().getCx());
+
+        CTInline copied = run.getCTR().getDrawingArray(1).getInlineArray(0);
+        assertEquals(6000, copied.getExtent().getCx());
+        assertEquals(4000, copied.getExtent().getCy());
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < run.getCTR().sizeOfDrawingArray(); i++) {
+            ids.add(run.getCTR().getDrawingArray(i).getInlineArray(0).getDocPr().getId());
+        }
+        assertEquals(3, ids.size());
+    }
+
+    @Test
+    void header() throws Exception {
+        XWPFDocument document = new XWPFDocument();
+        XWPFRun bodyRun = document.createParagraph().createRun();
+        XWPFRun headerRun = document.createHeader(HeaderFooterType.DEFAULT).createParagraph().createRun();
+        assertNotEquals(PictureRegistry.of(bodyRun), PictureRegistry.of(headerRun));
+
+        byte[] png = png(2, 2);
+        PictureRegistry.of(headerRun).addPicture(headerRun, png, Document.PICTURE_TYPE_PNG, "a.png", 100, 100);
+        XWPFPicture copy = PictureRegistry.of(headerRun).addPicture(headerRun, png, Document.PICTURE_TYPE_PNG, "a.png", 100, 100);
+        assertEquals(png.length, copy.getPictureData().getData().length);
+
+        // 页眉与正文共用文档包中相同的图片部件
+        PictureRegistry.of(bodyRun).addPicture(bodyRun, png, Document.PICTURE_TYPE_PNG, "a.png", 100, 100);
+        assertEquals(png.length, PictureRegistry.of(headerRun).getEmbeddedBytes());
+        assertEquals(0, PictureRegistry.of(bodyRun).getEmbeddedBytes());
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
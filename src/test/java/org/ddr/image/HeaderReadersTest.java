@@ -0,0 +1,144 @@
+package org.ddr.image;
+
+import com.drew.imaging.FileType;
+import com.drew.imaging.FileTypeDetector;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class HeaderReadersTest {
+
+    @Test
+    void imageIO() throws IOException {
+        assertInfo(write("png", 37, 21), ImageType.PNG, 37, 21);
+        assertInfo(write("jpg", 64, 48), ImageType.JPG, 64, 48);
+        assertInfo(write("gif", 5, 300), ImageType.GIF, 5, 300);
+        assertInfo(write("bmp", 17, 9), ImageType.BMP, 17, 9);
+    }
+
+    @Test
+    void jpegWithExif() throws IOException {
+        byte[] jpeg = write("jpg", 640, 480);
+        // 在SOI之后插入一个较大的APP1段
+        int length = 60000;
+        byte[] data = new byte[jpeg.length + 2 + length];
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xD8;
+        data[2] = (byte) 0xFF;
+        data[3] = (byte) 0xE1;
+        data[4] = (byte) (length >> 8);
+        data[5] = (byte) length;
+        data[6] = (byte) 0xFF;
+        data[7] = (byte) 0xC0;
+        System.arraycopy(jpeg, 2, data, 4 + length, jpeg.length - 2);
+        assertInfo(data, ImageType.JPG, 640, 480);
+
+        byte[] truncated = new byte[100];
+        System.arraycopy(data, 0, truncated, 0, truncated.length);
+        assertNull(read(truncated));
+    }
+
+    @Test
+    void tiff() throws IOException {
+        assertInfo(tiff(true, 3, 320, 200), ImageType.TIFF, 320, 200);
+        assertInfo(tiff(false, 4, 70000, 3), ImageType.TIFF, 70000, 3);
+    }
+
+    @Test
+    void webp() throws IOException {
+        byte[] vp8x = webp("VP8X", 0x10, 0, 0, 0, 0x1F, 0x03, 0x00, 0xDF, 0x01, 0x00);
+        assertInfo(vp8x, ImageType.PNG, 800, 480);
+        vp8x[20] = 0;
+        assertInfo(vp8x, ImageType.JPG, 800, 480);
+
+        // 宽高各14位，均存储为值减1
+        int bits = 99 | 49 << 14;
+        byte[] vp8l = webp("VP8L", 0x2F, bits & 0xFF, bits >> 8 & 0xFF, bits >> 16 & 0xFF, bits >>> 24, 0);
+        assertInfo(vp8l, ImageType.JPG, 100, 50);
+
+        byte[] vp8 = webp("VP8 ", 0x10, 0x02, 0x00, 0x9D, 0x01, 0x2A, 0x40, 0x01, 0xF0, 0x00);
+        assertInfo(vp8, ImageType.JPG, 320, 240);
+    }
+
+    private static void assertInfo(byte[] data, ImageType type, int width, int height) throws IOException {
+        ImageInfo info = read(data);
+        assertNotNull(info);
+        assertEquals(type, info.getType());
+        assertEquals(new Dimension(width, height), info.getDimension());
+    }
+
+    private static ImageInfo read(byte[] data) throws IOException {
+        FileType fileType = FileTypeDetector.detectFileType(new BufferedInputStream(new ByteArrayInputStream(data)));
+        for (HeaderReader reader : HeaderReaders.INSTANCES) {
+            if (reader.canRead(fileType)) {
+                return reader.read(data);
+            }
+        }
+        return null;
+    }
+
+    private static byte[] write(String format, int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+
+    private static byte[] tiff(boolean littleEndian, int type, int width, int height) {
+        byte[] data = new byte[8 + 2 + 12 * 3 + 4];
+        data[0] = data[1] = (byte) (littleEndian ? 'I' : 'M');
+        put16(data, 2, 42, littleEndian);
+        put32(data, 4, 8, littleEndian);
+        put16(data, 8, 3, littleEndian);
+        // 无关的标签
+        entry(data, 10, 254, 4, 0, littleEndian);
+        entry(data, 22, 256, type, width, littleEndian);
+        entry(data, 34, 257, type, height, littleEndian);
+        return data;
+    }
+
+    private static void entry(byte[] data, int offset, int tag, int type, int value, boolean littleEndian) {
+        put16(data, offset, tag, littleEndian);
+        put16(data, offset + 2, type, littleEndian);
+        put32(data, offset + 4, 1, littleEndian);
+        if (type == 3) {
+            put16(data, offset + 8, value, littleEndian);
+        } else {
+            put32(data, offset + 8, value, littleEndian);
+        }
+    }
+
+    private static void put16(byte[] data, int offset, int value, boolean littleEndian) {
+        data[offset + (littleEndian ? 0 : 1)] = (byte) value;
+        data[offset + (littleEndian ? 1 : 0)] = (byte) (value >> 8);
+    }
+
+    private static void put32(byte[] data, int offset, int value, boolean littleEndian) {
+        for (int i = 0; i < 4; i++) {
+            data[offset + (littleEndian ? i : 3 - i)] = (byte) (value >> (8 * i));
+        }
+    }
+
+    private static byte[] webp(String chunk, int... payload) {
+        byte[] data = new byte[20 + Math.max(payload.length, 12)];
+        System.arraycopy("RIFF".getBytes(), 0, data, 0, 4);
+        put32(data, 4, data.length - 8, true);
+        System.arraycopy("WEBP".getBytes(), 0, data, 8, 4);
+        System.arraycopy(chunk.getBytes(), 0, data, 12, 4);
+        put32(data, 16, data.length - 20, true);
+        for (int i = 0; i < payload.length; i++) {
+            data[20 + i] = (byte) payload[i];
+        }
+        return data;
+    }
+}
@@ -0,0 +1,72 @@
+package org.ddr.image.heif;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class HeifDecodersTest {
+
+    @AfterEach
+    void reset() {
+        HeifDecoders.setDecoder(null);
+        HeifDecoders.setMaxCacheBytes(HeifDecoders.DEFAULT_MAX_CACHE_BYTES);
+    }
+
+    @Test
+    void cache() throws IOException {
+        AtomicInteger calls = new AtomicInteger();
+        HeifDecoders.setDecoder((data, format) -> {
+            calls.incrementAndGet();
+            return data.length == 0 ? null : new BufferedImage(data.length, 1, BufferedImage.TYPE_INT_RGB);
+        });
+
+        BufferedImage image = HeifDecoders.decode(new byte[]{1, 2}, "heic");
+        assertSame(image, HeifDecoders.decode(new byte[]{1, 2}, "heic"));
+        assertEquals(1, calls.get());
+        HeifDecoders.decode(new byte[]{1, 2}, "avif");
+        assertEquals(2, calls.get());
+
+        // 解码失败的结果不缓存
+        assertNull(HeifDecoders.decode(new byte[0], "heic"));
+        assertNull(HeifDecoders.decode(new byte[0], "heic"));
+        assertEquals(4, calls.get());
+
+        HeifDecoders.setMaxCacheBytes(0);
+        HeifDecoders.decode(new byte[]{1, 2}, "heic");
+        assertEquals(5, calls.get());
+    }
+
+    @Test
+    void defaultDecoder() {
+        assertTrue(HeifDecoders.getDecoder() instanceof CommandHeifDecoder);
+    }
+
+    @Test
+    void command() throws IOException {
+        assumeTrue(new File("/bin/cp").exists());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB), "png", out);
+
+        // 以复制文件代替格式转换
+        BufferedImage image = new CommandHeifDecoder("/bin/cp", 5000).decode(out.toByteArray(), "heic");
+        assertNotNull(image);
+        assertEquals(3, image.getWidth());
+
+        assertNull(new CommandHeifDecoder("/bin/false", 5000).decode(out.toByteArray(), "heic"));
+        assertThrows(IOException.class, () -> new CommandHeifDecoder("heif-convert-missing", 5000).decode(new byte[1], "heic"));
+    }
+}
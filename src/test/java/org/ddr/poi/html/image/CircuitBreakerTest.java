@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    @Test
+    void trip() {
+        CircuitBreaker breaker = new CircuitBreaker(2, 100);
+        assertTrue(breaker.tryAcquire(0));
+        breaker.recordFailure(0);
+        breaker.recordSuccess();
+        breaker.recordFailure(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.recordFailure(2);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(50));
+
+        // 仅放行一个试探请求
+        assertTrue(breaker.tryAcquire(102));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(103));
+
+        breaker.recordFailure(104);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(150));
+
+        assertTrue(breaker.tryAcquire(204));
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire(205));
+    }
+
+    @Test
+    void staleTrial() {
+        CircuitBreaker breaker = new CircuitBreaker(1, 100);
+        breaker.recordFailure(0);
+        assertTrue(breaker.tryAcquire(100));
+        assertFalse(breaker.tryAcquire(199));
+
+        // 试探请求未记录结果，超过熔断持续时间后放行新的试探请求
+        assertTrue(breaker.tryAcquire(200));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire(201));
+    }
+
+    @Test
+    void uncheckedTrial() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        ImageHttpClient client = new ImageHttpClient() {
+            @Override
+            public Response get(String url, Map<String, String> headers) throws IOException {
+                requests.incrementAndGet();
+                if (url.contains(":99999")) {
+                    throw new IllegalArgumentException("port out of range:99999");
+                }
+                throw new ConnectException("Connection refused");
+            }
+        };
+        HttpImageResolver resolver = new HttpImageResolver(client, 1, null);
+        resolver.setFailureTtl(0);
+        resolver.setFailureThreshold(1);
+        resolver.setCircuitOpenMillis(50);
+
+        assertThrows(ConnectException.class, () -> resolver.resolve("http://img.test/a.png"));
+        assertEquals(CircuitBreaker.State.OPEN, resolver.getCircuitState("img.test"));
+        Thread.sleep(60);
+        assertThrows(IllegalArgumentException.class, () -> resolver.resolve("http://img.test:99999/b.png"));
+        // 非IO异常释放试探请求的名额，不会永久熔断
+        assertEquals(CircuitBreaker.State.OPEN, resolver.getCircuitState("img.test"));
+        assertThrows(ConnectException.class, () -> resolver.resolve("http://img.test/c.png"));
+        assertEquals(3, requests.get());
+
+        // 排队的试探请求被线程池拒绝时同样释放名额
+        Thread.sleep(60);
+        AtomicInteger executions = new AtomicInteger();
+        CompletableFuture<FetchedImage> future = resolver.resolveAsync("http://img.test/d.png", task -> {
+            if (executions.incrementAndGet() > 1) {
+                throw new RejectedExecutionException();
+            }
+            task.run();
+        });
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+        assertEquals(CircuitBreaker.State.OPEN, resolver.getCircuitState("img.test"));
+        assertThrows(ConnectException.class, () -> resolver.resolve("http://img.test/e.png"));
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void failureCache() {
+        FailureCache cache = new FailureCache(2);
+        cache.put("a", "404", 100);
+        cache.put("b", "404", 100);
+        assertEquals("404", cache.get("a", 99));
+        cache.put("c", "timeout", 100);
+        assertEquals(null, cache.get("a", 0));
+        assertEquals(null, cache.get("b", 100));
+        assertEquals("timeout", cache.get("c", 0));
+    }
+}
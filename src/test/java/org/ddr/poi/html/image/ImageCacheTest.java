@@ -0,0 +1,125 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.ddr.image.ImageType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageCacheTest {
+
+    @Test
+    void lru() {
+        ImageCache cache = new ImageCache(250);
+        cache.put("a", image("a", 100));
+        cache.put("b", image("b", 100));
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", image("c", 100));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(2, cache.size());
+        assertTrue(cache.getMemoryBytes() <= cache.getMaxMemoryBytes());
+
+        // 超出容量的图片不缓存
+        cache.put("d", image("d", 300));
+        assertNull(cache.get("d"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void disk(@TempDir Path dir) {
+        // 与渲染时的顺序一致，先缓存下载的图片，分析后才设置结果
+        FetchedImage image = new FetchedImage("http://a/b.png", new byte[]{1, 2, 3}, "image/png", "\"v1\"", 1000, 2000);
+        new ImageCache(1024, dir, 1 << 20).put(image.getUrl(), image);
+        image.setAnalysis(new ImageAnalysis(ImageType.PNG, 16, 9, image.getData()));
+
+        ImageCache cache = new ImageCache(1024, dir, 1 << 20);
+        FetchedImage loaded = cache.get(image.getUrl());
+        assertNotNull(loaded);
+        assertArrayEquals(image.getData(), loaded.getData());
+        assertEquals("\"v1\"", loaded.getEtag());
+        assertEquals(1000, loaded.getLastModified());
+        assertEquals(2000, loaded.getExpiresAt());
+        assertNotNull(loaded.getAnalysis());
+        assertEquals(ImageType.PNG, loaded.getAnalysis().getType());
+        assertEquals(16, loaded.getAnalysis().getWidth());
+        assertSame(loaded.getData(), loaded.getAnalysis().getPictureData());
+        // 已加载到内存
+        assertSame(loaded, cache.get(image.getUrl()));
+
+        cache.clear();
+        assertNull(new ImageCache(1024, dir, 1 << 20).get(image.getUrl()));
+        // 清空后设置分析结果不会重新写入
+        loaded.setAnalysis(new ImageAnalysis(ImageType.PNG, 16, 9, loaded.getData()));
+        assertNull(new ImageCache(1024, dir, 1 << 20).get(image.getUrl()));
+    }
+
+    @Test
+    void analysisWeight(@TempDir Path dir) {
+        ImageCache cache = new ImageCache(250, dir, 1 << 20);
+        FetchedImage a = image("a", 100);
+        FetchedImage b = image("b", 100);
+        cache.put("a", a);
+        cache.put("b", b);
+        long bytes = cache.getMemoryBytes();
+
+        // 分析时生成的位图计入内存占用
+        a.setAnalysis(new ImageAnalysis(ImageType.PNG, 1, 1, new byte[40]));
+        assertEquals(bytes + 40, cache.getMemoryBytes());
+        b.setAnalysis(new ImageAnalysis(ImageType.PNG, 1, 1, new byte[40]));
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get("b"));
+        assertTrue(cache.getMemoryBytes() <= cache.getMaxMemoryBytes());
+
+        // 移出内存的图片仍可从磁盘加载分析结果
+        FetchedImage loaded = cache.get("a");
+        assertNotNull(loaded);
+        assertEquals(40, loaded.getAnalysis().getPictureData().length);
+
+        // 被替换的图片不再写回
+        FetchedImage replaced = image("b", 10);
+        cache.put("b", replaced);
+        b.setAnalysis(new ImageAnalysis(ImageType.JPG, 2, 2, new byte[1]));
+        assertSame(replaced, cache.get("b"));
+        assertNull(new ImageCache(250, dir, 1 << 20).get("b").getAnalysis());
+    }
+
+    @Test
+    void expiresAt() {
+        long now = 1_000_000_000L;
+        assertEquals(-1, HttpImageResolver.expiresAt("public, no-store", 0, 0, 0, now));
+        assertEquals(now, HttpImageResolver.expiresAt("no-cache, max-age=60", 0, 0, 0, now));
+        assertEquals(now + 60_000, HttpImageResolver.expiresAt("public, Max-Age=60", 0, 0, 0, now));
+        // Expires按服务器时间计算
+        assertEquals(now + 30_000, HttpImageResolver.expiresAt(null, 50_000, 20_000, 0, now));
+        assertEquals(now + 1_000, HttpImageResolver.expiresAt(null, 0, 20_000, 10_000, now));
+        assertEquals(now, HttpImageResolver.expiresAt(null, 0, 0, 0, now));
+    }
+
+    private static FetchedImage image(String url, int size) {
+        return new FetchedImage(url, new byte[size], "image/png", null, 0, Long.MAX_VALUE);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageLoaderTest {
+
+    @Test
+    void inFlight() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<FetchedImage> pending = new CompletableFuture<>();
+        ImageResolver resolver = new ImageResolver() {
+            @Override
+            public boolean supports(String src) {
+                return true;
+            }
+
+            @Override
+            public String key(String src) {
+                return src.replace("?v=1", "");
+            }
+
+            @Override
+            public FetchedImage resolve(String src) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+                calls.incrementAndGet();
+                return pending;
+            }
+        };
+        ImageLoader loader = new ImageLoader(Runnable::run);
+
+        // 同一资源的并发请求合并为一次
+        CompletableFuture<FetchedImage> first = loader.load("a.png", resolver);
+        assertSame(first, loader.load("a.png?v=1", resolver));
+        assertEquals(1, calls.get());
+        assertFalse(first.isDone());
+
+        FetchedImage image = new FetchedImage("a.png", new byte[1], "image/png");
+        pending.complete(image);
+        assertSame(image, first.get());
+
+        // 完成后不再复用
+        assertNotSame(first, loader.load("a.png", resolver));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void prefetch() {
+        ImageResolver resolver = new ImageResolver() {
+            @Override
+            public boolean supports(String src) {
+                return true;
+            }
+
+            @Override
+            public FetchedImage resolve(String src) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+                return new CompletableFuture<>();
+            }
+        };
+        Document document = Jsoup.parse("<p><img src='a.png'><img src='a.png'></p>"
+                + "<div style='DISPLAY: none'><span><img src='hidden.png'></span></div>"
+                + "<div style='color: red'><img src='b.png' style='display:none'><img src='c.png'></div>"
+                + "<button><img src='button.png'></button><select><option><img src='option.png'></option></select>"
+                + "<img src='data:image/png;base64,AA=='>");
+
+        Map<String, CompletableFuture<FetchedImage>> images = new ImageLoader(Runnable::run).prefetch(document, resolver);
+        assertEquals(Arrays.asList("a.png", "c.png"), new ArrayList<>(images.keySet()));
+    }
+
+    @Test
+    void hostLimitDoesNotBlockWorkers() throws Exception {
+        CountDownLatch slow = new CountDownLatch(1);
+        AtomicInteger slowRequests = new AtomicInteger();
+        ImageHttpClient client = new ImageHttpClient() {
+            @Override
+            public Response get(String url, Map<String, String> headers) throws IOException {
+                if (url.contains("slow")) {
+                    slowRequests.incrementAndGet();
+                    try {
+                        slow.await(10, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new Response(new StubConnection(new URL(url)), HttpURLConnection.HTTP_OK, new byte[1]);
+            }
+        };
+        HttpImageResolver resolver = new HttpImageResolver(client, 1, null);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            ImageLoader loader = new ImageLoader(executor);
+            CompletableFuture<?>[] slowImages = {
+                    loader.load("http://slow/1.png", resolver),
+                    loader.load("http://slow/2.png", resolver),
+                    loader.load("http://slow/3.png", resolver)
+            };
+            // 慢主机占满并发数时其余请求排队，不占用线程，其他主机的图片不受影响
+            FetchedImage fast = loader.load("http://fast/1.png", resolver).get(5, TimeUnit.SECONDS);
+            assertEquals("http://fast/1.png", fast.getUrl());
+            assertEquals(1, slowRequests.get());
+            for (CompletableFuture<?> future : slowImages) {
+                assertFalse(future.isDone());
+            }
+
+            slow.countDown();
+            CompletableFuture.allOf(slowImages).get(5, TimeUnit.SECONDS);
+            assertEquals(3, slowRequests.get());
+        } finally {
+            slow.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void hostLimiter() throws Exception {
+        HostLimiter limiter = new HostLimiter(1);
+        limiter.acquire();
+        CompletableFuture<Void> queued = new CompletableFuture<>();
+        limiter.submit(() -> queued.complete(null), Runnable::run, queued::completeExceptionally);
+        assertEquals(1, limiter.getPending());
+        assertFalse(queued.isDone());
+
+        // 释放的许可交给排队的任务，任务结束后归还
+        limiter.release();
+        assertTrue(queued.isDone());
+        assertEquals(0, limiter.getActive());
+
+        CompletableFuture<Void> rejected = new CompletableFuture<>();
+        limiter.submit(() -> rejected.complete(null), r -> {
+            throw new RejectedExecutionException();
+        }, rejected::completeExceptionally);
+        assertTrue(rejected.isCompletedExceptionally());
+        assertEquals(0, limiter.getActive());
+    }
+
+    private static class StubConnection extends HttpURLConnection {
+        StubConnection(URL url) {
+            super(url);
+        }
+
+        @Override
+        public void disconnect() {
+        }
+
+        @Override
+        public boolean usingProxy() {
+            return false;
+        }
+
+        @Override
+        public void connect() {
+        }
+    }
+}
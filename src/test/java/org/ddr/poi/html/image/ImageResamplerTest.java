@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html.image;
+
+import org.apache.poi.util.Units;
+import org.apache.poi.xwpf.usermodel.Document;
+import org.ddr.poi.util.ImageIOUtils;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageResamplerTest {
+    private static final int TWO_INCHES = 2 * 72 * Units.EMU_PER_POINT;
+
+    @Test
+    void jpeg() throws IOException {
+        byte[] data = image("jpeg", 2000, 1500, BufferedImage.TYPE_INT_RGB);
+        ImageResampler resampler = new ImageResampler(150);
+
+        byte[] resampled = resampler.resample(data, Document.PICTURE_TYPE_JPEG, 2000, 1500, TWO_INCHES, TWO_INCHES * 3 / 4);
+        assertNotNull(resampled);
+        assertTrue(resampled.length < data.length);
+        BufferedImage image = ImageIOUtils.read(resampled, "jpeg");
+        assertEquals(300, image.getWidth());
+        assertEquals(225, image.getHeight());
+
+        assertArrayEquals(resampled, resampler.resample(data, Document.PICTURE_TYPE_JPEG, 2000, 1500, TWO_INCHES, TWO_INCHES * 3 / 4));
+        assertEquals(1, resampler.getHitCount());
+        assertEquals(1, resampler.getMissCount());
+
+        // 修改压缩质量后重新编码
+        resampler.setJpegQuality(0.2f);
+        byte[] lowQuality = resampler.resample(data, Document.PICTURE_TYPE_JPEG, 2000, 1500, TWO_INCHES, TWO_INCHES * 3 / 4);
+        assertNotNull(lowQuality);
+        assertTrue(lowQuality.length < resampled.length);
+        assertEquals(2, resampler.getMissCount());
+    }
+
+    @Test
+    void png() throws IOException {
+        byte[] data = image("png", 1200, 600, BufferedImage.TYPE_INT_ARGB);
+        ImageResampler resampler = new ImageResampler(100);
+
+        byte[] resampled = resampler.resample(data, Document.PICTURE_TYPE_PNG, 1200, 600, TWO_INCHES, TWO_INCHES / 2);
+        assertNotNull(resampled);
+        BufferedImage image = ImageIOUtils.read(resampled, "png");
+        assertEquals(200, image.getWidth());
+        assertEquals(100, image.getHeight());
+        assertTrue(image.getColorModel().hasAlpha());
+    }
+
+    @Test
+    void skipped() throws IOException {
+        byte[] data = image("jpeg", 400, 300, BufferedImage.TYPE_INT_RGB);
+        ImageResampler resampler = new ImageResampler(150);
+        // 未超过阈值
+        assertNull(resampler.resample(data, Document.PICTURE_TYPE_JPEG, 400, 300, TWO_INCHES, TWO_INCHES * 3 / 4));
+        assertNull(resampler.resample(data, Document.PICTURE_TYPE_GIF, 4000, 3000, TWO_INCHES, TWO_INCHES * 3 / 4));
+        assertEquals(0, resampler.getMissCount());
+    }
+
+    private static byte[] image(String format, int width, int height, int type) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int alpha = type == BufferedImage.TYPE_INT_ARGB ? (x + y) % 256 : 255;
+                image.setRGB(x, y, alpha << 24 | (x * 7 % 256) << 16 | (y * 13 % 256) << 8 | (x ^ y) & 0xFF);
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIOUtils.write(image, format, out);
+        return out.toByteArray();
+    }
+}
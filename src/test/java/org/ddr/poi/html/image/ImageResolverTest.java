@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageResolverTest {
+
+    @Test
+    void scheme() {
+        assertEquals("https", ImageSources.scheme("HTTPS://a/b.png"));
+        assertNull(ImageSources.scheme("img/a:b.png"));
+        assertNull(ImageSources.scheme("C:\\img\\a.png"));
+        assertNull(ImageSources.scheme("//cdn/a.png"));
+    }
+
+    @Test
+    void file(@TempDir Path dir) throws Exception {
+        Path base = Files.createDirectory(dir.resolve("assets"));
+        Files.write(base.resolve("a.svg"), "<svg/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("secret.png"), new byte[]{1});
+
+        FileImageResolver resolver = new FileImageResolver(base);
+        assertTrue(resolver.supports("a.svg?v=1"));
+        assertTrue(resolver.supports(base.resolve("a.svg").toUri().toString()));
+        FetchedImage image = resolver.resolve("./a.svg");
+        assertTrue(image.isSvg());
+        assertArrayEquals("<svg/>".getBytes(StandardCharsets.UTF_8), image.getData());
+        assertEquals(resolver.key("a.svg"), resolver.key("sub/../a.svg"));
+
+        assertFalse(resolver.supports("b.svg"));
+        assertFalse(resolver.supports("../secret.png"));
+        assertFalse(resolver.supports(dir.resolve("secret.png").toString()));
+        assertFalse(resolver.supports("http://localhost/a.svg"));
+    }
+
+    @Test
+    void chain() throws Exception {
+        ImageResolverChain chain = new ImageResolverChain(Arrays.asList(
+                HttpImageResolver.getDefault(),
+                new BaseUrlImageResolver("https://example.com/assets/"),
+                new ClasspathImageResolver()));
+        assertEquals(ClasspathImageResolver.PRIORITY, chain.getResolvers().get(0).getPriority());
+
+        FetchedImage image = chain.resolve("classpath:/error-403.svg");
+        assertTrue(image.isSvg());
+        assertTrue(image.getData().length > 0);
+
+        assertSame(chain.getResolvers().get(1), chain.find("img/a.png"));
+        assertEquals("https://example.com/assets/img/a%20b.png", chain.key("img/a b.png"));
+        assertEquals("https://example.com/b.png", chain.key("../b.png"));
+        assertSame(HttpImageResolver.getDefault(), chain.find("//cdn/a.png"));
+        assertFalse(chain.supports("ftp://cdn/a.png"));
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.ddr.poi.html.image;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageSourcesTest {
+
+    @Test
+    void largestCandidate() {
+        assertEquals("b.png", ImageSources.largestCandidate("a.png 480w, b.png 1080w,c.png 800w"));
+        assertEquals("b.png", ImageSources.largestCandidate("a.png, b.png 2x, c.png 1.5x"));
+        assertEquals("a.png", ImageSources.largestCandidate("a.png, b.png"));
+        // 无空白分隔时逗号属于地址的一部分
+        assertEquals("a.png,b.png", ImageSources.largestCandidate("a.png,b.png"));
+        assertNull(ImageSources.largestCandidate(" , "));
+    }
+
+    @Test
+    void src() {
+        Element img = Jsoup.parse("<img srcset=\"//cdn/a.png 1x, //cdn/b.png 2x\">").selectFirst("img");
+        assertEquals("//cdn/b.png", ImageSources.src(img));
+        assertEquals("http://cdn/b.png", ImageSources.remoteUrl(ImageSources.src(img)));
+        assertNull(ImageSources.remoteUrl("data:image/png;base64,AAAA"));
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.html.tag;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.apache.poi.xwpf.usermodel.XWPFHyperlinkRun;
+import org.apache.poi.xwpf.usermodel.XWPFParagraph;
+import org.apache.poi.xwpf.usermodel.XWPFRun;
+import org.ddr.poi.html.HtmlRenderConfig;
+import org.ddr.poi.html.HtmlRenderPolicy;
+import org.ddr.poi.html.RenderMetrics;
+import org.ddr.poi.html.image.FetchedImage;
+import org.ddr.poi.html.image.ImageFallback;
+import org.ddr.poi.html.image.ImageResolver;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageRendererTest {
+    private static final String SLOW = "http://img.test/slow.png";
+    private static final String SLOWER = "http://img.test/slower.png";
+    private static final String FAST = "http://img.test/fast.png";
+
+    @Test
+    void altText() throws IOException {
+        HtmlRenderConfig config = config(ImageFallback.ALT_TEXT);
+        config.setImageTimeout(20);
+        AtomicReference<RenderMetrics> metrics = listen(config);
+
+        XWPFDocument document = render(config, "<p>a<img src='" + SLOW + "' alt='slow'>b<img src='" + SLOWER + "'>c</p>");
+        assertEquals("aslowbc", text(document));
+        assertTrue(document.getAllPictures().isEmpty());
+        // 未设置时间预算，仅计入单个图片超时
+        assertEquals(2, metrics.get().getImageTimeouts());
+        assertEquals(0, metrics.get().getImageBudgetExceeded());
+    }
+
+    @Test
+    void link() throws IOException {
+        HtmlRenderConfig config = config(ImageFallback.LINK);
+        config.setImageTimeout(20);
+
+        XWPFDocument document = render(config, "<p><img src='" + SLOW + "' alt='slow'>"
+                + "<a href='http://link.test/'><img src='" + SLOWER + "'></a></p>");
+        Map<String, String> links = hyperlinks(document);
+        // 已位于超链接中的图片降级为普通文本，不嵌套超链接
+        Map<String, String> expected = new LinkedHashMap<>();
+        expected.put("slow", SLOW);
+        expected.put(SLOWER, "http://link.test/");
+        assertEquals(expected, links);
+        assertTrue(document.getAllPictures().isEmpty());
+    }
+
+    @Test
+    void skip() throws IOException {
+        HtmlRenderConfig config = config(ImageFallback.SKIP);
+        config.setImageTimeout(20);
+
+        XWPFDocument document = render(config, "<p>a<img src='" + SLOW + "' alt='slow'>b</p>");
+        assertEquals("ab", text(document));
+        assertTrue(hyperlinks(document).isEmpty());
+        assertTrue(document.getAllPictures().isEmpty());
+    }
+
+    @Test
+    void budget() throws IOException {
+        HtmlRenderConfig config = config(ImageFallback.ALT_TEXT);
+        config.setImageTimeout(10000);
+        config.setImageTimeBudget(50);
+        AtomicReference<RenderMetrics> metrics = listen(config);
+
+        XWPFDocument document = render(config, "<p><img src='" + SLOW + "' alt='slow'>"
+                + "<img src='" + SLOWER + "' alt='slower'><img src='" + FAST + "'></p>");
+        assertEquals("slowslower", text(document));
+        // 预算用完后已完成的图片仍然渲染
+        assertEquals(1, document.getAllPictures().size());
+        assertEquals(0, metrics.get().getImageTimeouts());
+        assertEquals(2, metrics.get().getImageBudgetExceeded());
+    }
+
+    @Test
+    void budgetWithoutPrefetch() throws IOException {
+        HtmlRenderConfig config = config(ImageFallback.ALT_TEXT);
+        config.setImagePrefetchEnabled(false);
+        config.setImageTimeBudget(50);
+        AtomicReference<RenderMetrics> metrics = listen(config);
+
+        XWPFDocument document = render(config, "<p><img src='" + SLOW + "' alt='slow'><img src='" + FAST + "'></p>");
+        assertEquals("slow", text(document));
+        assertEquals(1, document.getAllPictures().size());
+        assertEquals(1, metrics.get().getImageBudgetExceeded());
+    }
+
+    private static HtmlRenderConfig config(ImageFallback fallback) throws IOException {
+        byte[] png = png();
+        HtmlRenderConfig config = new HtmlRenderConfig();
+        config.setImageFallback(fallback);
+        config.setImageResolvers(Collections.singletonList(new ImageResolver() {
+            @Override
+            public boolean supports(String src) {
+                return src.startsWith("http://img.test/");
+            }
+
+            @Override
+            public FetchedImage resolve(String src) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public CompletableFuture<FetchedImage> resolveAsync(String src, Executor executor) {
+                // 慢速图片永远不会完成
+                return FAST.equals(src) ? CompletableFuture.completedFuture(new FetchedImage(src, png, "image/png"))
+                        : new CompletableFuture<>();
+            }
+        }));
+        return config;
+    }
+
+    private static AtomicReference<RenderMetrics> listen(HtmlRenderConfig config) {
+        AtomicReference<RenderMetrics> metrics = new AtomicReference<>();
+        config.setRenderListener(metrics::set);
+        return metrics;
+    }
+
+    private static XWPFDocument render(HtmlRenderConfig config, String html) throws IOException {
+        XWPFDocument document = new XWPFDocument();
+        document.createStyles();
+        document.createParagraph().createRun().setText("{{html}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.write(out);
+
+        Configure configure = Configure.builder().bind("html", new HtmlRenderPolicy(config)).build();
+        try (XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()), configure)) {
+            out.reset();
+            template.render(Collections.singletonMap("html", html)).write(out);
+        }
+        // 重新读取以获得渲染后的段落结构
+        return new XWPFDocument(new ByteArrayInputStream(out.toByteArray()));
+    }
+
+    private static String text(XWPFDocument document) {
+        StringBuilder text = new StringBuilder();
+        for (XWPFParagraph paragraph : document.getParagraphs()) {
+            text.append(paragraph.getText());
+        }
+        return text.toString();
+    }
+
+    private static Map<String, String> hyperlinks(XWPFDocument document) {
+        Map<String, String> links = new LinkedHashMap<>();
+        for (XWPFParagraph paragraph : document.getParagraphs()) {
+            for (XWPFRun run : paragraph.getRuns()) {
+                if (run instanceof XWPFHyperlinkRun) {
+                    links.merge(run.text(), ((XWPFHyperlinkRun) run).getHyperlink(document).getURL(), (a, b) -> a + b);
+                }
+            }
+        }
+        return links;
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import org.ddr.poi.html.HtmlConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSSPropertyTest {
+
+    @Test
+    void ids() {
+        int id = CSSProperty.idOf(HtmlConstants.CSS_FONT_WEIGHT);
+        assertEquals(HtmlConstants.CSS_FONT_WEIGHT, CSSProperty.nameOf(id));
+        assertEquals(id, CSSProperty.idOf("Font-Weight"));
+        assertEquals(-1, CSSProperty.idOf("azimuth"));
+        assertEquals(-1, CSSProperty.idOf(null));
+    }
+
+    @Test
+    void indexed() {
+        String inlineStyle = "COLOR: red; color: blue; azimuth: left; margin: 1px";
+        CSSStyleDeclarationImpl expected = CSSStyleUtils.parse(inlineStyle);
+        CSSStyleUtils.split(expected);
+        IndexedCSSStyle style = (IndexedCSSStyle) CSSStyleUtils.parseAndSplit(inlineStyle);
+
+        for (String property : new String[]{HtmlConstants.CSS_COLOR, "Color", "azimuth", HtmlConstants.CSS_MARGIN_TOP,
+                HtmlConstants.CSS_MARGIN, HtmlConstants.CSS_WIDTH}) {
+            assertEquals(expected.getPropertyValue(property), style.getPropertyValue(property), property);
+        }
+        assertEquals("blue", style.getPropertyValue(CSSProperty.idOf(HtmlConstants.CSS_COLOR)));
+        assertEquals("", style.getPropertyValue(CSSProperty.idOf(HtmlConstants.CSS_WIDTH)));
+
+        style.setProperty(HtmlConstants.CSS_COLOR, "green", null);
+        assertEquals("green", style.getPropertyValue(CSSProperty.idOf(HtmlConstants.CSS_COLOR)));
+        assertEquals("blue", CSSStyleUtils.parseAndSplit(inlineStyle).getPropertyValue(HtmlConstants.CSS_COLOR));
+    }
+
+    @Test
+    void keywords() {
+        assertSame(Display.NONE, Display.of("None"));
+        assertNull(Display.of(""));
+        assertSame(VerticalAlign.SUPER, VerticalAlign.of(HtmlConstants.SUPER));
+        assertNull(VerticalAlign.of("10px"));
+        assertSame(CSSFloat.RIGHT, CSSFloat.of("RIGHT"));
+        assertSame(WhiteSpaceRule.PRE_WRAP, WhiteSpaceRule.of("Pre-Wrap"));
+        assertSame(WhiteSpaceRule.NORMAL, WhiteSpaceRule.of("unknown", WhiteSpaceRule.NORMAL));
+
+        int lines = TextDecorationLine.parse(" underline\tLINE-THROUGH blink ");
+        assertTrue(TextDecorationLine.UNDERLINE.in(lines));
+        assertTrue(TextDecorationLine.LINE_THROUGH.in(lines));
+        assertFalse(TextDecorationLine.NONE.in(lines));
+        assertEquals(TextDecorationLine.NONE.getMask(), TextDecorationLine.parse(HtmlConstants.NONE));
+        assertEquals(0, TextDecorationLine.parse(""));
+    }
+}
@@ -0,0 +1,140 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import com.steadystate.css.dom.CSSValueImpl;
+import com.steadystate.css.dom.Property;
+import org.ddr.poi.html.HtmlConstants;
+import org.junit.jupiter.api.Test;
+import org.w3c.css.sac.InputSource;
+import org.w3c.css.sac.LexicalUnit;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CSSStyleUtilsTest {
+
+    @Test
+    void parseAndSplit() {
+        String inlineStyle = "margin: 1px 2px; color: red";
+        CSSStyleDeclarationImpl expected = CSSStyleUtils.parse(inlineStyle);
+        CSSStyleUtils.split(expected);
+
+        CopyOnWriteCSSStyle first = (CopyOnWriteCSSStyle) CSSStyleUtils.parseAndSplit(inlineStyle);
+        CopyOnWriteCSSStyle second = (CopyOnWriteCSSStyle) CSSStyleUtils.parseAndSplit(inlineStyle);
+        assertEquals(expected.getCssText(), first.getCssText());
+        assertEquals("2px", first.getPropertyValue(HtmlConstants.CSS_MARGIN_LEFT));
+
+        // 修改其中一个不影响缓存及其他样式
+        first.setProperty(HtmlConstants.CSS_COLOR, "blue", null);
+        first.removeProperty(HtmlConstants.CSS_MARGIN_TOP);
+        assertFalse(first.isShared());
+        assertEquals("blue", first.getPropertyValue(HtmlConstants.CSS_COLOR));
+        assertEquals("red", second.getPropertyValue(HtmlConstants.CSS_COLOR));
+        assertEquals(expected.getCssText(), second.getCssText());
+        assertEquals(expected.getCssText(), CSSStyleUtils.parseAndSplit(inlineStyle).getCssText());
+
+        second.removeProperty(HtmlConstants.CSS_WHITE_SPACE);
+        assertTrue(second.isShared());
+        second.getProperties().clear();
+        assertEquals("red", CSSStyleUtils.parseAndSplit(inlineStyle).getPropertyValue(HtmlConstants.CSS_COLOR));
+    }
+
+    @Test
+    void empty() {
+        assertTrue(CSSStyleUtils.isEmpty(null));
+        assertTrue(CSSStyleUtils.isEmpty(CSSStyleUtils.EMPTY_STYLE));
+        assertTrue(CSSStyleUtils.isEmpty(CSSStyleUtils.parseAndSplit("")));
+        assertFalse(CSSStyleUtils.isEmpty(CSSStyleUtils.parseAndSplit("color: red")));
+
+        CSSStyleDeclarationImpl style = CSSStyleUtils.parseAndSplit(" ");
+        style.setProperty(HtmlConstants.CSS_COLOR, "red", null);
+        assertEquals(0, CSSStyleUtils.parseAndSplit(" ").getLength());
+    }
+
+    @Test
+    void inlineStyleParser() throws IOException {
+        String[] simple = {
+                "color: red",
+                "COLOR : #F00 ;; Font-Family: 'Microsoft YaHei', \"Times New Roman\",Arial ,sans-serif; ",
+                "margin: 0 auto -1.50px +2em; padding:.5in 10.0pt 1PC 2mm;width: 50%; height: 1.5cm",
+                "line-height: 1.5; z-index: -3; font-weight: 700; opacity: 0.0; top: -0; left: 007; zoom: 1.123456789",
+                "font: italic bold 12px/1.5 宋体, serif; border: 1px solid #aabbcc",
+                "background: rgb(255, 0, 10) ; border-color: rgb( 1 ,2,3 ) #000 #ABCDEF; color:rgb(300,0,0)",
+                "-webkit-box-flex: 1; _zoom: 1; mso-font-kerning: 1.0pt; text-decoration: underline line-through",
+                "font-size: 1.2rem; text-indent: 2em; letter-spacing: 1ex; list-style: disc inside",
+                "a:\u00a0b; \u00a0c: d\n\te",
+                "x: 1/2; y: a , b /c",
+                "a: b;\n\tc : d ; ",
+        };
+        for (String inlineStyle : simple) {
+            CSSStyleDeclarationImpl actual = InlineStyleParser.parseDeclaration(inlineStyle);
+            assertNotNull(actual, inlineStyle);
+            CSSStyleDeclarationImpl expected = parseWithCSSParser(inlineStyle);
+            assertEquals(describe(expected), describe(actual), inlineStyle);
+            CSSStyleUtils.split(expected);
+            CSSStyleUtils.split(actual);
+            assertEquals(describe(expected), describe(actual), inlineStyle);
+        }
+
+        String[] complex = {
+                "color: red !important", "color: inherit", "width: calc(1px + 2px)", "background: url(a.png)",
+                "color: #abcd", "color: #12345g", "color: rgb(10%, 0, 0)", "color: RGB(1, 2, 3)", "a: 1e2px",
+                "a: 2147483648", "a: 1vw", "a: 1px2px", "a: 'b\\c'", "a: 'b", "a: /* c */ b", "a:", "a: b,",
+                ": b", "a b: c", "a: --b", "--a: b", "a: 1.", "a: +b", "@a: b", "a: b{c}", "*zoom: 1", " a: b", "\ta: b",
+        };
+        for (String inlineStyle : complex) {
+            assertNull(InlineStyleParser.parseDeclaration(inlineStyle), inlineStyle);
+            assertEquals(describe(parseWithCSSParser(inlineStyle)), describe(CSSStyleUtils.parse(inlineStyle)), inlineStyle);
+        }
+
+        assertEquals("12px", CSSStyleUtils.parseValue(" 12PX ").getCssText());
+        assertNull(InlineStyleParser.parseValue("a; b"));
+        assertEquals("rgb(0, 0, 0)", CSSStyleUtils.parseValue("#000").getCssText());
+    }
+
+    private static CSSStyleDeclarationImpl parseWithCSSParser(String inlineStyle) throws IOException {
+        return (CSSStyleDeclarationImpl) CSSStyleUtils.newParser().parseStyleDeclaration(new InputSource(new StringReader(inlineStyle)));
+    }
+
+    private static String describe(CSSStyleDeclarationImpl style) {
+        StringBuilder sb = new StringBuilder();
+        for (Property property : style.getProperties()) {
+            sb.append(property.getName()).append(property.isImportant() ? "!" : "").append('=');
+            describe((CSSValueImpl) property.getValue(), sb);
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void describe(CSSValueImpl value, StringBuilder sb) {
+        sb.append(value.getCssValueType()).append(':').append(value.getCssText());
+        Object o = value.getValue();
+        if (o instanceof LexicalUnit) {
+            describe((LexicalUnit) o, sb);
+        } else if (value.getLength() > 0) {
+            for (int i = 0; i < value.getLength(); i++) {
+                sb.append('[');
+                describe((CSSValueImpl) value.item(i), sb);
+                sb.append(']');
+            }
+        } else if (o != null) {
+            sb.append('<').append(o.getClass().getSimpleName()).append('>');
+        }
+    }
+
+    private static void describe(LexicalUnit unit, StringBuilder sb) {
+        for (; unit != null; unit = unit.getNextLexicalUnit()) {
+            sb.append('(').append(unit.getLexicalUnitType()).append(' ').append(unit.getIntegerValue())
+                    .append(' ').append(unit.getFloatValue()).append(' ').append(unit.getDimensionUnitText())
+                    .append(' ').append(unit.getStringValue()).append(' ').append(unit.getFunctionName());
+            describe(unit.getParameters(), sb);
+            sb.append(')');
+        }
+    }
+}
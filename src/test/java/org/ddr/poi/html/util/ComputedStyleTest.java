@@ -0,0 +1,42 @@
+package org.ddr.poi.html.util;
+
+import com.steadystate.css.dom.CSSStyleDeclarationImpl;
+import org.ddr.poi.html.HtmlConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ComputedStyleTest {
+
+    @Test
+    void inherit() {
+        int color = CSSProperty.idOf(HtmlConstants.CSS_COLOR);
+        int background = CSSProperty.idOf(HtmlConstants.CSS_BACKGROUND_COLOR);
+        assertEquals(-1, CSSProperty.idOf("unknown"));
+
+        ComputedStyle div = new ComputedStyle();
+        div.reset(null, CSSStyleUtils.parseAndSplit("color: red; background-color: blue"), true, 24, null);
+        ComputedStyle span = new ComputedStyle();
+        span.reset(div, CSSStyleUtils.parseAndSplit("font-weight: bold"), false, 0, null);
+        CSSStyleDeclarationImpl declaration = CSSStyleUtils.parseAndSplit("");
+        ComputedStyle top = new ComputedStyle();
+        top.reset(span, declaration, false, Integer.MIN_VALUE, "underline line-through");
+
+        assertEquals("red", top.getValue(color, false));
+        assertEquals("", top.getValue(color, true));
+        assertEquals("blue", span.getValue(background, false));
+        assertEquals(24, top.getInheritedFontSize());
+        assertEquals("underline line-through", top.getDeclaredValue(HtmlConstants.CSS_TEXT_DECORATION_LINE));
+        assertEquals("underline line-through",
+                top.getValue(CSSProperty.idOf(HtmlConstants.CSS_TEXT_DECORATION_LINE), true));
+
+        // 栈顶的样式声明在修改后立即生效
+        declaration.setProperty(HtmlConstants.CSS_COLOR, "green", null);
+        assertEquals("green", top.getValue(color, true));
+
+        span.reset(div, CSSStyleUtils.parseAndSplit("color: black"), false, 16, null);
+        top.reset(span, declaration, false, 0, null);
+        assertEquals("black", span.getValue(color, true));
+        assertEquals(16, top.getInheritedFontSize());
+    }
+}
@@ -0,0 +1,65 @@
+package org.ddr.poi.html.util;
+
+import com.deepoove.poi.XWPFTemplate;
+import com.deepoove.poi.config.Configure;
+import org.apache.poi.xwpf.usermodel.XWPFDocument;
+import org.ddr.poi.html.HtmlConstants;
+import org.ddr.poi.html.HtmlRenderPolicy;
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTR;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StyleFramesTest {
+
+    @Test
+    void frames() {
+        assertSame(StyleFrames.BOLD, StyleFrames.of(HtmlConstants.DEFINED_BOLD));
+        assertEquals("bold", StyleFrames.BOLD.getFontWeight());
+        assertEquals("18pt", StyleFrames.heading(2).getFontSize());
+        assertEquals("bold", StyleFrames.heading(6).getFontWeight());
+        assertEquals("2px", StyleFrames.of("margin: 1px 2px").getPropertyValue(HtmlConstants.CSS_MARGIN_LEFT));
+
+        assertThrows(UnsupportedOperationException.class,
+                () -> StyleFrames.UNDERLINE.setProperty(HtmlConstants.CSS_TEXT_DECORATION_LINE, HtmlConstants.LINE_THROUGH, null));
+        assertThrows(UnsupportedOperationException.class, () -> StyleFrames.UNDERLINE.getProperties().clear());
+    }
+
+    @Test
+    void textDecorationMerge() throws IOException {
+        XWPFDocument document = new XWPFDocument();
+        document.createStyles();
+        document.createParagraph().createRun().setText("{{html}}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.write(out);
+
+        Configure configure = Configure.builder().bind("html", new HtmlRenderPolicy()).build();
+        XWPFTemplate template = XWPFTemplate.compile(new ByteArrayInputStream(out.toByteArray()), configure)
+                .render(Collections.singletonMap("html", "<u>a<s>b</s></u><s>c</s>"));
+        int underlined = 0;
+        int struck = 0;
+        for (CTR ctr : template.getXWPFDocument().getParagraphs().get(0).getCTP().getRList()) {
+            if (ctr.getRPr() == null) {
+                continue;
+            }
+            if (ctr.getRPr().isSetU()) {
+                underlined++;
+            }
+            if (ctr.getRPr().isSetStrike()) {
+                struck++;
+            }
+        }
+        assertEquals(2, underlined);
+        assertEquals(2, struck);
+        assertEquals(HtmlConstants.UNDERLINE, StyleFrames.UNDERLINE.getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE));
+        assertEquals(HtmlConstants.LINE_THROUGH, StyleFrames.STRIKE.getPropertyValue(HtmlConstants.CSS_TEXT_DECORATION_LINE));
+        template.close();
+    }
+}
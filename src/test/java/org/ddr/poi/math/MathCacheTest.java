@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.math;
+
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MathCacheTest {
+
+    @Test
+    void key() {
+        MathRenderConfig config = new MathRenderConfig();
+        String compact = MathCache.key("<math><mi>a b</mi></math>", config);
+        assertEquals(compact, MathCache.key("  <math>\n  <mi>a b</mi>\n</math>\n", config));
+        assertNotEquals(compact, MathCache.key("<math><mi>ab</mi></math>", config));
+
+        config.setEmptyEOfNaryOption(EmptyEOfNaryDisplayMode.HIDDEN);
+        assertNotEquals(compact, MathCache.key("<math><mi>a b</mi></math>", config));
+    }
+
+    @Test
+    void domKey() throws Exception {
+        MathRenderConfig config = new MathRenderConfig();
+        String compact = MathCache.key(parse("<math><mi>a b</mi></math>"), config);
+        assertEquals(compact, MathCache.key(parse("<math>\n  <mi>a b</mi>\n</math>"), config));
+        assertNotEquals(compact, MathCache.key(parse("<math><mi mathvariant=\"bold\">a b</mi></math>"), config));
+    }
+
+    @Test
+    void lru() {
+        MathCache cache = new MathCache(2);
+        CTOMath oMath = CTOMath.Factory.newInstance();
+        cache.put("a", oMath);
+        cache.put("b", CTOMath.Factory.newInstance());
+
+        CTOMath copy = cache.get("a");
+        assertNotNull(copy);
+        assertNotSame(oMath, copy);
+
+        cache.put("c", CTOMath.Factory.newInstance());
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(2, cache.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    private static Element parse(String math) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder().parse(new InputSource(new StringReader(math))).getDocumentElement();
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.math;
+
+import org.junit.jupiter.api.Test;
+import org.openxmlformats.schemas.officeDocument.x2006.math.CTOMath;
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MathMLConverterTest {
+
+    @Test
+    void convert() throws Exception {
+        CTOMath oMath = convert("<msup><mi>x</mi><mn>2</mn></msup><mo>+</mo><mi>y</mi><mi>sin</mi>", new MathRenderConfig());
+        assertNotNull(oMath);
+        assertEquals(1, oMath.sizeOfSSupArray());
+        // 相邻同样式的文本合并
+        assertEquals(2, oMath.sizeOfRArray());
+        assertEquals("+y", oMath.getRArray(0).getT2Array(0).getStringValue());
+        assertEquals("sin", oMath.getRArray(1).getT2Array(0).getStringValue());
+    }
+
+    @Test
+    void emptyEOfNary() throws Exception {
+        MathRenderConfig config = new MathRenderConfig();
+        config.setEmptyEOfNaryOption(EmptyEOfNaryDisplayMode.ZERO_WIDTH_HIDDEN);
+        CTOMath oMath = convert("<msubsup><mo>∫</mo><mn>0</mn><mn>1</mn></msubsup><mi>x</mi>", config);
+        assertNotNull(oMath);
+        assertEquals(1, oMath.getNaryArray(0).getE().sizeOfPhantArray());
+        assertEquals(1, oMath.sizeOfRArray());
+    }
+
+    @Test
+    void unsupported() throws Exception {
+        assertNull(convert("<mover accent=\"true\"><mi>x</mi><mo>^</mo></mover>", new MathRenderConfig()));
+        assertNull(convert("<mrow><mn>1</mn><mo>/</mo><mn>2</mn></mrow>", new MathRenderConfig()));
+        assertNull(convert("<menclose><mi>x</mi></menclose>", new MathRenderConfig()));
+    }
+
+    private static CTOMath convert(String content, MathRenderConfig config) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        String math = "<math xmlns=\"http://www.w3.org/1998/Math/MathML\">" + content + "</math>";
+        Element element = factory.newDocumentBuilder().parse(new InputSource(new StringReader(math))).getDocumentElement();
+        return MathMLConverter.convert(element, config);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2016 - 2021 Draco, https://github.com/draco1023
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.ddr.poi.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageIOUtilsTest {
+
+    @Test
+    void roundTrip() throws IOException {
+        BufferedImage source = new BufferedImage(30, 20, BufferedImage.TYPE_INT_ARGB);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertTrue(ImageIOUtils.write(source, "png", out));
+        byte[] png = out.toByteArray();
+
+        assertEquals(new Dimension(30, 20), ImageIOUtils.readDimension(png, "png"));
+        BufferedImage image = ImageIOUtils.read(png, "png");
+        assertNotNull(image);
+        assertEquals(30, image.getWidth());
+        assertTrue(image.getColorModel().hasAlpha());
+
+        // 格式与数据不符或未知时回退到遍历所有解码器
+        assertEquals(new Dimension(30, 20), ImageIOUtils.readDimension(png, "jpg"));
+        assertNotNull(ImageIOUtils.read(png, null));
+    }
+
+    @Test
+    void unsupported() throws IOException {
+        byte[] data = "not an image".getBytes(StandardCharsets.UTF_8);
+        assertNull(ImageIOUtils.read(data, "png"));
+        assertNull(ImageIOUtils.readDimension(data, null));
+        BufferedImage image = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        assertFalse(ImageIOUtils.write(image, "unknown", new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void cachedLookup() {
+        assertFalse(ImageIOUtils.readerSpis("JPEG").isEmpty());
+        assertSame(ImageIOUtils.readerSpis("jpeg"), ImageIOUtils.readerSpis("JPEG"));
+        assertSame(ImageIOUtils.writerSpis("png"), ImageIOUtils.writerSpis("PNG"));
+    }
+}